@@ -0,0 +1,93 @@
+package com.drugscreen.platform.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评分内核基准
+ * - kernel：只计算得分与标签位，期望 gc.alloc.rate.norm 为 0 B/op
+ * - kernelWithText：额外生成标签与建议文本
+ * - service：完整的 ScoringService.score（含结果 DTO）
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Djmh.args="ScoringKernelBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringKernelBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final ScoreCard card = new ScoreCard();
+    private ScoringInput[] inputs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 固定种子，覆盖熔断、弱结合、LogP 越界等各分支
+        Random random = new Random(42);
+        inputs = new ScoringInput[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            inputs[i] = new ScoringInput((long) i,
+                    -2.0 + random.nextDouble() * 8.0,
+                    200.0 + random.nextDouble() * 400.0,
+                    random.nextInt(8),
+                    random.nextInt(14),
+                    15 + random.nextInt(30),
+                    -12.0 + random.nextDouble() * 8.0,
+                    random.nextDouble(),
+                    random.nextDouble() * 0.8,
+                    random.nextInt(2),
+                    random.nextInt(2),
+                    random.nextDouble(),
+                    random.nextDouble(),
+                    AdmetService.PROVENANCE_REAL,
+                    RemoteAdmetPredictor.NAME);
+        }
+    }
+
+    private ScoringInput nextInput() {
+        ScoringInput in = inputs[next];
+        next = (next + 1) & (SIZE - 1);
+        return in;
+    }
+
+    @Benchmark
+    public ScoreCard kernel() {
+        ScoringInput in = nextInput();
+        return ScoringKernel.score(in.affinity(), in.similarity(), in.hergToxicity(), in.amesToxicity() == 1,
+                in.liverToxicity() == 1, in.absorption(), in.metabolism(), in.logP(), in.molecularWeight(),
+                in.hbd(), in.hba(), in.heavyAtomCount(), card);
+    }
+
+    @Benchmark
+    public String kernelWithText() {
+        ScoreCard scored = kernel();
+        List<String> tags = new ArrayList<>();
+        StringBuilder advice = new StringBuilder();
+        ScoringKernel.appendTags(scored, tags);
+        ScoringKernel.appendAdvice(scored, advice);
+        return advice.toString();
+    }
+
+    @Benchmark
+    public Object service() {
+        return ScoringService.score(nextInput());
+    }
+}
@@ -9,7 +9,7 @@ import java.util.concurrent.Executor;
 
 /**
  * 异步任务配置
- * 用于 Docking 和 ADMET 预测等耗时任务
+ * 用于 ADMET 预测等耗时任务（分子对接由 DockingScheduler 单独调度）
  */
 @Configuration
 @EnableAsync
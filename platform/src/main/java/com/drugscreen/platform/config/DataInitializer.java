@@ -1,6 +1,7 @@
 package com.drugscreen.platform.config;
 
 import com.drugscreen.platform.service.CsvImportService;
+import com.drugscreen.platform.service.ProteinService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,10 +10,12 @@ import org.springframework.context.annotation.Configuration;
 public class DataInitializer {
 
     @Bean
-    CommandLineRunner initDatabase(CsvImportService csvImportService) {
+    CommandLineRunner initDatabase(CsvImportService csvImportService, ProteinService proteinService) {
         return args -> {
             // 启动时自动从 CSV 导入 48 个化合物
             csvImportService.importCompoundsFromCsv();
+            // 确保默认受体 1e9h 存在并带有对接盒
+            proteinService.ensureDefaultProtein();
         };
     }
 }
@@ -0,0 +1,13 @@
+package com.drugscreen.platform.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置
+ * 用于对接结果批量写入、筛选进度持久化等周期性任务
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
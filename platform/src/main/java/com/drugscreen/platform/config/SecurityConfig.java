@@ -50,6 +50,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/analysis/**").permitAll()
                         // 公开访问的API - 分子对接
                         .requestMatchers("/api/docking/**").permitAll()
+                        // 公开访问的API - 虚拟筛选
+                        .requestMatchers("/api/screening/**").permitAll()
                         // 公开访问的API - ADMET预测
                         .requestMatchers("/api/admet/**").permitAll()
                         // 公开访问的API - 错误处理和文档
@@ -1,13 +1,24 @@
 package com.drugscreen.platform.controller;
 
+import com.drugscreen.platform.dto.AdmetBatchRequest;
+import com.drugscreen.platform.dto.AdmetBatchResultDTO;
 import com.drugscreen.platform.dto.ApiResponse;
 import com.drugscreen.platform.entity.AdmetResult;
+import com.drugscreen.platform.service.AdmetPredictorRegistry;
 import com.drugscreen.platform.service.AdmetService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/admet")
@@ -16,24 +27,66 @@ import org.springframework.web.bind.annotation.*;
 public class AdmetController {
 
     private final AdmetService admetService;
+    private final AdmetPredictorRegistry predictorRegistry;
 
     /**
      * 提交ADMET预测任务
+     * 异步返回，等待 ADMET 服务响应期间不占用请求线程
      * @param compoundId 化合物ID
+     * @param engine 预测引擎 (remote / local)，为空时使用默认引擎
      * @return 任务执行结果
      */
     @RequestMapping(value = "/predict", method = {RequestMethod.GET, RequestMethod.POST})
-    public ResponseEntity<ApiResponse<AdmetResult>> submitAdmetPrediction(@RequestParam Long compoundId) {
+    public CompletableFuture<ResponseEntity<ApiResponse<AdmetResult>>> submitAdmetPrediction(
+            @RequestParam Long compoundId, @RequestParam(required = false) String engine) {
+        log.info("提交ADMET预测任务，化合物ID: {}, 引擎: {}", compoundId, engine);
+        return admetService.predictAsync(compoundId, engine)
+                .handle((result, e) -> {
+                    if (e == null) {
+                        return ResponseEntity.ok(ApiResponse.success("预测成功", result));
+                    }
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    log.error("ADMET预测失败: {}", cause.getMessage());
+                    return ResponseEntity.badRequest().body(ApiResponse.error("预测失败: " + cause.getMessage()));
+                });
+    }
+
+    /**
+     * 批量ADMET预测
+     * @param request 化合物ID列表
+     * @return 每个化合物的预测结果或失败原因
+     */
+    @PostMapping("/predict/batch")
+    public ResponseEntity<ApiResponse<AdmetBatchResultDTO>> predictBatch(@Valid @RequestBody AdmetBatchRequest request,
+                                                                         BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            String errorMsg = bindingResult.getAllErrors().stream()
+                    .map(error -> error.getDefaultMessage())
+                    .collect(Collectors.joining(", "));
+            return ResponseEntity.badRequest().body(ApiResponse.error(errorMsg));
+        }
         try {
-            log.info("提交ADMET预测任务，化合物ID: {}", compoundId);
-            AdmetResult result = admetService.executeAdmetPrediction(compoundId);
-            return ResponseEntity.ok(ApiResponse.success("预测成功", result));
+            log.info("提交批量ADMET预测，化合物数: {}", request.getCompoundIds().size());
+            AdmetBatchResultDTO result = admetService.predictBatch(request.getCompoundIds(), request.getEngine());
+            return ResponseEntity.ok(ApiResponse.success("批量预测完成", result));
         } catch (Exception e) {
-            log.error("ADMET预测失败: {}", e.getMessage());
-            return ResponseEntity.badRequest().body(ApiResponse.error("预测失败: " + e.getMessage()));
+            log.error("批量ADMET预测失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("批量预测失败: " + e.getMessage()));
         }
     }
 
+    /**
+     * 可用的预测引擎
+     * @return 默认引擎与全部引擎名称
+     */
+    @GetMapping("/engines")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getEngines() {
+        Map<String, Object> engines = new LinkedHashMap<>();
+        engines.put("default", predictorRegistry.getDefaultName());
+        engines.put("engines", predictorRegistry.getNames());
+        return ResponseEntity.ok(ApiResponse.success("查询成功", engines));
+    }
+
     /**
      * 根据化合物ID查询ADMET结果
      * @param compoundId 化合物ID
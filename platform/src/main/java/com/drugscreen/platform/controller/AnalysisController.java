@@ -1,11 +1,21 @@
 package com.drugscreen.platform.controller;
 
+import com.drugscreen.platform.dto.ApiResponse;
+import com.drugscreen.platform.dto.RerankResultDTO;
+import com.drugscreen.platform.dto.ScoringBatchRequest;
+import com.drugscreen.platform.dto.ScoringBatchResultDTO;
 import com.drugscreen.platform.dto.ScoringResultDTO;
 import com.drugscreen.platform.service.ScoringService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.stream.Collectors;
+
+@Slf4j
 @RestController
 @RequestMapping("/api/analysis")
 @CrossOrigin(origins = "*")
@@ -18,4 +28,51 @@ public class AnalysisController {
     public ResponseEntity<ScoringResultDTO> calculateScore(@PathVariable Long compoundId) {
         return ResponseEntity.ok(scoringService.analyze(compoundId));
     }
+
+    /**
+     * 批量评分
+     * @param request 化合物ID列表（为空表示整个化合物库）与可选的受体ID
+     * @return 评分数量与耗时，各化合物的报告写入 analysis_reports
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<ScoringBatchResultDTO>> calculateBatch(@Valid @RequestBody ScoringBatchRequest request,
+                                                                             BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            String errorMsg = bindingResult.getAllErrors().stream()
+                    .map(error -> error.getDefaultMessage())
+                    .collect(Collectors.joining(", "));
+            return ResponseEntity.badRequest().body(ApiResponse.error(errorMsg));
+        }
+        try {
+            ScoringBatchResultDTO result = scoringService.analyzeBatch(request.getCompoundIds(), request.getProteinId());
+            return ResponseEntity.ok(ApiResponse.success("批量评分完成", result));
+        } catch (Exception e) {
+            log.error("批量评分失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("批量评分失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 按评分方案重新排名（基于内存中的评分输入，不写入报告）
+     * @param profile 方案名称，为空时使用生效方案，builtin 表示内置规则
+     * @param version 方案版本，为空时取最新版本
+     * @param proteinId 只取该受体上的最佳对接结果，为空时不限受体
+     * @param k 返回的名次数 (1-1000)
+     */
+    @GetMapping("/rerank")
+    public ResponseEntity<ApiResponse<RerankResultDTO>> rerank(@RequestParam(required = false) String profile,
+                                                               @RequestParam(required = false) Integer version,
+                                                               @RequestParam(required = false) Long proteinId,
+                                                               @RequestParam(defaultValue = "50") int k) {
+        if (k < 1 || k > 1000) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("k 必须在 1 到 1000 之间"));
+        }
+        try {
+            RerankResultDTO result = scoringService.rerank(profile, version, proteinId, k);
+            return ResponseEntity.ok(ApiResponse.success("重新排名完成", result));
+        } catch (Exception e) {
+            log.error("重新排名失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("重新排名失败: " + e.getMessage()));
+        }
+    }
 }
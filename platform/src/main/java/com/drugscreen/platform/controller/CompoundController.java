@@ -95,6 +95,24 @@ public class CompoundController {
         }
     }
     
+    /**
+     * 获取前 k 名化合物 (按最佳亲和力，可按受体或分类筛选)
+     * GET /api/compounds/top?k=50&proteinId=1
+     * GET /api/compounds/top?k=20&category=黄酮类
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<RankedCompoundDTO>> getTop(
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) Long proteinId,
+            @RequestParam(required = false) String category) {
+        try {
+            return ResponseEntity.ok(compoundService.getTopCompounds(k, proteinId, category));
+        } catch (RuntimeException e) {
+            log.warn("获取排行榜失败: k={}, proteinId={}, category={}, {}", k, proteinId, category, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     /**
      * 根据分类获取化合物列表
      * GET /api/compounds/category/{categoryName}
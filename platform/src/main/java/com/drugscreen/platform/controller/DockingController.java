@@ -1,12 +1,21 @@
 package com.drugscreen.platform.controller;
 
 import com.drugscreen.platform.dto.ApiResponse;
+import com.drugscreen.platform.dto.DockedPoseDTO;
+import com.drugscreen.platform.dto.DockingCacheStatsDTO;
+import com.drugscreen.platform.dto.DockingSchedulerStatsDTO;
+import com.drugscreen.platform.dto.DockingTaskStatusDTO;
 import com.drugscreen.platform.entity.DockingResult;
+import com.drugscreen.platform.service.DockingScheduler;
 import com.drugscreen.platform.service.DockingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -20,20 +29,89 @@ public class DockingController {
     /**
      * 提交对接任务
      * @param compoundId 化合物ID
-     * @return 任务状态
+     * @param proteinId 受体蛋白ID，不传时使用默认受体 1e9h
+     * @param priority 优先级，数值越大越先执行
+     * @return 任务调度状态（含任务ID、排队位置）
      */
     @RequestMapping(value = "/submit", method = {RequestMethod.GET, RequestMethod.POST})
-    public ResponseEntity<ApiResponse<String>> submitDocking(@RequestParam Long compoundId) {
+    public ResponseEntity<ApiResponse<DockingTaskStatusDTO>> submitDocking(
+            @RequestParam Long compoundId,
+            @RequestParam(required = false) Long proteinId,
+            @RequestParam(defaultValue = "" + DockingScheduler.PRIORITY_INTERACTIVE) int priority) {
         try {
-            log.info("提交对接任务，化合物ID: {}", compoundId);
-            dockingService.executeDocking(compoundId);
-            return ResponseEntity.ok(ApiResponse.success("任务已提交，正在执行", "PENDING"));
+            log.info("提交对接任务，化合物ID: {}, 受体ID: {}, 优先级: {}", compoundId, proteinId, priority);
+            DockingTaskStatusDTO status = dockingService.submitDocking(compoundId, proteinId, priority);
+            return ResponseEntity.ok(ApiResponse.success("任务已提交，正在排队", status));
         } catch (Exception e) {
             log.error("提交对接任务失败: {}", e.getMessage());
             return ResponseEntity.badRequest().body(ApiResponse.error("提交失败: " + e.getMessage()));
         }
     }
 
+    /**
+     * 查询任务的排队位置与等待时间
+     * @param taskId 任务ID
+     * @return 调度状态
+     */
+    @GetMapping("/queue/{taskId}")
+    public ResponseEntity<ApiResponse<DockingTaskStatusDTO>> getTaskStatus(@PathVariable Long taskId) {
+        DockingTaskStatusDTO status = dockingService.getTaskStatus(taskId);
+        if (status == null) {
+            return ResponseEntity.ok(ApiResponse.error("任务不存在或不在队列中，请查询对接结果"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("查询成功", status));
+    }
+
+    /**
+     * 订阅任务状态事件（SSE），代替轮询对接结果
+     * 事件名为 queued / running / progress / completed / failed，任务结束后服务端关闭连接
+     * @param taskId 任务ID
+     */
+    @GetMapping(value = "/events/{taskId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@PathVariable Long taskId) {
+        try {
+            return ResponseEntity.ok(dockingService.subscribe(taskId));
+        } catch (Exception e) {
+            log.error("订阅任务事件失败: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * 取消对接任务（排队中直接移除，运行中结束 Vina 进程树），任务状态记为 cancelled
+     * @param taskId 任务ID
+     */
+    @PostMapping("/cancel/{taskId}")
+    public ResponseEntity<ApiResponse<Boolean>> cancel(@PathVariable Long taskId) {
+        try {
+            boolean cancelled = dockingService.cancel(taskId);
+            if (!cancelled) {
+                return ResponseEntity.ok(ApiResponse.error("任务不在队列中或已结束，无法取消"));
+            }
+            return ResponseEntity.ok(ApiResponse.success("任务已取消", true));
+        } catch (Exception e) {
+            log.error("取消对接任务失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("取消失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询对接调度器状态
+     * @return 核数、并发数、排队数等
+     */
+    @GetMapping("/scheduler")
+    public ResponseEntity<ApiResponse<DockingSchedulerStatsDTO>> getSchedulerStats() {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", dockingService.getSchedulerStats()));
+    }
+
+    /**
+     * 查询对接结果缓存命中统计
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<DockingCacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", dockingService.getCacheStats()));
+    }
+
     /**
      * 查询对接结果
      * @param taskId 任务ID
@@ -53,6 +131,41 @@ public class DockingController {
         }
     }
 
+    /**
+     * 查询对接结果的全部构象摘要（不含构象内容）
+     * @param taskId 任务ID
+     * @return 构象列表
+     */
+    @GetMapping("/result/{taskId}/poses")
+    public ResponseEntity<ApiResponse<List<DockedPoseDTO>>> getPoses(@PathVariable Long taskId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("查询成功", dockingService.getPoses(taskId)));
+        } catch (Exception e) {
+            log.error("查询对接构象失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("查询失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 按序号查询单个构象
+     * @param taskId 任务ID
+     * @param modeIndex 结合模式序号（1 为最佳）
+     * @return 构象（含 PDBQT）
+     */
+    @GetMapping("/result/{taskId}/poses/{modeIndex}")
+    public ResponseEntity<ApiResponse<DockedPoseDTO>> getPose(@PathVariable Long taskId, @PathVariable int modeIndex) {
+        try {
+            DockedPoseDTO pose = dockingService.getPose(taskId, modeIndex);
+            if (pose == null) {
+                return ResponseEntity.ok(ApiResponse.error("构象不存在"));
+            }
+            return ResponseEntity.ok(ApiResponse.success("查询成功", pose));
+        } catch (Exception e) {
+            log.error("查询对接构象失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("查询失败: " + e.getMessage()));
+        }
+    }
+
     /**
      * 根据化合物ID查询最新的对接结果
      * @param compoundId 化合物ID
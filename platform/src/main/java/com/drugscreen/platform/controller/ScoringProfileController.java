@@ -0,0 +1,107 @@
+package com.drugscreen.platform.controller;
+
+import com.drugscreen.platform.dto.ApiResponse;
+import com.drugscreen.platform.dto.ScoringProfileRequest;
+import com.drugscreen.platform.entity.ScoringProfile;
+import com.drugscreen.platform.service.ScoringProfileService;
+import com.drugscreen.platform.service.ScoringWeights;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 评分方案管理
+ * 保存新版本、激活与重新加载；激活后新的评分立即使用该方案，已有报告不会自动重算
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/scoring/profiles")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class ScoringProfileController {
+
+    private final ScoringProfileService profileService;
+
+    /**
+     * 列出全部方案版本
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<ScoringProfile>>> listProfiles() {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", profileService.listProfiles()));
+    }
+
+    /**
+     * 当前生效的方案及其完整权重
+     */
+    @GetMapping("/active")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getActive() {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", describe(profileService.getActive())));
+    }
+
+    /**
+     * 保存方案的新版本（不生效）
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<ScoringProfile>> createVersion(@Valid @RequestBody ScoringProfileRequest request,
+                                                                     BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            String errorMsg = bindingResult.getAllErrors().stream()
+                    .map(error -> error.getDefaultMessage())
+                    .collect(Collectors.joining(", "));
+            return ResponseEntity.badRequest().body(ApiResponse.error(errorMsg));
+        }
+        try {
+            ScoringProfile profile = profileService.createVersion(request.getName(), request.getWeights(), request.getDescription());
+            return ResponseEntity.ok(ApiResponse.success("方案已保存", profile));
+        } catch (Exception e) {
+            log.error("保存评分方案失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("保存失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 激活方案版本；name 为 builtin 时恢复内置规则
+     * @param version 版本号，为空时取最新版本
+     */
+    @PostMapping("/{name}/activate")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> activate(@PathVariable String name,
+                                                                     @RequestParam(required = false) Integer version) {
+        try {
+            ScoringProfileService.Profile profile = profileService.activate(name, version);
+            return ResponseEntity.ok(ApiResponse.success("方案已生效", describe(profile)));
+        } catch (Exception e) {
+            log.error("激活评分方案失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("激活失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 立即从数据库重新加载生效方案（其他节点激活方案后无需等待定时检查）
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> reload() {
+        profileService.reload();
+        return ResponseEntity.ok(ApiResponse.success("已重新加载", describe(profileService.getActive())));
+    }
+
+    private static Map<String, Object> describe(ScoringProfileService.Profile profile) {
+        ScoringWeights weights = profile.weights();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("name", profile.name());
+        data.put("version", profile.version());
+        data.put("label", profile.label());
+        data.put("weights", weights);
+        data.put("safetyMax", weights.getSafetyMax());
+        data.put("potencyMax", weights.getPotencyMax());
+        data.put("druglikenessMax", weights.getDruglikenessMax());
+        return data;
+    }
+}
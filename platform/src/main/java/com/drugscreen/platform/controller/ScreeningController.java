@@ -0,0 +1,84 @@
+package com.drugscreen.platform.controller;
+
+import com.drugscreen.platform.dto.ApiResponse;
+import com.drugscreen.platform.dto.ScreeningRunDTO;
+import com.drugscreen.platform.dto.ScreeningRunRequest;
+import com.drugscreen.platform.entity.ScreeningRun;
+import com.drugscreen.platform.service.ScreeningService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.stream.Collectors;
+
+/**
+ * 虚拟筛选控制器
+ * 一次提交整个化合物库（或分类、ID 列表）的对接任务，并查询整体进度
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/screening")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ScreeningController {
+
+    private final ScreeningService screeningService;
+
+    /**
+     * 创建虚拟筛选批次
+     * POST /api/screening/runs  {"selection": "CATEGORY", "category": "黄酮类"}
+     */
+    @PostMapping("/runs")
+    public ResponseEntity<ApiResponse<ScreeningRunDTO>> createRun(@Valid @RequestBody ScreeningRunRequest request,
+                                                                  BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            String errorMsg = bindingResult.getAllErrors().stream()
+                    .map(error -> error.getDefaultMessage())
+                    .collect(Collectors.joining(", "));
+            return ResponseEntity.badRequest().body(ApiResponse.error(errorMsg));
+        }
+
+        try {
+            ScreeningRun run = screeningService.createRun(request);
+            screeningService.fanOut(run.getId());
+            return ResponseEntity.ok(ApiResponse.success("筛选批次已创建，正在分发", screeningService.getRun(run.getId())));
+        } catch (Exception e) {
+            log.error("创建筛选批次失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("创建失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询筛选批次进度
+     * GET /api/screening/runs/{runId}
+     */
+    @GetMapping("/runs/{runId}")
+    public ResponseEntity<ApiResponse<ScreeningRunDTO>> getRun(@PathVariable Long runId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("查询成功", screeningService.getRun(runId)));
+        } catch (Exception e) {
+            log.error("查询筛选批次失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("查询失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 订阅筛选批次事件（SSE）
+     * GET /api/screening/runs/{runId}/events
+     * 每个任务结束推送 completed / failed，批次完成推送 run-completed 后关闭连接
+     */
+    @GetMapping(value = "/runs/{runId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@PathVariable Long runId) {
+        try {
+            return ResponseEntity.ok(screeningService.subscribe(runId));
+        } catch (Exception e) {
+            log.error("订阅筛选批次事件失败: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -22,13 +22,14 @@ public class VisualController {
     
     /**
      * 获取 3D 可视化所需的所有数据
-     * GET /api/visual/{compoundId}
+     * GET /api/visual/{compoundId}?pose=1
      */
     @GetMapping("/{compoundId}")
-    public ResponseEntity<Visual3DDTO> getVisualData(@PathVariable Long compoundId) {
+    public ResponseEntity<Visual3DDTO> getVisualData(@PathVariable Long compoundId,
+                                                     @RequestParam(defaultValue = "1") int pose) {
         try {
-            log.info("开始获取化合物 {} 的 3D 可视化数据", compoundId);
-            Visual3DDTO dto = visual3DService.getVisual3DData(compoundId);
+            log.info("开始获取化合物 {} 的 3D 可视化数据，构象序号: {}", compoundId, pose);
+            Visual3DDTO dto = visual3DService.getVisual3DData(compoundId, pose);
             return ResponseEntity.ok(dto);
         } catch (RuntimeException e) {
             log.error("获取 3D 可视化数据失败: compoundId={}, 错误: {}", compoundId, e.getMessage());
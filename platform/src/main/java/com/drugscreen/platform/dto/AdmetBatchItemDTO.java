@@ -0,0 +1,19 @@
+package com.drugscreen.platform.dto;
+
+import com.drugscreen.platform.entity.AdmetResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量 ADMET 预测中单个化合物的结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdmetBatchItemDTO {
+    private Long compoundId;
+    private String status;        // PREDICTED（本次预测） / CACHED（预测缓存） / EXISTING（已有结果） / FAILED
+    private String message;       // 失败原因
+    private AdmetResult result;   // 预测结果，失败时为空
+}
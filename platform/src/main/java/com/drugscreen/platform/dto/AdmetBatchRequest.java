@@ -0,0 +1,18 @@
+package com.drugscreen.platform.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量 ADMET 预测请求
+ */
+@Data
+public class AdmetBatchRequest {
+
+    @NotEmpty(message = "compoundIds不能为空")
+    private List<Long> compoundIds; // 化合物ID列表
+
+    private String engine; // 预测引擎 (remote / local)，为空时使用默认引擎
+}
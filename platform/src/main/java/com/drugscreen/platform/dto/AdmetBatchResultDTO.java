@@ -0,0 +1,20 @@
+package com.drugscreen.platform.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量 ADMET 预测结果
+ */
+@Data
+public class AdmetBatchResultDTO {
+    private Integer requested;    // 请求的化合物数（去重后）
+    private Integer predicted;    // 本次调用服务预测成功数
+    private Integer cached;       // 由预测缓存（同结构化合物）得到的结果数
+    private Integer existing;     // 已有结果、未重复预测数
+    private Integer failed;       // 失败数
+    private Integer chunks;       // 发往 ADMET 服务的分块数
+    private Long elapsedMillis;   // 耗时
+    private List<AdmetBatchItemDTO> items;
+}
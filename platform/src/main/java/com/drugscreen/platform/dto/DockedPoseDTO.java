@@ -0,0 +1,17 @@
+package com.drugscreen.platform.dto;
+
+import lombok.Data;
+
+/**
+ * 对接构象数据传输对象
+ */
+@Data
+public class DockedPoseDTO {
+    private Long dockingResultId;
+    private Integer modeIndex;   // 结合模式序号（1 为最佳）
+    private Double affinity;     // 结合亲和力 (kcal/mol)
+    private Double rmsdLb;       // RMSD 下界
+    private Double rmsdUb;       // RMSD 上界
+    private Integer atomCount;   // 原子数
+    private String pdbqt;        // 构象 PDBQT（仅单个构象查询时返回）
+}
@@ -0,0 +1,14 @@
+package com.drugscreen.platform.dto;
+
+import lombok.Data;
+
+/**
+ * 对接结果缓存统计
+ */
+@Data
+public class DockingCacheStatsDTO {
+    private Long hits;       // 本次启动以来的命中数
+    private Long misses;     // 本次启动以来的未命中数
+    private Double hitRate;  // 命中率 (0-1)
+    private Long entries;    // 缓存表中的条目数
+}
@@ -0,0 +1,27 @@
+package com.drugscreen.platform.dto;
+
+import lombok.Data;
+
+/**
+ * 对接任务状态事件（SSE 推送）
+ */
+@Data
+public class DockingEventDTO {
+    private Long taskId;          // 任务 ID（DockingResult ID）
+    private Long screeningRunId;  // 所属筛选批次 ID，单独提交时为空
+    private Long compoundId;      // 化合物 ID
+    private Long proteinId;       // 受体蛋白 ID
+    private String state;         // queued / running / progress / completed / failed / timeout / cancelled
+    private Double progress;      // 运行进度 (0-1)
+    private Double affinity;      // 结束时的最佳亲和力 (kcal/mol)
+    private String message;       // 失败原因等
+    private Long timestamp;       // 事件时间（毫秒）
+
+    /**
+     * 是否为终止状态
+     */
+    public boolean isTerminal() {
+        return "completed".equals(state) || "failed".equals(state)
+                || "timeout".equals(state) || "cancelled".equals(state);
+    }
+}
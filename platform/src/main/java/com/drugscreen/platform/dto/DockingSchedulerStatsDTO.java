@@ -0,0 +1,16 @@
+package com.drugscreen.platform.dto;
+
+import lombok.Data;
+
+/**
+ * 对接调度器整体状态
+ */
+@Data
+public class DockingSchedulerStatsDTO {
+    private Integer cores;      // 检测到的 CPU 核数
+    private Integer slots;      // 同时运行的 Vina 进程数
+    private Integer cpuPerJob;  // 每个 Vina 进程的 --cpu
+    private Integer running;    // 正在运行的任务数
+    private Integer queued;     // 排队中的任务数
+    private Long completed;     // 已完成的任务数（含失败）
+}
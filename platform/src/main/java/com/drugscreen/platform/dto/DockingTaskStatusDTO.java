@@ -0,0 +1,19 @@
+package com.drugscreen.platform.dto;
+
+import lombok.Data;
+
+/**
+ * 对接任务调度状态
+ */
+@Data
+public class DockingTaskStatusDTO {
+    private Long taskId;          // 任务 ID（DockingResult ID）
+    private String state;         // QUEUED / RUNNING / FINISHED
+    private Integer priority;     // 优先级，数值越大越先执行
+    private Integer queuePosition; // 排队位置（1 表示下一个执行，运行中为 0）
+    private Integer queueLength;  // 当前队列长度
+    private Long waitMillis;      // 已等待（或开始前等待）的毫秒数
+    private Integer cpuPerJob;    // 分配给该任务的 CPU 数
+    private Double progress;      // 运行进度 (0-1)，取自 Vina 进度条
+    private Boolean deduplicated; // 是否合并到了相同输入的进行中任务
+}
@@ -0,0 +1,20 @@
+package com.drugscreen.platform.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 重新排名中的一个名次
+ */
+@Data
+public class RerankItemDTO {
+    private Integer rank;               // 名次，从 1 开始
+    private Long compoundId;
+    private Double totalScore;
+    private Double potencyScore;
+    private Double safetyScore;
+    private Double druglikenessScore;
+    private Double affinity;            // 最佳对接亲和力 (kcal/mol)
+    private List<String> adviceTags;
+}
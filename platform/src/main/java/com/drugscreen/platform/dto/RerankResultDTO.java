@@ -0,0 +1,18 @@
+package com.drugscreen.platform.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 按评分方案重新排名的结果（不写入分析报告）
+ */
+@Data
+public class RerankResultDTO {
+    private String scoringProfile;      // 使用的评分方案及版本
+    private Integer candidates;         // 参与排名的化合物数（对接、ADMET 与分子属性齐全）
+    private Integer vetoed;             // 其中触发 hERG 一票否决而不参与排名的数量
+    private Long cacheMillis;           // 读取评分输入缓存的耗时（含加载或增量刷新）
+    private Long elapsedMillis;         // 总耗时
+    private List<RerankItemDTO> items;
+}
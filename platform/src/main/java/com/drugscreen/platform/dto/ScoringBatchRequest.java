@@ -0,0 +1,18 @@
+package com.drugscreen.platform.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量评分请求，compoundIds 为空时对整个化合物库评分
+ */
+@Data
+public class ScoringBatchRequest {
+
+    @Size(max = 100000, message = "单次最多指定 100000 个化合物")
+    private List<Long> compoundIds; // 化合物ID列表，为空表示全部
+
+    private Long proteinId; // 只取该受体上的最佳对接结果，为空表示不限受体
+}
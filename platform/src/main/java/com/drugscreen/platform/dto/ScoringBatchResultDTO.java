@@ -0,0 +1,15 @@
+package com.drugscreen.platform.dto;
+
+import lombok.Data;
+
+/**
+ * 批量评分结果
+ */
+@Data
+public class ScoringBatchResultDTO {
+    private Integer scored;       // 已评分并写入报告的化合物数
+    private Integer vetoed;       // 其中触发 hERG 一票否决的数量
+    private Integer missing;      // 指定化合物中缺少对接结果、ADMET 结果或分子属性而未评分的数量
+    private Integer chunks;       // 并行处理的分块数
+    private Long elapsedMillis;   // 耗时
+}
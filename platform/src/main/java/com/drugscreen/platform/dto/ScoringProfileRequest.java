@@ -0,0 +1,25 @@
+package com.drugscreen.platform.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 保存评分方案新版本的请求
+ */
+@Data
+public class ScoringProfileRequest {
+
+    @NotBlank(message = "方案名称不能为空")
+    @Size(max = 50, message = "方案名称不能超过 50 个字符")
+    @Pattern(regexp = "[A-Za-z0-9_\\-]+", message = "方案名称只能包含字母、数字、下划线和连字符")
+    private String name;
+
+    private Map<String, Object> weights; // 与 ScoringWeights 字段同名的权重与阈值，未给出的取默认值
+
+    @Size(max = 500, message = "说明不能超过 500 个字符")
+    private String description;
+}
@@ -15,6 +15,9 @@ public class ScoringResultDTO {
 
     // 状态标识
     private Boolean vetoed;             // 是否触发熔断 (一票否决)
+    private String admetProvenance;     // ADMET 数据来源 (REAL / DEFAULTED / STALE)，非 REAL 时安全性与成药性分仅供参考
+    private String admetPredictor;      // ADMET 预测引擎 (remote / local)
+    private String scoringProfile;      // 评分方案及版本 (builtin 或 名称@v版本)
 
     // 文本报告
     private List<String> adviceTags;    // 建议标签 (混合了优缺点)
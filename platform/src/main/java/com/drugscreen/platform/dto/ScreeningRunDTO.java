@@ -0,0 +1,25 @@
+package com.drugscreen.platform.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 虚拟筛选批次进度
+ */
+@Data
+public class ScreeningRunDTO {
+    private Long runId;
+    private String selectionType;
+    private List<Long> proteinIds;  // 受体蛋白ID
+    private String mode;            // STANDARD / FUNNEL
+    private Integer funnelStage;    // 漏斗模式当前阶段（1 初筛，2 复筛）
+    private String status;          // RUNNING / COMPLETED
+    private Integer total;          // 已分发任务数
+    private Integer completed;      // 成功数
+    private Integer failed;         // 失败数
+    private Integer pending;        // 排队或运行中
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
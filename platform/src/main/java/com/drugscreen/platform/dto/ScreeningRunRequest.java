@@ -0,0 +1,35 @@
+package com.drugscreen.platform.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 虚拟筛选请求
+ * selection 为 ALL 时筛选全部化合物，CATEGORY 时按 category 筛选，IDS 时按 compoundIds 筛选。
+ * mode 为 FUNNEL 时先以低穷举度对全部化合物初筛，再按 refineTopN / refineTopPercent / refineMaxAffinity
+ * （可组合，同时满足）选出每个受体的候选以高穷举度复筛；三者均未指定时取默认百分比
+ */
+@Data
+public class ScreeningRunRequest {
+
+    @NotBlank(message = "selection不能为空")
+    private String selection;       // ALL / CATEGORY / IDS
+
+    private String category;        // selection = CATEGORY 时必填
+
+    private List<Long> compoundIds; // selection = IDS 时必填
+
+    private List<Long> proteinIds;  // 可选，受体蛋白ID列表，默认仅默认受体；任务数 = 化合物数 × 受体数
+
+    private Integer priority;       // 可选，默认批量优先级
+
+    private String mode;            // 可选，STANDARD（默认）/ FUNNEL
+
+    private Integer refineTopN;     // FUNNEL：每个受体复筛初筛前 N 名
+
+    private Double refineTopPercent; // FUNNEL：每个受体复筛初筛前百分之几 (0-100]
+
+    private Double refineMaxAffinity; // FUNNEL：只复筛初筛亲和力不高于该值的化合物 (kcal/mol)
+}
@@ -0,0 +1,58 @@
+package com.drugscreen.platform.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * ADMET 预测缓存实体类
+ * 对应数据库 admet_prediction_cache 表，以 规范化 SMILES + 预测器版本 的哈希为键，
+ * 结构相同的化合物（不同名称重复导入）共用同一条预测；失败也会短期缓存
+ */
+@Data
+@Entity
+@Table(name = "admet_prediction_cache", indexes = {
+        @Index(name = "idx_admet_cache_expires", columnList = "expires_at")
+})
+public class AdmetCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cache_key", length = 64, nullable = false, unique = true)
+    private String cacheKey; // SHA-256(预测器版本 + 规范化 SMILES)
+
+    @Column(name = "smiles", columnDefinition = "TEXT")
+    private String smiles; // 规范化后的 SMILES
+
+    @Column(name = "predictor_version", length = 100)
+    private String predictorVersion; // 预测器版本
+
+    @Column(name = "success", nullable = false)
+    private Boolean success; // 预测是否成功（失败条目为负缓存）
+
+    @Column(name = "herg_toxicity")
+    private Double hergToxicity;
+
+    @Column(name = "ames_toxicity")
+    private Integer amesToxicity;
+
+    @Column(name = "liver_toxicity")
+    private Integer liverToxicity;
+
+    @Column(name = "absorption")
+    private Double absorption;
+
+    @Column(name = "metabolism")
+    private Double metabolism;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage; // 失败原因
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt; // 过期时间
+}
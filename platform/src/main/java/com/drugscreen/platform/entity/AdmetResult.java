@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
-@Table(name = "admet_results")
+@Table(name = "admet_results",
+        uniqueConstraints = @UniqueConstraint(name = "uk_admet_results_compound", columnNames = "compound_id"))
 public class AdmetResult {
     
     @Id
@@ -35,6 +36,12 @@ public class AdmetResult {
     @Column(name = "metabolism")
     private Double metabolism; // 代谢稳定性 (0-1，值越高越好)
     
+    @Column(name = "provenance", length = 20)
+    private String provenance; // 数据来源 (REAL 真实预测, DEFAULTED 服务不可用时的默认值, STALE 过期的历史预测)
+    
+    @Column(name = "predictor", length = 40)
+    private String predictor; // 预测引擎 (remote / local)，旧数据为空时视为 remote
+    
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
@@ -24,6 +24,12 @@ public class AnalysisReport {
 
     private Boolean isVetoed;
 
+    @Column(name = "admet_provenance", length = 20)
+    private String admetProvenance; // 评分所用 ADMET 数据的来源 (REAL / DEFAULTED / STALE)
+
+    @Column(name = "scoring_profile", length = 80)
+    private String scoringProfile; // 评分方案及版本 (builtin 或 名称@v版本)
+
     @JdbcTypeCode(SqlTypes.ARRAY)
     @Column(name = "advice_tags")
     private List<String> adviceTags;
@@ -0,0 +1,40 @@
+package com.drugscreen.platform.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * 对接构象实体类
+ * 对应数据库 docked_poses 表，每个对接结果的每个结合模式一行
+ */
+@Data
+@Entity
+@Table(name = "docked_poses",
+        uniqueConstraints = @UniqueConstraint(name = "uk_docked_poses_result_mode", columnNames = {"docking_result_id", "mode_index"}))
+public class DockedPose {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "docking_result_id", nullable = false)
+    private Long dockingResultId; // 对接结果 ID
+
+    @Column(name = "mode_index", nullable = false)
+    private Integer modeIndex; // 结合模式序号（1 为最佳）
+
+    @Column(name = "affinity")
+    private Double affinity; // 结合亲和力 (kcal/mol)
+
+    @Column(name = "rmsd_lb")
+    private Double rmsdLb; // 与最佳模式的 RMSD 下界
+
+    @Column(name = "rmsd_ub")
+    private Double rmsdUb; // 与最佳模式的 RMSD 上界
+
+    @Column(name = "atom_count")
+    private Integer atomCount; // 原子数
+
+    @Column(name = "pose_block")
+    private byte[] poseBlock; // gzip 压缩的 MODEL...ENDMDL 构象块
+}
@@ -0,0 +1,48 @@
+package com.drugscreen.platform.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 对接结果缓存实体类
+ * 对应数据库 docking_cache 表，以对接输入（受体、配体、对接盒、搜索参数）的哈希为键
+ */
+@Data
+@Entity
+@Table(name = "docking_cache")
+public class DockingCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cache_key", length = 64, nullable = false, unique = true)
+    private String cacheKey; // 输入内容的 SHA-256
+
+    @Column(name = "affinity")
+    private Double affinity; // 最佳结合亲和力 (kcal/mol)
+
+    @Column(name = "log_content", columnDefinition = "TEXT")
+    private String logContent; // Vina 输出日志
+
+    @Column(name = "poses_pdbqt", columnDefinition = "TEXT")
+    private String posesPdbqt; // *_out.pdbqt 中的全部对接构象
+
+    @Column(name = "hit_count")
+    private Long hitCount; // 命中次数
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_hit_at")
+    private LocalDateTime lastHitAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (hitCount == null) {
+            hitCount = 0L;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.drugscreen.platform.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 对接任务队列实体类
+ * 对应数据库 docking_jobs 表，节点以租约方式领取任务并定期续约，
+ * 进程重启后过期租约的任务重新入队
+ */
+@Data
+@Entity
+@Table(name = "docking_jobs", indexes = {
+        @Index(name = "idx_docking_jobs_claim", columnList = "status, priority, id"),
+        @Index(name = "idx_docking_jobs_run", columnList = "screening_run_id, status")
+})
+public class DockingJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "docking_result_id", nullable = false, unique = true)
+    private Long dockingResultId; // 对应的对接结果 ID（即任务 ID）
+
+    @Column(name = "compound_id", nullable = false)
+    private Long compoundId; // 化合物 ID
+
+    @Column(name = "protein_id", nullable = false)
+    private Long proteinId; // 受体蛋白 ID
+
+    @Column(name = "screening_run_id")
+    private Long screeningRunId; // 所属筛选批次 ID（单独提交时为空）
+
+    @Column(name = "priority", nullable = false)
+    private Integer priority; // 优先级，数值越大越先执行
+
+    @Column(name = "exhaustiveness")
+    private Integer exhaustiveness; // Vina 穷举度，为空时使用默认值
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status; // QUEUED / LEASED / DONE / FAILED / CANCELLED
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner; // 持有租约的节点
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt; // 租约到期时间
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt; // 最近一次续约时间
+
+    @Column(name = "cancel_requested")
+    private Boolean cancelRequested; // 已请求取消，由持有租约的节点在续约时终止任务
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts; // 已领取次数
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
-@Table(name = "docking_results")
+@Table(name = "docking_results", indexes = {
+        @Index(name = "idx_docking_results_fingerprint", columnList = "fingerprint"),
+        @Index(name = "idx_docking_results_compound_affinity", columnList = "compound_id, affinity")
+})
 public class DockingResult {
     
     @Id
@@ -20,11 +23,26 @@ public class DockingResult {
     @Column(name = "compound_id", nullable = false)
     private Long compoundId; // 化合物 ID
     
+    @Column(name = "protein_id")
+    private Long proteinId; // 受体蛋白 ID
+    
+    @Column(name = "screening_run_id")
+    private Long screeningRunId; // 所属虚拟筛选批次 ID（单独提交时为空）
+    
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint; // 输入指纹（引擎、化合物、受体版本、对接参数的 SHA-256），用于合并重复提交
+    
+    @Column(name = "stage")
+    private Integer stage; // 漏斗筛选阶段（1 快速初筛，2 精细复筛），非漏斗任务为空
+    
+    @Column(name = "exhaustiveness")
+    private Integer exhaustiveness; // 本次对接使用的 Vina 穷举度
+    
     @Column(name = "affinity")
     private Double affinity; // 结合亲和力 (kcal/mol)
     
     @Column(name = "status", length = 50)
-    private String status; // 对接状态 (completed, pending, failed)
+    private String status; // 对接状态 (completed, pending, failed, timeout, cancelled)
     
     @Column(name = "docked_pdbqt_content", columnDefinition = "TEXT")
     private String dockedPdbqtContent; // 对接后的 PDBQT 内容
@@ -30,9 +30,34 @@ public class Protein {
     @Column(name = "pdb_content", columnDefinition = "TEXT", nullable = false)
     private String pdbContent; // PDB 文件内容
     
+    @Column(name = "pdbqt_content", columnDefinition = "TEXT")
+    private String pdbqtContent; // 对接用受体 PDBQT 内容（为空时使用 pdbContent）
+    
+    // 对接盒中心与尺寸 (Å)
+    @Column(name = "box_center_x")
+    private Double boxCenterX;
+    
+    @Column(name = "box_center_y")
+    private Double boxCenterY;
+    
+    @Column(name = "box_center_z")
+    private Double boxCenterZ;
+    
+    @Column(name = "box_size_x")
+    private Double boxSizeX;
+    
+    @Column(name = "box_size_y")
+    private Double boxSizeY;
+    
+    @Column(name = "box_size_z")
+    private Double boxSizeZ;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // 受体文件缓存据此判断内容是否变化
+    
     public Protein(String name, String pdbContent) {
         this.name = name;
         this.pdbContent = pdbContent;
@@ -41,5 +66,11 @@ public class Protein {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 }
@@ -0,0 +1,43 @@
+package com.drugscreen.platform.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 评分方案实体类
+ * 对应数据库 scoring_profiles 表；同名方案每次修改保存为新版本，已保存的版本不再修改
+ */
+@Data
+@Entity
+@Table(name = "scoring_profiles",
+        uniqueConstraints = @UniqueConstraint(name = "uk_scoring_profiles_name_version", columnNames = {"name", "version"}))
+public class ScoringProfile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "name", length = 50, nullable = false)
+    private String name; // 方案名称
+
+    @Column(name = "version", nullable = false)
+    private Integer version; // 版本号，同名方案从 1 递增
+
+    @Column(name = "weights_json", columnDefinition = "TEXT", nullable = false)
+    private String weightsJson; // 权重与阈值（ScoringWeights 的 JSON，只含与默认值不同的字段也可）
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Column(name = "active")
+    private Boolean active; // 是否为当前生效的方案（全局只有一个）
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,78 @@
+package com.drugscreen.platform.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 虚拟筛选批次实体类
+ * 对应数据库 screening_runs 表
+ */
+@Data
+@Entity
+@Table(name = "screening_runs")
+public class ScreeningRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "selection_type", length = 20, nullable = false)
+    private String selectionType; // 化合物选择方式 (ALL, CATEGORY, IDS)
+
+    @Column(name = "selection_value", columnDefinition = "TEXT")
+    private String selectionValue; // 分类名或逗号分隔的化合物ID
+
+    @Column(name = "protein_ids", columnDefinition = "TEXT")
+    private String proteinIds; // 逗号分隔的受体蛋白ID
+
+    @Column(name = "priority")
+    private Integer priority; // 任务优先级
+
+    @Column(name = "mode", length = 20)
+    private String mode; // 筛选模式 (STANDARD, FUNNEL)
+
+    @Column(name = "funnel_stage")
+    private Integer funnelStage; // 漏斗模式当前阶段（1 初筛，2 复筛）
+
+    @Column(name = "refine_top_n")
+    private Integer refineTopN; // 复筛：每个受体取初筛前 N 名
+
+    @Column(name = "refine_top_percent")
+    private Double refineTopPercent; // 复筛：每个受体取初筛前百分之几
+
+    @Column(name = "refine_max_affinity")
+    private Double refineMaxAffinity; // 复筛：初筛亲和力不高于该值 (kcal/mol)
+
+    @Column(name = "dispatch_cursor")
+    private Long dispatchCursor; // 分发进度：ALL/CATEGORY 为最后分发的化合物ID，IDS 为已分发的个数
+
+    @Column(name = "dispatch_done")
+    private Boolean dispatchDone; // 是否已全部分发
+
+    @Column(name = "owner_node", length = 100)
+    private String ownerNode; // 创建并负责分发该批次的节点
+
+    @Column(name = "status", length = 50)
+    private String status; // 批次状态 (RUNNING, COMPLETED)
+
+    @Column(name = "total")
+    private Integer total; // 已分发的对接任务数
+
+    @Column(name = "completed")
+    private Integer completed; // 成功数
+
+    @Column(name = "failed")
+    private Integer failed; // 失败数
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
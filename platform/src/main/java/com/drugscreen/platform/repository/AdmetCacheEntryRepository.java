@@ -0,0 +1,26 @@
+package com.drugscreen.platform.repository;
+
+import com.drugscreen.platform.entity.AdmetCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AdmetCacheEntryRepository extends JpaRepository<AdmetCacheEntry, Long> {
+
+    Optional<AdmetCacheEntry> findByCacheKey(String cacheKey);
+
+    /**
+     * 删除过期条目：失败条目过期即删除，成功条目过期后再保留一段时间，供上游不可用时作为过期数据使用
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AdmetCacheEntry e WHERE (e.success = false AND e.expiresAt < :now) OR e.expiresAt < :staleCutoff")
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("staleCutoff") LocalDateTime staleCutoff);
+}
@@ -4,6 +4,8 @@ import com.drugscreen.platform.entity.AdmetResult;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +15,9 @@ public interface AdmetResultRepository extends JpaRepository<AdmetResult, Long>
      * 根据化合物ID查询ADMET结果
      */
     Optional<AdmetResult> findByCompoundId(Long compoundId);
+
+    /**
+     * 批量查询一组化合物的ADMET结果
+     */
+    List<AdmetResult> findByCompoundIdIn(Collection<Long> compoundIds);
 }
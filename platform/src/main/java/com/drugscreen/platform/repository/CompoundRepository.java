@@ -4,8 +4,13 @@ import com.drugscreen.platform.entity.Compound;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,4 +23,49 @@ public interface CompoundRepository extends JpaRepository<Compound, Long> {
     
     // 根据分类查询
     List<Compound> findByCategory(String category);
+
+    // 按 ID 游标分批读取化合物 ID (用于批量筛选分发，避免加载 TEXT 列)
+    @Query("SELECT c.id FROM Compound c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 按分类、ID 游标分批读取化合物 ID
+    @Query("SELECT c.id FROM Compound c WHERE c.category = :category AND c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsByCategoryAfter(@Param("category") String category, @Param("afterId") Long afterId, Pageable pageable);
+
+    // 化合物 ID、名称与 SMILES (用于批量 ADMET 预测，避免加载 TEXT 列)
+    interface CompoundSmiles {
+        Long getId();
+        String getName();
+        String getSmiles();
+    }
+
+    List<CompoundSmiles> findSmilesByIdIn(Collection<Long> ids);
+
+    // 化合物 ID、名称与分类 (用于排行榜，避免加载 TEXT 列)
+    interface CompoundSummary {
+        Long getId();
+        String getName();
+        String getEnglishName();
+        String getCategory();
+    }
+
+    List<CompoundSummary> findSummaryByIdIn(Collection<Long> ids);
+
+    // 化合物 ID 与分类 (排行榜判断新结果进入哪个分类榜)
+    interface CompoundCategory {
+        Long getId();
+        String getCategory();
+    }
+
+    List<CompoundCategory> findCategoryByIdIn(Collection<Long> ids);
+
+    // 过滤出实际存在的化合物 ID
+    @Query("SELECT c.id FROM Compound c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") List<Long> ids);
+
+    // 回填配体 PDBQT 内容（仅在尚未入库时）
+    @Modifying
+    @Transactional
+    @Query("UPDATE Compound c SET c.rawPdbqtContent = :content WHERE c.id = :id AND c.rawPdbqtContent IS NULL")
+    int updateRawPdbqtContent(@Param("id") Long id, @Param("content") String content);
 }
@@ -0,0 +1,43 @@
+package com.drugscreen.platform.repository;
+
+import com.drugscreen.platform.entity.DockedPose;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DockedPoseRepository extends JpaRepository<DockedPose, Long> {
+
+    /**
+     * 某个对接结果的全部构象摘要（不加载构象块）
+     */
+    List<DockedPoseSummary> findByDockingResultIdOrderByModeIndexAsc(Long dockingResultId);
+
+    /**
+     * 按序号加载单个构象
+     */
+    Optional<DockedPose> findByDockingResultIdAndModeIndex(Long dockingResultId, Integer modeIndex);
+
+    /**
+     * 删除某个对接结果的全部构象（重新对接前清除上次写入的构象）
+     */
+    @Modifying
+    @Query("DELETE FROM DockedPose p WHERE p.dockingResultId = :dockingResultId")
+    int deleteByDockingResultId(@Param("dockingResultId") Long dockingResultId);
+
+    /**
+     * 构象摘要投影
+     */
+    interface DockedPoseSummary {
+        Integer getModeIndex();
+        Double getAffinity();
+        Double getRmsdLb();
+        Double getRmsdUb();
+        Integer getAtomCount();
+    }
+}
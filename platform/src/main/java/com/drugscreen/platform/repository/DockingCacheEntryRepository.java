@@ -0,0 +1,31 @@
+package com.drugscreen.platform.repository;
+
+import com.drugscreen.platform.entity.DockingCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface DockingCacheEntryRepository extends JpaRepository<DockingCacheEntry, Long> {
+
+    /**
+     * 根据缓存键查找
+     */
+    Optional<DockingCacheEntry> findByCacheKey(String cacheKey);
+
+    boolean existsByCacheKey(String cacheKey);
+
+    /**
+     * 记录一次命中
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DockingCacheEntry e SET e.hitCount = e.hitCount + 1, e.lastHitAt = :now WHERE e.id = :id")
+    int recordHit(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,47 @@
+package com.drugscreen.platform.repository;
+
+import com.drugscreen.platform.entity.DockingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DockingJobRepository extends JpaRepository<DockingJob, Long> {
+
+    /**
+     * 批次内各状态的任务数，返回 [status, count]
+     */
+    @Query("SELECT j.status, COUNT(j) FROM DockingJob j WHERE j.screeningRunId = :runId GROUP BY j.status")
+    List<Object[]> countByStatus(@Param("runId") Long runId);
+
+    /**
+     * 请求取消由其他节点执行中的任务
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DockingJob j SET j.cancelRequested = true, j.updatedAt = :now " +
+           "WHERE j.dockingResultId = :resultId AND j.status = 'LEASED'")
+    int requestCancel(@Param("resultId") Long resultId, @Param("now") LocalDateTime now);
+
+    /**
+     * 本节点持有且已被请求取消的任务
+     */
+    @Query("SELECT j.dockingResultId FROM DockingJob j " +
+           "WHERE j.leaseOwner = :owner AND j.status = 'LEASED' AND j.cancelRequested = true")
+    List<Long> findCancelRequested(@Param("owner") String owner);
+
+    /**
+     * 取消尚未被领取的任务
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DockingJob j SET j.status = 'CANCELLED', j.updatedAt = :now " +
+           "WHERE j.dockingResultId = :resultId AND j.status = 'QUEUED'")
+    int cancelQueued(@Param("resultId") Long resultId, @Param("now") LocalDateTime now);
+}
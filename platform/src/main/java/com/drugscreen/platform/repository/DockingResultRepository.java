@@ -1,9 +1,13 @@
 package com.drugscreen.platform.repository;
 
 import com.drugscreen.platform.entity.DockingResult;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,8 +26,63 @@ public interface DockingResultRepository extends JpaRepository<DockingResult, Lo
     List<DockingResult> findByCompoundId(Long compoundId);
     
     /**
-     * 获取 Top 10 化合物（按亲和力排序）
+     * 查找某个化合物亲和力最好的对接结果 ID（不加载 TEXT 列）
      */
-    @Query("SELECT dr FROM DockingResult dr WHERE dr.affinity IS NOT NULL ORDER BY dr.affinity ASC")
-    List<DockingResult> findTop10ByOrderByAffinityAsc();
+    @Query("SELECT dr.id FROM DockingResult dr WHERE dr.compoundId = :compoundId AND dr.affinity IS NOT NULL ORDER BY dr.affinity ASC")
+    List<Long> findBestResultIds(@Param("compoundId") Long compoundId, Pageable pageable);
+
+    /**
+     * 对接任务状态（不含 TEXT 列）
+     */
+    interface DockingResultStatus {
+        Long getId();
+        Long getCompoundId();
+        Long getProteinId();
+        Long getScreeningRunId();
+        String getStatus();
+        Double getAffinity();
+    }
+
+    /**
+     * 查询对接任务状态，不加载 TEXT 列
+     */
+    Optional<DockingResultStatus> findStatusById(Long id);
+
+    /**
+     * 查找相同输入指纹且尚未结束（排队或运行中）的对接任务 ID
+     */
+    @Query("SELECT dr.id FROM DockingResult dr WHERE dr.fingerprint = :fingerprint " +
+           "AND dr.status IN ('PENDING', 'running') ORDER BY dr.id ASC")
+    List<Long> findInFlightIds(@Param("fingerprint") String fingerprint, Pageable pageable);
+
+    /**
+     * 统计批次中某受体某阶段的对接结果数
+     */
+    long countByScreeningRunIdAndProteinIdAndStageAndStatus(Long screeningRunId, Long proteinId, Integer stage,
+                                                             String status);
+
+    /**
+     * 批次中某受体某阶段成功的化合物，按亲和力从好到差排序（同分按化合物 ID）
+     */
+    @Query("SELECT dr.compoundId FROM DockingResult dr WHERE dr.screeningRunId = :runId " +
+           "AND dr.proteinId = :proteinId AND dr.stage = :stage AND dr.status = 'completed' " +
+           "AND dr.affinity IS NOT NULL AND dr.affinity <= :maxAffinity " +
+           "ORDER BY dr.affinity ASC, dr.compoundId ASC")
+    List<Long> findRankedCompoundIds(@Param("runId") Long runId, @Param("proteinId") Long proteinId,
+                                     @Param("stage") Integer stage, @Param("maxAffinity") double maxAffinity,
+                                     Pageable pageable);
+
+    /**
+     * 查询对接结果的受体蛋白 ID
+     */
+    @Query("SELECT dr.proteinId FROM DockingResult dr WHERE dr.id = :id")
+    Optional<Long> findProteinIdById(@Param("id") Long id);
+
+    /**
+     * 更新对接状态（不加载 TEXT 列）
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DockingResult dr SET dr.status = :status WHERE dr.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") String status);
 }
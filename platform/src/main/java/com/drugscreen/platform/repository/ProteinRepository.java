@@ -2,8 +2,13 @@ package com.drugscreen.platform.repository;
 
 import com.drugscreen.platform.entity.Protein;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +18,42 @@ public interface ProteinRepository extends JpaRepository<Protein, Long> {
      * 根据蛋白名称查找
      */
     Optional<Protein> findByName(String name);
+
+    /**
+     * 受体对接参数（不含结构内容）
+     */
+    interface ProteinTarget {
+        Long getId();
+        String getName();
+        Double getBoxCenterX();
+        Double getBoxCenterY();
+        Double getBoxCenterZ();
+        Double getBoxSizeX();
+        Double getBoxSizeY();
+        Double getBoxSizeZ();
+        LocalDateTime getUpdatedAt();
+    }
+
+    /**
+     * 查询受体对接参数，不加载 PDB/PDBQT 内容
+     */
+    Optional<ProteinTarget> findTargetById(Long id);
+
+    /**
+     * 查询对接用受体结构（优先 PDBQT）
+     */
+    @Query("SELECT COALESCE(p.pdbqtContent, p.pdbContent) FROM Protein p WHERE p.id = :id")
+    Optional<String> findReceptorContentById(@Param("id") Long id);
+
+    /**
+     * 查询受体 PDB 内容（可视化用）
+     */
+    @Query("SELECT p.pdbContent FROM Protein p WHERE p.id = :id")
+    Optional<String> findPdbContentById(@Param("id") Long id);
+
+    /**
+     * 过滤出存在的蛋白 ID
+     */
+    @Query("SELECT p.id FROM Protein p WHERE p.id IN :ids ORDER BY p.id")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,38 @@
+package com.drugscreen.platform.repository;
+
+import com.drugscreen.platform.entity.ScoringProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScoringProfileRepository extends JpaRepository<ScoringProfile, Long> {
+
+    /**
+     * 查询当前生效的方案
+     */
+    Optional<ScoringProfile> findFirstByActiveTrue();
+
+    /**
+     * 查询指定方案的指定版本
+     */
+    Optional<ScoringProfile> findByNameAndVersion(String name, Integer version);
+
+    /**
+     * 查询指定方案的最新版本
+     */
+    Optional<ScoringProfile> findFirstByNameOrderByVersionDesc(String name);
+
+    List<ScoringProfile> findAllByOrderByNameAscVersionDesc();
+
+    /**
+     * 取消所有方案的生效状态
+     */
+    @Modifying
+    @Query("UPDATE ScoringProfile p SET p.active = false WHERE p.active = true")
+    int deactivateAll();
+}
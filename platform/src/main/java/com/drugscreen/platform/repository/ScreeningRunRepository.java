@@ -0,0 +1,56 @@
+package com.drugscreen.platform.repository;
+
+import com.drugscreen.platform.entity.ScreeningRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ScreeningRunRepository extends JpaRepository<ScreeningRun, Long> {
+
+    /**
+     * 更新进行中批次的计数（不会覆盖已完成批次）
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScreeningRun r SET r.total = :total, r.completed = :completed, r.failed = :failed " +
+           "WHERE r.id = :id AND r.status = 'RUNNING'")
+    int updateCounts(@Param("id") Long id, @Param("total") int total,
+                     @Param("completed") int completed, @Param("failed") int failed);
+
+    /**
+     * 记录分发进度（与任务入队在同一事务中）
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScreeningRun r SET r.dispatchCursor = :cursor WHERE r.id = :id")
+    int updateDispatchCursor(@Param("id") Long id, @Param("cursor") Long cursor);
+
+    /**
+     * 标记分发完成
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScreeningRun r SET r.dispatchDone = true WHERE r.id = :id")
+    int markDispatchDone(@Param("id") Long id);
+
+    /**
+     * 漏斗批次进入复筛阶段：重置分发进度，由本次调用者负责分发复筛任务
+     * @return 更新行数，已进入复筛或非漏斗批次时为 0
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScreeningRun r SET r.funnelStage = 2, r.dispatchDone = false, r.dispatchCursor = 0 " +
+           "WHERE r.id = :id AND r.mode = 'FUNNEL' AND r.funnelStage = 1")
+    int advanceFunnelStage(@Param("id") Long id);
+
+    /**
+     * 按状态查询批次
+     */
+    List<ScreeningRun> findByStatus(String status);
+}
@@ -0,0 +1,212 @@
+package com.drugscreen.platform.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ADMET 服务 HTTP 客户端
+ * 全部请求共用一个 {@link HttpClient}：连接池复用、服务端支持时使用 HTTP/2，请求异步发送，
+ * 等待响应期间不占用线程。TLS 设置只作用于本客户端，不修改 JVM 全局的 HttpsURLConnection 默认值。
+ * 请求经过舱壁（限制同时进行的请求数）与熔断器（失败率或慢调用率过高时断开，断开期间直接失败）
+ */
+@Slf4j
+@Component
+public class AdmetHttpClient {
+
+    @Value("${admet.api.url:https://admetmesh.scbdd.com/service/evaluation/index}")
+    private String admetApiUrl;
+
+    @Value("${admet.api.batch-url:}")
+    private String batchUrl; // 批量接口地址，为空时表示服务不支持批量，分块内逐个请求
+
+    @Value("${admet.api.connect-timeout-ms:10000}")
+    private long connectTimeoutMs;
+
+    @Value("${admet.api.request-timeout-ms:30000}")
+    private long requestTimeoutMs;
+
+    @Value("${admet.api.insecure-ssl:false}")
+    private boolean insecureSsl; // 仅用于开发和测试环境：不校验服务端证书与主机名
+
+    @Value("${admet.api.client-threads:4}")
+    private int clientThreads; // 处理响应回调的线程数
+
+    @Value("${admet.breaker.window-size:20}")
+    private int breakerWindowSize;
+
+    @Value("${admet.breaker.min-calls:10}")
+    private int breakerMinCalls;
+
+    @Value("${admet.breaker.failure-rate-threshold:0.5}")
+    private double breakerFailureRate;
+
+    @Value("${admet.breaker.slow-call-ms:10000}")
+    private long breakerSlowCallMs;
+
+    @Value("${admet.breaker.slow-rate-threshold:0.8}")
+    private double breakerSlowRate;
+
+    @Value("${admet.breaker.open-ms:30000}")
+    private long breakerOpenMs;
+
+    @Value("${admet.breaker.half-open-calls:3}")
+    private int breakerHalfOpenCalls;
+
+    @Value("${admet.bulkhead.max-concurrent:16}")
+    private int bulkheadMaxConcurrent;
+
+    @Value("${admet.bulkhead.max-queued:200}")
+    private int bulkheadMaxQueued;
+
+    private ExecutorService executor;
+    private HttpClient httpClient;
+    private CircuitBreaker circuitBreaker;
+    private AsyncBulkhead bulkhead;
+
+    @PostConstruct
+    public void init() throws Exception {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(clientThreads, r -> {
+            Thread thread = new Thread(r, "Admet-Http-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor);
+        if (insecureSsl) {
+            builder.sslContext(trustAllContext());
+            log.warn("ADMET 客户端已关闭证书校验（admet.api.insecure-ssl=true），仅用于开发和测试环境");
+        }
+        httpClient = builder.build();
+        circuitBreaker = new CircuitBreaker(breakerWindowSize, breakerMinCalls, breakerFailureRate, breakerSlowRate,
+                breakerSlowCallMs, breakerOpenMs, breakerHalfOpenCalls);
+        bulkhead = new AsyncBulkhead(bulkheadMaxConcurrent, bulkheadMaxQueued);
+        log.info("ADMET HTTP 客户端已创建: url={}, 最大并发请求={}", admetApiUrl, bulkheadMaxConcurrent);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 是否配置了批量接口
+     */
+    public boolean supportsBatch() {
+        return batchUrl != null && !batchUrl.isBlank();
+    }
+
+    /**
+     * 异步提交单个化合物的 JSON 请求
+     * @return 响应体；响应码非 200 时以异常结束
+     */
+    public CompletableFuture<String> postJson(String body) {
+        return post(admetApiUrl, body);
+    }
+
+    /**
+     * 异步提交批量 JSON 请求（需配置 admet.api.batch-url）
+     */
+    public CompletableFuture<String> postBatchJson(String body) {
+        return post(batchUrl, body);
+    }
+
+    /**
+     * 熔断器当前状态
+     */
+    public CircuitBreaker.State getBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    private CompletableFuture<String> post(String url, String body) {
+        return bulkhead.submit(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                return CompletableFuture.failedFuture(new RuntimeException("ADMET服务熔断中，暂不调用"));
+            }
+            long start = System.nanoTime();
+            return send(url, body).whenComplete((response, e) -> {
+                long elapsed = System.nanoTime() - start;
+                CircuitBreaker.State before = circuitBreaker.getState();
+                if (e == null) {
+                    circuitBreaker.onSuccess(elapsed);
+                } else {
+                    circuitBreaker.onFailure(elapsed);
+                }
+                CircuitBreaker.State after = circuitBreaker.getState();
+                if (before != after) {
+                    log.warn("ADMET服务熔断器状态变化: {} -> {}", before, after);
+                }
+            });
+        });
+    }
+
+    private CompletableFuture<String> send(String url, String body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .thenApply(response -> {
+                    log.debug("API响应码: {}, 协议: {}", response.statusCode(), response.version());
+                    if (response.statusCode() != 200) {
+                        log.error("ADMET API错误响应: {}", response.body());
+                        throw new RuntimeException("ADMET API调用失败，响应码: " + response.statusCode());
+                    }
+                    return response.body();
+                });
+    }
+
+    /**
+     * 不校验证书的 SSLContext；使用 X509ExtendedTrustManager，主机名校验同样跳过
+     */
+    private static SSLContext trustAllContext() throws Exception {
+        TrustManager[] trustAll = new TrustManager[] {
+            new X509ExtendedTrustManager() {
+                public X509Certificate[] getAcceptedIssuers() {
+                    return new X509Certificate[0];
+                }
+                public void checkClientTrusted(X509Certificate[] chain, String authType) {
+                }
+                public void checkServerTrusted(X509Certificate[] chain, String authType) {
+                }
+                public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) {
+                }
+                public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) {
+                }
+                public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+                }
+                public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+                }
+            }
+        };
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustAll, new SecureRandom());
+        return context;
+    }
+}
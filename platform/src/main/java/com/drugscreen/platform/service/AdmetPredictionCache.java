@@ -0,0 +1,224 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.entity.AdmetCacheEntry;
+import com.drugscreen.platform.entity.AdmetResult;
+import com.drugscreen.platform.repository.AdmetCacheEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ADMET 预测两级缓存
+ * 键为 预测器版本 + 规范化 SMILES，第一级为有界的内存 LRU，第二级为 admet_prediction_cache 表；
+ * 成功的预测长期有效，失败的预测只缓存很短时间，上游不稳定时避免每个请求都去重试
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdmetPredictionCache {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO admet_prediction_cache (cache_key, smiles, predictor_version, success, herg_toxicity, " +
+            "ames_toxicity, liver_toxicity, absorption, metabolism, error_message, created_at, expires_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (cache_key) DO UPDATE SET success = EXCLUDED.success, " +
+            "herg_toxicity = EXCLUDED.herg_toxicity, ames_toxicity = EXCLUDED.ames_toxicity, " +
+            "liver_toxicity = EXCLUDED.liver_toxicity, absorption = EXCLUDED.absorption, " +
+            "metabolism = EXCLUDED.metabolism, error_message = EXCLUDED.error_message, " +
+            "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at";
+
+    private final AdmetCacheEntryRepository cacheRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${admet.predictor.version:admetmesh}")
+    private String predictorVersion; // 上游模型更新时修改，旧缓存自然失效
+
+    @Value("${admet.cache.memory-size:10000}")
+    private int memorySize;
+
+    @Value("${admet.cache.ttl-ms:2592000000}")
+    private long ttlMs; // 成功预测的有效期，默认 30 天
+
+    @Value("${admet.cache.negative-ttl-ms:60000}")
+    private long negativeTtlMs; // 失败预测的有效期
+
+    @Value("${admet.cache.stale-retention-ms:7776000000}")
+    private long staleRetentionMs; // 成功预测过期后继续保留的时长，默认 90 天
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong dbHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // 访问顺序的 LinkedHashMap，超过容量时淘汰最久未访问的条目
+    private final Map<String, Prediction> memory = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Prediction> eldest) {
+            return size() > memorySize;
+        }
+    };
+
+    /**
+     * 缓存的预测：成功时带各项指标，失败时带失败原因
+     */
+    public record Prediction(boolean success, Double hergToxicity, Integer amesToxicity, Integer liverToxicity,
+                             Double absorption, Double metabolism, String error, LocalDateTime expiresAt) {
+
+        boolean expired() {
+            return expiresAt.isBefore(LocalDateTime.now());
+        }
+
+        /**
+         * 转为新的（未保存的）ADMET 结果
+         */
+        public AdmetResult toResult() {
+            AdmetResult result = new AdmetResult();
+            result.setHergToxicity(hergToxicity);
+            result.setAmesToxicity(amesToxicity);
+            result.setLiverToxicity(liverToxicity);
+            result.setAbsorption(absorption);
+            result.setMetabolism(metabolism);
+            return result;
+        }
+    }
+
+    /**
+     * 规范化 SMILES：去除空白字符
+     * 不做化学意义上的规范化（需要化学工具包），同一结构的不同写法仍会各自缓存
+     */
+    public static String normalize(String smiles) {
+        return smiles == null ? "" : smiles.replaceAll("\\s+", "");
+    }
+
+    /**
+     * 计算缓存键
+     */
+    public String key(String smiles) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String input = predictorVersion + "|" + normalize(smiles);
+            return HexFormat.of().formatHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 查找未过期的预测，先查内存再查数据库
+     * @return 命中的预测（可能是失败的负缓存），未命中时返回 null
+     */
+    public Prediction lookup(String key) {
+        Prediction cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+            if (cached != null && cached.expired()) {
+                memory.remove(key);
+                cached = null;
+            }
+        }
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return cached;
+        }
+
+        AdmetCacheEntry entry = cacheRepository.findByCacheKey(key).orElse(null);
+        if (entry == null || entry.getExpiresAt().isBefore(LocalDateTime.now())) {
+            misses.incrementAndGet();
+            return null;
+        }
+        dbHits.incrementAndGet();
+        Prediction prediction = new Prediction(Boolean.TRUE.equals(entry.getSuccess()), entry.getHergToxicity(),
+                entry.getAmesToxicity(), entry.getLiverToxicity(), entry.getAbsorption(), entry.getMetabolism(),
+                entry.getErrorMessage(), entry.getExpiresAt());
+        putMemory(key, prediction);
+        return prediction;
+    }
+
+    /**
+     * 查找成功的预测，不论是否过期（上游不可用时作为过期数据降级使用）
+     * @return 成功的预测，没有时返回 null
+     */
+    public Prediction lookupStale(String key) {
+        return cacheRepository.findByCacheKey(key)
+                .filter(entry -> Boolean.TRUE.equals(entry.getSuccess()))
+                .map(entry -> new Prediction(true, entry.getHergToxicity(), entry.getAmesToxicity(),
+                        entry.getLiverToxicity(), entry.getAbsorption(), entry.getMetabolism(), null,
+                        entry.getExpiresAt()))
+                .orElse(null);
+    }
+
+    /**
+     * 保存成功的预测
+     */
+    public void storeSuccess(String key, String smiles, AdmetResult result) {
+        store(key, smiles, new Prediction(true, result.getHergToxicity(), result.getAmesToxicity(),
+                result.getLiverToxicity(), result.getAbsorption(), result.getMetabolism(), null,
+                LocalDateTime.now().plusNanos(ttlMs * 1_000_000L)));
+    }
+
+    /**
+     * 短期缓存失败的预测
+     */
+    public void storeFailure(String key, String smiles, String error) {
+        String message = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        store(key, smiles, new Prediction(false, null, null, null, null, null, message,
+                LocalDateTime.now().plusNanos(negativeTtlMs * 1_000_000L)));
+    }
+
+    private void store(String key, String smiles, Prediction prediction) {
+        putMemory(key, prediction);
+        try {
+            jdbcTemplate.update(UPSERT_SQL, ps -> {
+                ps.setString(1, key);
+                ps.setString(2, normalize(smiles));
+                ps.setString(3, predictorVersion);
+                ps.setBoolean(4, prediction.success());
+                ps.setObject(5, prediction.hergToxicity(), Types.DOUBLE);
+                ps.setObject(6, prediction.amesToxicity(), Types.INTEGER);
+                ps.setObject(7, prediction.liverToxicity(), Types.INTEGER);
+                ps.setObject(8, prediction.absorption(), Types.DOUBLE);
+                ps.setObject(9, prediction.metabolism(), Types.DOUBLE);
+                ps.setString(10, prediction.error());
+                ps.setTimestamp(11, Timestamp.valueOf(LocalDateTime.now()));
+                ps.setTimestamp(12, Timestamp.valueOf(prediction.expiresAt()));
+            });
+        } catch (Exception e) {
+            // 持久层写入失败不影响本次预测结果，内存中仍然有效
+            log.warn("ADMET 预测缓存写入失败: {}", e.getMessage());
+        }
+    }
+
+    private void putMemory(String key, Prediction prediction) {
+        synchronized (memory) {
+            memory.put(key, prediction);
+        }
+    }
+
+    /**
+     * 定期清理过期条目
+     */
+    @Scheduled(fixedDelayString = "${admet.cache.purge-interval-ms:3600000}",
+               initialDelayString = "${admet.cache.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = cacheRepository.deleteExpired(now, now.minusNanos(staleRetentionMs * 1_000_000L));
+        if (removed > 0) {
+            log.info("清理过期 ADMET 预测缓存 {} 条", removed);
+        }
+        log.debug("ADMET 预测缓存: 内存命中={}, 数据库命中={}, 未命中={}",
+                memoryHits.get(), dbHits.get(), misses.get());
+    }
+}
@@ -0,0 +1,60 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.entity.AdmetResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ADMET 预测引擎
+ * 目前有 remote（调用外部 ADMET 服务）与 local（进程内按结构警示与分子描述符估算，不依赖网络）两种实现，
+ * 由 {@link AdmetPredictorRegistry} 按名称选择，每次预测或批量预测可以分别指定
+ */
+public interface AdmetPredictor {
+
+    /**
+     * 引擎名称，如 remote
+     */
+    String getName();
+
+    /**
+     * 引擎版本（模型或规则集版本）
+     */
+    String getVersion();
+
+    /**
+     * 是否依赖远程服务；远程引擎的结果经过预测缓存，失败时降级为过期数据或默认值
+     */
+    default boolean isRemote() {
+        return false;
+    }
+
+    /**
+     * 预测单个化合物
+     * @param name 化合物名称（日志用）
+     * @param smiles SMILES 结构式
+     * @return 未保存的新结果对象，只包含五项指标
+     */
+    CompletableFuture<AdmetResult> predict(String name, String smiles);
+
+    /**
+     * 是否支持一次预测多个化合物
+     */
+    default boolean supportsBatch() {
+        return false;
+    }
+
+    /**
+     * 批量预测，结果与输入顺序一致；单个化合物无法预测时对应位置为 null，
+     * 整体无法完成（如服务不可用）时以异常结束
+     */
+    default CompletableFuture<List<AdmetResult>> predictBatch(List<String> smiles) {
+        List<CompletableFuture<AdmetResult>> calls = new ArrayList<>(smiles.size());
+        for (String s : smiles) {
+            calls.add(predict(s, s).exceptionally(e -> null));
+        }
+        return CompletableFuture.allOf(calls.toArray(new CompletableFuture[0]))
+                .thenApply(v -> calls.stream().map(CompletableFuture::join).toList());
+    }
+}
@@ -0,0 +1,52 @@
+package com.drugscreen.platform.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ADMET 预测引擎注册表
+ * 按名称选择预测引擎；未指定时使用 admet.predictor.default
+ */
+@Component
+public class AdmetPredictorRegistry {
+
+    private final Map<String, AdmetPredictor> predictors = new LinkedHashMap<>();
+
+    @Value("${admet.predictor.default:remote}")
+    private String defaultName;
+
+    public AdmetPredictorRegistry(List<AdmetPredictor> predictors) {
+        for (AdmetPredictor predictor : predictors) {
+            this.predictors.put(predictor.getName(), predictor);
+        }
+    }
+
+    /**
+     * 获取预测引擎
+     * @param name 引擎名称，为空时使用默认引擎
+     */
+    public AdmetPredictor get(String name) {
+        String key = name == null || name.isBlank() ? defaultName : name.trim().toLowerCase();
+        AdmetPredictor predictor = predictors.get(key);
+        if (predictor == null) {
+            throw new RuntimeException("未知的ADMET预测引擎: " + key + "，可选: " + predictors.keySet());
+        }
+        return predictor;
+    }
+
+    /**
+     * 已注册的引擎名称
+     */
+    public Set<String> getNames() {
+        return predictors.keySet();
+    }
+
+    public String getDefaultName() {
+        return defaultName;
+    }
+}
@@ -1,27 +1,38 @@
 package com.drugscreen.platform.service;
 
+import com.drugscreen.platform.dto.AdmetBatchItemDTO;
+import com.drugscreen.platform.dto.AdmetBatchResultDTO;
 import com.drugscreen.platform.entity.AdmetResult;
 import com.drugscreen.platform.entity.Compound;
 import com.drugscreen.platform.repository.AdmetResultRepository;
 import com.drugscreen.platform.repository.CompoundRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.net.ssl.HttpsURLConnection;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.security.cert.X509Certificate;
-import java.util.Optional;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @Slf4j
@@ -30,56 +41,134 @@ public class AdmetService {
 
     private final CompoundRepository compoundRepository;
     private final AdmetResultRepository admetResultRepository;
-    
-    @Value("${admet.api.url:https://admetmesh.scbdd.com/service/evaluation/index}")
-    private String admetApiUrl;
-    
+    private final AdmetPredictorRegistry predictorRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AdmetPredictionCache predictionCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** 真实预测（含预测缓存中未过期的预测） */
+    public static final String PROVENANCE_REAL = "REAL";
+
+    /** ADMET 服务不可用时写入的默认值 */
+    public static final String PROVENANCE_DEFAULTED = "DEFAULTED";
+
+    /** ADMET 服务不可用时使用的过期预测 */
+    public static final String PROVENANCE_STALE = "STALE";
+
+    // 新增真实预测；已有结果只在之前为降级写入的默认值或过期数据，或以远程引擎重新预测本地估算时更新，
+    // 依赖 compound_id 唯一约束，并发写入同一化合物时不会产生重复行
+    private static final String UPSERT_SQL =
+            "INSERT INTO admet_results (compound_id, herg_toxicity, ames_toxicity, liver_toxicity, absorption, " +
+            "metabolism, provenance, predictor, updated_at) VALUES (?, ?, ?, ?, ?, ?, 'REAL', ?, ?) " +
+            "ON CONFLICT (compound_id) DO UPDATE SET herg_toxicity = EXCLUDED.herg_toxicity, " +
+            "ames_toxicity = EXCLUDED.ames_toxicity, liver_toxicity = EXCLUDED.liver_toxicity, " +
+            "absorption = EXCLUDED.absorption, metabolism = EXCLUDED.metabolism, provenance = 'REAL', " +
+            "predictor = EXCLUDED.predictor, updated_at = EXCLUDED.updated_at " +
+            "WHERE admet_results.provenance IN ('DEFAULTED', 'STALE') " +
+            "OR (? AND COALESCE(admet_results.predictor, '" + RemoteAdmetPredictor.NAME + "') <> EXCLUDED.predictor)";
+
+    // 降级数据只在化合物还没有任何结果时写入，不覆盖并发写入的预测
+    private static final String INSERT_DEGRADED_SQL =
+            "INSERT INTO admet_results (compound_id, herg_toxicity, ames_toxicity, liver_toxicity, absorption, " +
+            "metabolism, provenance, predictor, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (compound_id) DO NOTHING";
+
+    @Value("${admet.batch.chunk-size:20}")
+    private int batchChunkSize; // 每个分块的化合物数
+
+    @Value("${admet.batch.max-concurrency:4}")
+    private int batchMaxConcurrency; // 同时进行的分块数
+
+    @Value("${admet.batch.max-compounds:1000}")
+    private int batchMaxCompounds; // 单次批量请求的化合物上限
+
+    @Value("${admet.db.threads:4}")
+    private int dbThreads; // 响应到达后保存结果、写预测缓存的线程数
+
+    @Value("${admet.db.max-queued:500}")
+    private int dbMaxQueued; // 等待保存的响应上限，超出时该次预测失败
+
+    // 数据库操作在独立的有界线程池中执行，HTTP 客户端线程只处理网络 I/O
+    private ThreadPoolExecutor dbExecutor;
+
+    // 同一化合物、同一引擎的并发预测只执行一次查库、调用 API 与保存，其余调用者共享结果
+    private final SingleFlight<String, AdmetResult> predictFlight = new SingleFlight<>();
+
+    // 按预测缓存键合并对 ADMET 服务的并发调用（结构相同的不同化合物共用一次请求）
+    private final SingleFlight<String, AdmetResult> upstreamFlight = new SingleFlight<>();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        dbExecutor = new ThreadPoolExecutor(dbThreads, dbThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dbMaxQueued), r -> {
+                    Thread thread = new Thread(r, "Admet-Db-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dbExecutor.shutdownNow();
+    }
+
     /**
-     * 忽略SSL证书验证的方法（仅用于开发和测试环境）
+     * 执行ADMET预测
+     * 同一化合物已有预测在进行时不再重复调用 API，等待并返回同一结果
+     * @param compoundId 化合物ID
+     * @return ADMET预测结果
      */
-    private void disableSslVerification() {
+    public AdmetResult executeAdmetPrediction(Long compoundId) {
         try {
-            TrustManager[] trustAllCerts = new TrustManager[] {
-                new X509TrustManager() {
-                    public X509Certificate[] getAcceptedIssuers() {
-                        return null;
-                    }
-                    public void checkClientTrusted(X509Certificate[] certs, String authType) {
-                    }
-                    public void checkServerTrusted(X509Certificate[] certs, String authType) {
-                    }
-                }
-            };
-            
-            SSLContext sc = SSLContext.getInstance("SSL");
-            sc.init(null, trustAllCerts, new java.security.SecureRandom());
-            HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
-            
-            javax.net.ssl.HostnameVerifier allHostsValid = (hostname, session) -> true;
-            HttpsURLConnection.setDefaultHostnameVerifier(allHostsValid);
-        } catch (Exception e) {
-            log.warn("忽略SSL证书验证时出错: {}", e.getMessage());
+            return predictAsync(compoundId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
 
     /**
-     * 执行ADMET预测
+     * 异步执行ADMET预测，等待 API 响应期间不占用调用线程
      * @param compoundId 化合物ID
      * @return ADMET预测结果
      */
-    public AdmetResult executeAdmetPrediction(Long compoundId) {
-        log.info("开始执行ADMET预测，化合物ID: {}", compoundId);
+    public CompletableFuture<AdmetResult> predictAsync(Long compoundId) {
+        return predictAsync(compoundId, null);
+    }
+
+    /**
+     * 使用指定引擎异步执行ADMET预测
+     * @param compoundId 化合物ID
+     * @param engine 预测引擎名称（remote / local），为空时使用默认引擎
+     * @return ADMET预测结果
+     */
+    public CompletableFuture<AdmetResult> predictAsync(Long compoundId, String engine) {
+        AdmetPredictor predictor;
+        try {
+            predictor = predictorRegistry.get(engine);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return predictFlight.executeAsync(compoundId + ":" + predictor.getName(), () -> predict(compoundId, predictor));
+    }
+
+    private CompletableFuture<AdmetResult> predict(Long compoundId, AdmetPredictor predictor) {
+        log.info("开始执行ADMET预测，化合物ID: {}, 引擎: {}", compoundId, predictor.getName());
 
         // 获取化合物信息
         Compound compound = compoundRepository.findById(compoundId)
                 .orElseThrow(() -> new RuntimeException("化合物不存在: " + compoundId));
 
-        try {
-            // 检查是否已有ADMET结果
-            Optional<AdmetResult> existingResult = admetResultRepository.findByCompoundId(compoundId);
-            if (existingResult.isPresent()) {
-                AdmetResult result = existingResult.get();
-                // 如果已有结果但 absorption 或 metabolism 为 null，更新为默认值
+        // 检查是否已有ADMET结果；降级写入的默认值或过期数据会重新预测
+        AdmetResult existing = admetResultRepository.findByCompoundId(compoundId).orElse(null);
+        if (existing != null && !needsPrediction(existing, predictor)) {
+            AdmetResult result = existing;
+            // 如果已有结果但 absorption 或 metabolism 为 null，更新为默认值
+            if (result.getAbsorption() == null || result.getMetabolism() == null) {
                 if (result.getAbsorption() == null) {
                     result.setAbsorption(0.7);
                 }
@@ -87,226 +176,346 @@ public class AdmetService {
                     result.setMetabolism(0.6);
                 }
                 result = admetResultRepository.save(result);
+                publishChanged(List.of(compoundId));
                 log.info("化合物已有ADMET预测结果，已更新默认值");
-                return result;
             }
+            return CompletableFuture.completedFuture(result);
+        }
+
+        // 按 SMILES 查预测缓存或调用预测引擎，响应到达后在数据库线程池中保存
+        // 只有预测本身失败时才降级；保存失败直接向调用方抛出，不再写入降级数据
+        return predictSmiles(predictor, compound.getName(), compound.getSmiles())
+                .handleAsync((predicted, e) -> e == null
+                        ? savePrediction(compoundId, predicted, predictor)
+                        : saveFallback(compound, existing, predictor, e), dbExecutor);
+    }
+
+    private AdmetResult savePrediction(Long compoundId, AdmetResult predicted, AdmetPredictor predictor) {
+        AdmetResult result = copyValues(predicted, new AdmetResult());
+        result.setCompoundId(compoundId);
+        applyDefaults(result);
+        upsert(List.of(result), predictor);
+        publishChanged(List.of(compoundId));
+        log.info("ADMET预测完成，结果已保存到数据库");
+        return admetResultRepository.findByCompoundId(compoundId).orElseThrow();
+    }
+
+    private AdmetResult saveFallback(Compound compound, AdmetResult existing, AdmetPredictor predictor, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        log.error("ADMET预测失败: {}", cause.getMessage());
+        if (existing != null) {
+            // 保留之前写入的降级数据或本地估算
+            return existing;
+        }
+
+        // 降级：优先使用过期的历史预测，没有时使用默认值，并记录数据来源
+        AdmetPredictionCache.Prediction stale = predictionCache.lookupStale(predictionCache.key(compound.getSmiles()));
+        AdmetResult fallback = stale != null ? stale.toResult() : new AdmetResult();
+        fallback.setCompoundId(compound.getId());
+        applyDefaults(fallback);
+        fallback.setProvenance(stale != null ? PROVENANCE_STALE : PROVENANCE_DEFAULTED);
+        fallback.setPredictor(stale != null ? RemoteAdmetPredictor.NAME : predictor.getName());
+
+        insertDegraded(fallback);
+        publishChanged(List.of(compound.getId()));
+        AdmetResult saved = admetResultRepository.findByCompoundId(compound.getId()).orElseThrow();
+        log.warn("ADMET预测失败，已保存降级数据: 来源={}", saved.getProvenance());
+        return saved;
+    }
+
+    /**
+     * 批量执行ADMET预测
+     * 已有结果的化合物直接返回；其余先按 SMILES 查预测缓存，结构相同的化合物只预测一次，
+     * 缓存未命中的按 SMILES 分块发往 ADMET 服务，最多同时进行 maxConcurrency 个分块，
+     * 全部成功的结果在一个事务内批量写入。失败的化合物只在结果中标记，不写入默认值，可再次提交。
+     * 本地引擎不经过预测缓存，全部化合物一次交给引擎并行计算
+     * @param compoundIds 化合物ID列表
+     * @param engine 预测引擎名称（remote / local），为空时使用默认引擎
+     * @return 每个化合物的结果
+     */
+    public AdmetBatchResultDTO predictBatch(List<Long> compoundIds, String engine) {
+        long start = System.currentTimeMillis();
+        AdmetPredictor predictor = predictorRegistry.get(engine);
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(compoundIds));
+        if (ids.size() > batchMaxCompounds) {
+            throw new RuntimeException("单次批量预测最多 " + batchMaxCompounds + " 个化合物");
+        }
+        log.info("开始批量ADMET预测，化合物数: {}, 引擎: {}", ids.size(), predictor.getName());
 
-            // 调用ADMET API获取预测结果
-            AdmetResult result = callAdmetApi(compound);
-            result.setCompoundId(compoundId);
-            
-            // 确保所有字段都有值
-            if (result.getHergToxicity() == null) {
-                result.setHergToxicity(0.3);
+        Map<Long, AdmetBatchItemDTO> items = new LinkedHashMap<>();
+        for (Long id : ids) {
+            items.put(id, new AdmetBatchItemDTO(id, "FAILED", "化合物不存在", null));
+        }
+
+        // 已有真实结果的不再预测；降级写入的结果重新预测，失败时仍返回原数据
+        for (AdmetResult existing : admetResultRepository.findByCompoundIdIn(ids)) {
+            items.put(existing.getCompoundId(), new AdmetBatchItemDTO(existing.getCompoundId(),
+                    needsPrediction(existing, predictor) ? "FAILED" : "EXISTING", null, existing));
+        }
+
+        // 按缓存键分组：命中缓存的直接得到结果，未命中的每个键只取一个化合物调用服务
+        Map<String, List<Long>> membersByKey = new LinkedHashMap<>();
+        Map<String, ChunkOutcome> outcomes = new HashMap<>();
+        Set<String> cachedKeys = new HashSet<>();
+        List<PendingSmiles> pending = new ArrayList<>();
+        for (CompoundRepository.CompoundSmiles compound : compoundRepository.findSmilesByIdIn(ids)) {
+            if ("EXISTING".equals(items.get(compound.getId()).getStatus())) {
+                continue;
             }
-            if (result.getAmesToxicity() == null) {
-                result.setAmesToxicity(0);
+            String key = predictionCache.key(compound.getSmiles());
+            List<Long> members = membersByKey.get(key);
+            if (members != null) {
+                members.add(compound.getId());
+                continue;
             }
-            if (result.getLiverToxicity() == null) {
-                result.setLiverToxicity(0);
+            membersByKey.put(key, new ArrayList<>(List.of(compound.getId())));
+            AdmetPredictionCache.Prediction cached = predictor.isRemote() ? predictionCache.lookup(key) : null;
+            if (cached == null) {
+                pending.add(new PendingSmiles(key, compound.getName(), compound.getSmiles()));
+            } else if (cached.success()) {
+                outcomes.put(key, new ChunkOutcome(key, cached.toResult(), null));
+                cachedKeys.add(key);
+            } else {
+                outcomes.put(key, new ChunkOutcome(key, null, "ADMET服务近期预测失败，稍后重试: " + cached.error()));
             }
-            if (result.getAbsorption() == null) {
-                result.setAbsorption(0.7);
+        }
+
+        // 分块并发请求，信号量限制同时进行的分块数
+        Semaphore permits = new Semaphore(batchMaxConcurrency);
+        List<CompletableFuture<List<ChunkOutcome>>> futures = new ArrayList<>();
+        int chunkSize = predictor.isRemote() ? batchChunkSize : Math.max(1, pending.size());
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<PendingSmiles> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            permits.acquireUninterruptibly();
+            futures.add(predictChunk(predictor, chunk).whenComplete((result, e) -> permits.release()));
+        }
+        for (CompletableFuture<List<ChunkOutcome>> future : futures) {
+            for (ChunkOutcome outcome : future.join()) {
+                outcomes.put(outcome.key(), outcome);
+            }
+        }
+
+        // 结果分发给同结构的全部化合物
+        List<AdmetResult> predicted = new ArrayList<>();
+        membersByKey.forEach((key, members) -> {
+            ChunkOutcome outcome = outcomes.get(key);
+            for (Long compoundId : members) {
+                if (outcome.result() != null) {
+                    AdmetResult result = copyValues(outcome.result(), new AdmetResult());
+                    result.setCompoundId(compoundId);
+                    applyDefaults(result);
+                    predicted.add(result);
+                } else {
+                    items.get(compoundId).setMessage(outcome.error());
+                }
+            }
+        });
+
+        // 一个事务内批量写入，随后读回带 ID 的结果（并发的单个预测已先写入时以库中为准）
+        if (!predicted.isEmpty()) {
+            upsert(predicted, predictor);
+            List<Long> predictedIds = predicted.stream().map(AdmetResult::getCompoundId).toList();
+            Set<Long> fromCache = new HashSet<>();
+            cachedKeys.forEach(key -> fromCache.addAll(membersByKey.get(key)));
+            List<Long> changed = new ArrayList<>();
+            for (AdmetResult saved : admetResultRepository.findByCompoundIdIn(predictedIds)) {
+                AdmetBatchItemDTO item = items.get(saved.getCompoundId());
+                if (!"EXISTING".equals(item.getStatus()) && PROVENANCE_REAL.equals(saved.getProvenance())
+                        && predictor.getName().equals(saved.getPredictor())) {
+                    item.setStatus(fromCache.contains(saved.getCompoundId()) ? "CACHED" : "PREDICTED");
+                    item.setMessage(null);
+                    item.setResult(saved);
+                    changed.add(saved.getCompoundId());
+                }
             }
-            if (result.getMetabolism() == null) {
-                result.setMetabolism(0.6);
+            if (!changed.isEmpty()) {
+                publishChanged(changed);
             }
-            
-            result = admetResultRepository.save(result);
-
-            log.info("ADMET预测完成，结果已保存到数据库");
-            return result;
-
-        } catch (Exception e) {
-            log.error("ADMET预测失败: {}", e.getMessage(), e);
-            
-            // 即使失败，也返回默认值并保存
-            AdmetResult defaultResult = new AdmetResult();
-            defaultResult.setCompoundId(compoundId);
-            defaultResult.setHergToxicity(0.3);
-            defaultResult.setAmesToxicity(0);
-            defaultResult.setLiverToxicity(0);
-            defaultResult.setAbsorption(0.7);
-            defaultResult.setMetabolism(0.6);
-            
-            defaultResult = admetResultRepository.save(defaultResult);
-            log.warn("ADMET预测失败，已保存默认值");
-            
-            return defaultResult;
         }
+
+        AdmetBatchResultDTO dto = new AdmetBatchResultDTO();
+        dto.setItems(new ArrayList<>(items.values()));
+        dto.setRequested(ids.size());
+        dto.setPredicted((int) items.values().stream().filter(i -> "PREDICTED".equals(i.getStatus())).count());
+        dto.setCached((int) items.values().stream().filter(i -> "CACHED".equals(i.getStatus())).count());
+        dto.setExisting((int) items.values().stream().filter(i -> "EXISTING".equals(i.getStatus())).count());
+        dto.setFailed((int) items.values().stream().filter(i -> "FAILED".equals(i.getStatus())).count());
+        dto.setChunks(futures.size());
+        dto.setElapsedMillis(System.currentTimeMillis() - start);
+        log.info("批量ADMET预测完成: 请求={}, 预测={}, 缓存={}, 已有={}, 失败={}, 分块={}, 耗时 {} ms",
+                dto.getRequested(), dto.getPredicted(), dto.getCached(), dto.getExisting(), dto.getFailed(),
+                dto.getChunks(), dto.getElapsedMillis());
+        return dto;
     }
 
     /**
-     * 调用ADMET API获取预测结果
-     * @param compound 化合物
-     * @return ADMET结果
+     * 待调用服务的 SMILES（每个缓存键一个）
      */
-    private AdmetResult callAdmetApi(Compound compound) throws Exception {
-        log.info("调用ADMET API，化合物: {}", compound.getName());
-        log.info("API地址: {}", admetApiUrl);
-
-        // 忽略SSL证书验证（仅用于开发和测试环境）
-        disableSslVerification();
+    private record PendingSmiles(String key, String name, String smiles) {
+    }
 
-        URL url = new URL(admetApiUrl);
-        HttpURLConnection conn = null;
-        
-        try {
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setDoOutput(true);
-            conn.setConnectTimeout(30000); // 30秒
-            conn.setReadTimeout(30000);
-
-            // 构建请求体（使用SMILES）
-            String requestBody = String.format("{\"smiles\": \"%s\"}", compound.getSmiles());
-            log.info("请求体: {}", requestBody);
-            
-            try (OutputStream os = conn.getOutputStream()) {
-                byte[] input = requestBody.getBytes("utf-8");
-                os.write(input, 0, input.length);
-            }
+    /**
+     * 单个缓存键的预测结果，成功时 result 不为空
+     */
+    private record ChunkOutcome(String key, AdmetResult result, String error) {
+    }
 
-            // 读取响应
-            int responseCode = conn.getResponseCode();
-            log.info("API响应码: {}", responseCode);
-            
-            StringBuilder response = new StringBuilder();
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                try (BufferedReader br = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream(), "utf-8"))) {
-                    String responseLine;
-                    while ((responseLine = br.readLine()) != null) {
-                        response.append(responseLine.trim());
-                    }
-                }
-                log.info("ADMET API响应: {}", response.toString());
-            } else {
-                try (BufferedReader br = new BufferedReader(
-                        new InputStreamReader(conn.getErrorStream(), "utf-8"))) {
-                    String responseLine;
-                    while ((responseLine = br.readLine()) != null) {
-                        response.append(responseLine.trim());
+    /**
+     * 预测一个分块：引擎支持批量预测时一次调用，否则分块内逐个并发请求（共用连接池）；远程引擎的结果写入预测缓存
+     */
+    private CompletableFuture<List<ChunkOutcome>> predictChunk(AdmetPredictor predictor, List<PendingSmiles> chunk) {
+        if (predictor.supportsBatch()) {
+            List<String> smiles = chunk.stream().map(PendingSmiles::smiles).toList();
+            return predictor.predictBatch(smiles).handleAsync((results, e) -> {
+                List<ChunkOutcome> outcomes = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    PendingSmiles item = chunk.get(i);
+                    AdmetResult result = e == null ? results.get(i) : null;
+                    String error = e != null ? rootMessage(e) : result == null ? "无法预测: " + item.name() : null;
+                    if (predictor.isRemote()) {
+                        if (result != null) {
+                            predictionCache.storeSuccess(item.key(), item.smiles(), result);
+                        } else {
+                            predictionCache.storeFailure(item.key(), item.smiles(), error);
+                        }
                     }
+                    outcomes.add(new ChunkOutcome(item.key(), result, error));
                 }
-                log.error("ADMET API错误响应: {}", response.toString());
-                throw new Exception("ADMET API调用失败，响应码: " + responseCode);
-            }
+                return outcomes;
+            }, dbExecutor);
+        }
 
-            // 解析响应JSON
-            return parseAdmetResponse(response.toString());
+        List<CompletableFuture<ChunkOutcome>> calls = new ArrayList<>(chunk.size());
+        for (PendingSmiles item : chunk) {
+            calls.add(predictSmiles(predictor, item.name(), item.smiles())
+                    .handle((result, e) -> e == null
+                            ? new ChunkOutcome(item.key(), result, null)
+                            : new ChunkOutcome(item.key(), null, rootMessage(e))));
+        }
+        return CompletableFuture.allOf(calls.toArray(new CompletableFuture[0]))
+                .thenApply(v -> calls.stream().map(CompletableFuture::join).toList());
+    }
 
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
+    /**
+     * 按 SMILES 预测：远程引擎先查预测缓存（含短期缓存的失败），未命中时调用 ADMET 服务；本地引擎直接计算
+     * @return 未保存的新结果对象
+     */
+    private CompletableFuture<AdmetResult> predictSmiles(AdmetPredictor predictor, String name, String smiles) {
+        if (!predictor.isRemote()) {
+            return predictor.predict(name, smiles);
+        }
+        String key = predictionCache.key(smiles);
+        AdmetPredictionCache.Prediction cached = predictionCache.lookup(key);
+        if (cached != null) {
+            log.info("ADMET预测缓存命中: 化合物={}, 成功={}", name, cached.success());
+            return cached.success()
+                    ? CompletableFuture.completedFuture(cached.toResult())
+                    : CompletableFuture.failedFuture(new RuntimeException("ADMET服务近期预测失败，稍后重试: " + cached.error()));
+        }
+        return callUpstream(predictor, key, name, smiles);
+    }
+
+    /**
+     * 调用 ADMET 服务并写入预测缓存；同一结构的并发调用只发一次请求
+     * @return 未保存的新结果对象
+     */
+    private CompletableFuture<AdmetResult> callUpstream(AdmetPredictor predictor, String key, String name, String smiles) {
+        return upstreamFlight.executeAsync(key, () -> predictor.predict(name, smiles)
+                        .whenCompleteAsync((result, e) -> {
+                            if (e == null) {
+                                predictionCache.storeSuccess(key, smiles, result);
+                            } else {
+                                predictionCache.storeFailure(key, smiles, rootMessage(e));
+                            }
+                        }, dbExecutor))
+                .thenApply(result -> copyValues(result, new AdmetResult()));
+    }
+
+    private static AdmetResult copyValues(AdmetResult source, AdmetResult result) {
+        result.setHergToxicity(source.getHergToxicity());
+        result.setAmesToxicity(source.getAmesToxicity());
+        result.setLiverToxicity(source.getLiverToxicity());
+        result.setAbsorption(source.getAbsorption());
+        result.setMetabolism(source.getMetabolism());
+        return result;
+    }
+
+    /**
+     * 在一个事务内写入ADMET真实预测：新增或替换降级数据，已有真实结果的化合物跳过（见 UPSERT_SQL）
+     */
+    private void upsert(List<AdmetResult> results, AdmetPredictor predictor) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT_SQL, results, results.size(), (ps, r) -> {
+                    ps.setLong(1, r.getCompoundId());
+                    ps.setDouble(2, r.getHergToxicity());
+                    ps.setInt(3, r.getAmesToxicity());
+                    ps.setInt(4, r.getLiverToxicity());
+                    ps.setDouble(5, r.getAbsorption());
+                    ps.setDouble(6, r.getMetabolism());
+                    ps.setString(7, predictor.getName());
+                    ps.setTimestamp(8, now);
+                    ps.setBoolean(9, predictor.isRemote());
+                }));
+    }
+
+    /**
+     * 写入降级数据，化合物已有结果时不写入
+     */
+    private void insertDegraded(AdmetResult r) {
+        jdbcTemplate.update(INSERT_DEGRADED_SQL, r.getCompoundId(), r.getHergToxicity(), r.getAmesToxicity(),
+                r.getLiverToxicity(), r.getAbsorption(), r.getMetabolism(), r.getProvenance(), r.getPredictor(),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * ADMET 结果写入后通知增量重新评分
+     */
+    private void publishChanged(List<Long> compoundIds) {
+        eventPublisher.publishEvent(new ScoringInputChangedEvent(compoundIds, ScoringInputChangedEvent.SOURCE_ADMET));
+    }
+
+    /**
+     * 已有结果是否需要重新预测：降级写入的数据总是重新预测；指定远程引擎时，其他引擎（本地估算）的结果也重新预测
+     */
+    static boolean needsPrediction(AdmetResult existing, AdmetPredictor predictor) {
+        if (isDegraded(existing)) {
+            return true;
         }
+        return predictor.isRemote() && existing.getPredictor() != null && !existing.getPredictor().equals(predictor.getName());
     }
 
     /**
-     * 解析ADMET API响应
+     * 是否为降级写入的数据（默认值或过期预测）；没有来源标记的旧数据按真实预测处理
      */
-    private AdmetResult parseAdmetResponse(String responseJson) throws Exception {
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode rootNode = mapper.readTree(responseJson);
-        
-        // 打印完整的 API 响应，用于调试
-        log.info("ADMET API 完整响应: {}", responseJson);
-        
-        JsonNode dataNode = rootNode.has("data") ? rootNode.get("data") : rootNode;
-        
-        AdmetResult result = new AdmetResult();
-        
-        // 提取 hERG 毒性
-        if (dataNode.has("herg_toxicity")) {
-            result.setHergToxicity(dataNode.get("herg_toxicity").asDouble());
-        } else if (dataNode.has("hERG")) {
-            result.setHergToxicity(dataNode.get("hERG").asDouble());
-        } else if (dataNode.has("Cardiotoxicity")) {
-            result.setHergToxicity(dataNode.get("Cardiotoxicity").asDouble());
-        } else {
-            log.warn("未找到 hERG 毒性字段，使用默认值 0.3");
+    static boolean isDegraded(AdmetResult result) {
+        return PROVENANCE_DEFAULTED.equals(result.getProvenance()) || PROVENANCE_STALE.equals(result.getProvenance());
+    }
+
+    /**
+     * 补全缺失字段的默认值
+     */
+    private static void applyDefaults(AdmetResult result) {
+        if (result.getHergToxicity() == null) {
             result.setHergToxicity(0.3);
         }
-        
-        // 提取 Ames 致突变性
-        if (dataNode.has("ames_toxicity")) {
-            result.setAmesToxicity(dataNode.get("ames_toxicity").asInt());
-        } else if (dataNode.has("AMES")) {
-            result.setAmesToxicity(dataNode.get("AMES").asInt());
-        } else if (dataNode.has("Mutagenicity")) {
-            result.setAmesToxicity(dataNode.get("Mutagenicity").asInt());
-        } else {
-            log.warn("未找到 Ames 致突变性字段，使用默认值 0");
+        if (result.getAmesToxicity() == null) {
             result.setAmesToxicity(0);
         }
-        
-        // 提取肝毒性
-        if (dataNode.has("liver_toxicity")) {
-            result.setLiverToxicity(dataNode.get("liver_toxicity").asInt());
-        } else if (dataNode.has("DILI")) {
-            result.setLiverToxicity(dataNode.get("DILI").asInt());
-        } else if (dataNode.has("Hepatotoxicity")) {
-            result.setLiverToxicity(dataNode.get("Hepatotoxicity").asInt());
-        } else {
-            log.warn("未找到肝毒性字段，使用默认值 0");
+        if (result.getLiverToxicity() == null) {
             result.setLiverToxicity(0);
         }
-        
-        // 提取吸收性
-        if (dataNode.has("absorption")) {
-            result.setAbsorption(dataNode.get("absorption").asDouble());
-        } else if (dataNode.has("Caco2")) {
-            // Caco2 通透性：通常是对数值，需要转换为 0-1 范围
-            double caco2 = dataNode.get("Caco2").asDouble();
-            // 假设 Caco2 > -5.15 为高通透性，转换为 0-1 分数
-            result.setAbsorption(Math.min(1.0, Math.max(0.0, (caco2 + 7) / 4)));
-        } else if (dataNode.has("HIA")) {
-            // 人体肠道吸收（Human Intestinal Absorption）
-            result.setAbsorption(dataNode.get("HIA").asDouble());
-        } else if (dataNode.has("Bioavailability")) {
-            result.setAbsorption(dataNode.get("Bioavailability").asDouble());
-        } else {
-            log.warn("未找到吸收性字段，使用默认值 0.7");
+        if (result.getAbsorption() == null) {
             result.setAbsorption(0.7);
         }
-        
-        // 提取代谢稳定性
-        if (dataNode.has("metabolism")) {
-            result.setMetabolism(dataNode.get("metabolism").asDouble());
-        } else if (dataNode.has("CYP")) {
-            // CYP 抑制：0 表示不抑制（好），1 表示抑制（不好）
-            int cyp = dataNode.get("CYP").asInt();
-            result.setMetabolism(cyp == 0 ? 0.8 : 0.4);
-        } else if (dataNode.has("CYP3A4_Substrate")) {
-            // CYP3A4 底物：0 表示不是底物（代谢稳定），1 表示是底物（代谢不稳定）
-            int cyp3a4 = dataNode.get("CYP3A4_Substrate").asInt();
-            result.setMetabolism(cyp3a4 == 0 ? 0.7 : 0.5);
-        } else if (dataNode.has("Half_Life")) {
-            // 半衰期：值越大越稳定
-            double halfLife = dataNode.get("Half_Life").asDouble();
-            result.setMetabolism(Math.min(1.0, halfLife / 10.0));
-        } else if (dataNode.has("Clearance")) {
-            // 清除率：值越小越稳定
-            double clearance = dataNode.get("Clearance").asDouble();
-            result.setMetabolism(Math.max(0.0, 1.0 - clearance / 100.0));
-        } else {
-            log.warn("未找到代谢稳定性字段，使用默认值 0.6");
+        if (result.getMetabolism() == null) {
             result.setMetabolism(0.6);
         }
-        
-        // 确保所有值都在合理范围内
-        result.setHergToxicity(Math.max(0.0, Math.min(1.0, result.getHergToxicity())));
-        result.setAbsorption(Math.max(0.0, Math.min(1.0, result.getAbsorption())));
-        result.setMetabolism(Math.max(0.0, Math.min(1.0, result.getMetabolism())));
-        
-        log.info("成功解析ADMET API响应 - hERG: {}, Ames: {}, Liver: {}, Absorption: {}, Metabolism: {}", 
-                result.getHergToxicity(), result.getAmesToxicity(), result.getLiverToxicity(),
-                result.getAbsorption(), result.getMetabolism());
-        
-        return result;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage();
     }
 
     /**
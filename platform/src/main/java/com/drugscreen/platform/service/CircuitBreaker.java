@@ -0,0 +1,153 @@
+package com.drugscreen.platform.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 熔断器
+ * 以最近 windowSize 次调用为滑动窗口，调用数达到 minCalls 后，失败率或慢调用率超过阈值即断开；
+ * 断开 openMillis 后进入半开状态，放行 halfOpenCalls 次试探调用，全部成功则闭合，任一失败重新断开
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final double slowRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    // 环形窗口：每次调用记录是否失败、是否慢调用
+    private final boolean[] failures;
+    private final boolean[] slows;
+    private int recorded;
+    private int next;
+    private int failureCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSucceeded;
+
+    public CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold, double slowRateThreshold,
+                          long slowCallMillis, long openMillis, int halfOpenCalls) {
+        this(windowSize, minCalls, failureRateThreshold, slowRateThreshold, slowCallMillis, openMillis,
+                halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold, double slowRateThreshold,
+                   long slowCallMillis, long openMillis, int halfOpenCalls, LongSupplier clock) {
+        this.windowSize = windowSize;
+        this.minCalls = Math.min(minCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowRateThreshold = slowRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.failures = new boolean[windowSize];
+        this.slows = new boolean[windowSize];
+    }
+
+    /**
+     * 申请调用许可；断开期间（或半开状态试探名额用完时）返回 false，调用方应直接降级
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * 记录成功的调用
+     * @param durationNanos 调用耗时，超过慢调用阈值的计为慢调用
+     */
+    public synchronized void onSuccess(long durationNanos) {
+        boolean slow = durationNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (slow) {
+                open();
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(false, slow);
+    }
+
+    /**
+     * 记录失败的调用
+     */
+    public synchronized void onFailure(long durationNanos) {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true, durationNanos >= slowCallNanos);
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (state == State.OPEN) {
+            // 断开前已放行的调用陆续返回，不再计入窗口
+            return;
+        }
+        if (recorded == windowSize) {
+            failureCount -= failures[next] ? 1 : 0;
+            slowCount -= slows[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failures[next] = failed;
+        slows[next] = slow;
+        failureCount += failed ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        next = (next + 1) % windowSize;
+
+        if (recorded >= minCalls && ((double) failureCount / recorded >= failureRateThreshold
+                || (double) slowCount / recorded >= slowRateThreshold)) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        resetWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        recorded = 0;
+        next = 0;
+        failureCount = 0;
+        slowCount = 0;
+    }
+}
@@ -3,9 +3,7 @@ package com.drugscreen.platform.service;
 import com.drugscreen.platform.dto.RankedCompoundDTO;
 import com.drugscreen.platform.dto.StructureDTO;
 import com.drugscreen.platform.entity.Compound;
-import com.drugscreen.platform.entity.DockingResult;
 import com.drugscreen.platform.repository.CompoundRepository;
-import com.drugscreen.platform.repository.DockingResultRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
@@ -16,9 +14,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -29,7 +24,8 @@ import java.util.stream.Collectors;
 public class CompoundService {
 
     private final CompoundRepository compoundRepository;
-    private final DockingResultRepository dockingResultRepository;
+    private final LeaderboardService leaderboardService;
+    private final ProteinService proteinService;
 
     /**
      * 分页查询化合物
@@ -70,8 +66,8 @@ public class CompoundService {
             String ligandPdb = readLigandPdbFile(compound.getEnglishName());
             dto.setLigandPdbqt(ligandPdb); // 使用 PDB 格式作为 PDBQT
             
-            // 读取受体 PDB（1e9h 蛋白质）
-            String receptorPdb = readStructureFile("structures/receptor_1e9h.pdb");
+            // 读取受体 PDB（默认受体，数据库中没有时读取 classpath 文件）
+            String receptorPdb = proteinService.getReceptorPdb(null);
             dto.setReceptorPdb(receptorPdb);
             
             log.info("成功从文件读取化合物 {} 的结构数据", compound.getName());
@@ -112,23 +108,6 @@ public class CompoundService {
         }
     }
 
-    /**
-     * 从 classpath 读取结构文件
-     */
-    private String readStructureFile(String resourcePath) throws IOException {
-        try {
-            ClassPathResource resource = new ClassPathResource(resourcePath);
-            return new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            // 如果 classpath 中没有，尝试从文件系统读取
-            Path path = Paths.get("data/" + resourcePath);
-            if (Files.exists(path)) {
-                return Files.readString(path, StandardCharsets.UTF_8);
-            }
-            throw e;
-        }
-    }
-
     /**
      * 生成模拟的受体 PDB 数据（CDK2 蛋白）
      */
@@ -206,29 +185,20 @@ public class CompoundService {
     }
     
     /**
-     * 获取 Top 10 化合物（按亲和力排序）
+     * 获取 Top 10 化合物（按最佳亲和力排序，每个化合物一个名次，由内存排行榜提供）
      */
     public List<RankedCompoundDTO> getTop10Compounds() {
-        List<DockingResult> top10Results = dockingResultRepository.findTop10ByOrderByAffinityAsc();
-        
-        List<RankedCompoundDTO> result = new ArrayList<>();
-        int rank = 1;
-        
-        for (DockingResult dr : top10Results) {
-            if (rank > 10) break;
-            
-            Compound compound = compoundRepository.findById(dr.getCompoundId()).orElse(null);
-            if (compound != null) {
-                RankedCompoundDTO dto = new RankedCompoundDTO();
-                dto.setId(compound.getId());
-                dto.setName(compound.getName());
-                dto.setAffinity(dr.getAffinity());
-                dto.setRank(rank++);
-                result.add(dto);
-            }
-        }
-        
-        return result;
+        return leaderboardService.top(10, null, null);
+    }
+    
+    /**
+     * 获取前 k 名化合物，可按受体或分类筛选（由内存排行榜提供）
+     * @param k 名次数，不超过排行榜容量
+     * @param proteinId 受体ID (可选)
+     * @param category 化合物分类 (可选，不能与受体同时指定)
+     */
+    public List<RankedCompoundDTO> getTopCompounds(int k, Long proteinId, String category) {
+        return leaderboardService.top(k, proteinId, category);
     }
     
     /**
@@ -0,0 +1,121 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.dto.DockedPoseDTO;
+import com.drugscreen.platform.entity.DockedPose;
+import com.drugscreen.platform.repository.DockedPoseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 对接构象服务
+ * 将 Vina 输出的 *_out.pdbqt 拆分为逐个结合模式保存，供 3D 查看器按序号加载单个构象
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DockedPoseService {
+
+    private final DockedPoseRepository dockedPoseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 解析并保存某个对接结果的全部构象
+     * 同一结果再次对接（租约过期重新入队、原节点在任务被接管后才完成）时替换上次的构象，
+     * 删除与写入在同一事务中；(docking_result_id, mode_index) 唯一，两个节点同时写入时后提交的放弃
+     * @return 保存的构象数
+     */
+    public int savePoses(Long dockingResultId, String outPdbqt) {
+        List<PdbqtPoseParser.ParsedPose> parsed = PdbqtPoseParser.parse(outPdbqt);
+        List<DockedPose> poses = new ArrayList<>(parsed.size());
+        for (PdbqtPoseParser.ParsedPose p : parsed) {
+            DockedPose pose = new DockedPose();
+            pose.setDockingResultId(dockingResultId);
+            pose.setModeIndex(p.modeIndex());
+            pose.setAffinity(Double.isNaN(p.affinity()) ? null : p.affinity());
+            pose.setRmsdLb(Double.isNaN(p.rmsdLb()) ? null : p.rmsdLb());
+            pose.setRmsdUb(Double.isNaN(p.rmsdUb()) ? null : p.rmsdUb());
+            pose.setAtomCount(p.atomCount());
+            pose.setPoseBlock(compress(p.block()));
+            poses.add(pose);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                dockedPoseRepository.deleteByDockingResultId(dockingResultId);
+                dockedPoseRepository.saveAll(poses);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.warn("对接构象已由另一次运行同时写入，本次不再保存，结果ID: {}", dockingResultId);
+            return 0;
+        }
+        log.debug("保存对接构象 {} 个，结果ID: {}", poses.size(), dockingResultId);
+        return poses.size();
+    }
+
+    /**
+     * 某个对接结果的全部构象摘要（不含构象内容）
+     */
+    public List<DockedPoseDTO> getPoseSummaries(Long dockingResultId) {
+        List<DockedPoseDTO> list = new ArrayList<>();
+        for (DockedPoseRepository.DockedPoseSummary s : dockedPoseRepository.findByDockingResultIdOrderByModeIndexAsc(dockingResultId)) {
+            DockedPoseDTO dto = new DockedPoseDTO();
+            dto.setDockingResultId(dockingResultId);
+            dto.setModeIndex(s.getModeIndex());
+            dto.setAffinity(s.getAffinity());
+            dto.setRmsdLb(s.getRmsdLb());
+            dto.setRmsdUb(s.getRmsdUb());
+            dto.setAtomCount(s.getAtomCount());
+            list.add(dto);
+        }
+        return list;
+    }
+
+    /**
+     * 加载单个构象，不存在时返回 null
+     */
+    public DockedPoseDTO getPose(Long dockingResultId, int modeIndex) {
+        return dockedPoseRepository.findByDockingResultIdAndModeIndex(dockingResultId, modeIndex)
+                .map(pose -> {
+                    DockedPoseDTO dto = new DockedPoseDTO();
+                    dto.setDockingResultId(dockingResultId);
+                    dto.setModeIndex(pose.getModeIndex());
+                    dto.setAffinity(pose.getAffinity());
+                    dto.setRmsdLb(pose.getRmsdLb());
+                    dto.setRmsdUb(pose.getRmsdUb());
+                    dto.setAtomCount(pose.getAtomCount());
+                    dto.setPdbqt(decompress(pose.getPoseBlock()));
+                    return dto;
+                })
+                .orElse(null);
+    }
+
+    private static byte[] compress(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(text.length() / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String decompress(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.dto.DockingCacheStatsDTO;
+import com.drugscreen.platform.entity.DockingCacheEntry;
+import com.drugscreen.platform.repository.DockingCacheEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对接结果缓存服务
+ * 以对接引擎、受体、配体文件内容及对接盒、搜索参数的 SHA-256 为键持久化对接结果，
+ * 相同输入再次对接时直接返回已有结果，不再启动 Vina 进程
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DockingCacheService {
+
+    private final DockingCacheEntryRepository cacheRepository;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // 受体文件较大且很少变化，按 路径+大小+修改时间 缓存其摘要
+    private final Map<String, FileDigest> fileDigests = new ConcurrentHashMap<>();
+
+    /**
+     * 计算缓存键
+     * @param engineId 引擎名称与版本，不同引擎的结果互不复用
+     */
+    public String computeKey(String engineId, File receptorFile, File ligandFile, double[] center, double[] size,
+                             int exhaustiveness, long seed) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(engineId.getBytes(StandardCharsets.UTF_8));
+        digest.update(receptorDigest(receptorFile));
+        digest.update(sha256().digest(Files.readAllBytes(ligandFile.toPath())));
+
+        ByteBuffer params = ByteBuffer.allocate(Double.BYTES * 6 + Integer.BYTES + Long.BYTES);
+        for (double v : center) {
+            params.putDouble(v);
+        }
+        for (double v : size) {
+            params.putDouble(v);
+        }
+        params.putInt(exhaustiveness);
+        params.putLong(seed);
+        digest.update(params.array());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 查找缓存，命中时累加命中计数
+     * @return 命中的条目，未命中时返回 null
+     */
+    public DockingCacheEntry lookup(String cacheKey) {
+        DockingCacheEntry entry = cacheRepository.findByCacheKey(cacheKey).orElse(null);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        cacheRepository.recordHit(entry.getId(), LocalDateTime.now());
+        log.info("对接缓存命中: key={}, affinity={}", cacheKey, entry.getAffinity());
+        return entry;
+    }
+
+    /**
+     * 保存成功的对接结果
+     */
+    public void store(String cacheKey, Double affinity, String logContent, String posesPdbqt) {
+        if (cacheRepository.existsByCacheKey(cacheKey)) {
+            return;
+        }
+        DockingCacheEntry entry = new DockingCacheEntry();
+        entry.setCacheKey(cacheKey);
+        entry.setAffinity(affinity);
+        entry.setLogContent(logContent);
+        entry.setPosesPdbqt(posesPdbqt);
+        try {
+            cacheRepository.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            // 并发对接相同输入时，另一任务已写入
+            log.debug("对接缓存条目已存在: key={}", cacheKey);
+        }
+    }
+
+    /**
+     * 缓存统计
+     */
+    public DockingCacheStatsDTO getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        DockingCacheStatsDTO dto = new DockingCacheStatsDTO();
+        dto.setHits(h);
+        dto.setMisses(m);
+        dto.setHitRate(h + m == 0 ? 0.0 : (double) h / (h + m));
+        dto.setEntries(cacheRepository.count());
+        return dto;
+    }
+
+    /**
+     * 受体文件内容的 SHA-256（按 路径+大小+修改时间 缓存）
+     */
+    byte[] receptorDigest(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        long length = file.length();
+        long modified = file.lastModified();
+
+        FileDigest cached = fileDigests.get(path);
+        if (cached != null && cached.length == length && cached.modified == modified) {
+            return cached.digest;
+        }
+        byte[] digest = sha256().digest(Files.readAllBytes(file.toPath()));
+        fileDigests.put(path, new FileDigest(length, modified, digest));
+        return digest;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record FileDigest(long length, long modified, byte[] digest) {
+    }
+}
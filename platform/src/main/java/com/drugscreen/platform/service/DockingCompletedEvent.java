@@ -0,0 +1,19 @@
+package com.drugscreen.platform.service;
+
+import java.util.List;
+
+/**
+ * 对接完成事件
+ * 对接成功的结果写入数据库（事务提交）后由 {@link DockingResultWriter} 发布，用于更新 {@link LeaderboardService}
+ * @param results 成功的对接结果
+ */
+public record DockingCompletedEvent(List<Completed> results) {
+
+    /**
+     * @param compoundId 化合物ID
+     * @param proteinId 受体蛋白ID，可能为空
+     * @param affinity 结合亲和力 (kcal/mol)
+     */
+    public record Completed(long compoundId, Long proteinId, double affinity) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.drugscreen.platform.service;
+
+import java.nio.file.Path;
+
+/**
+ * 分子对接引擎
+ * 通过 docking.engine 选择实现：vina（调用 Vina 可执行文件）或 stub（进程内确定性模拟，用于压测）
+ */
+public interface DockingEngine {
+
+    /**
+     * 无法确定引擎版本时 {@link #getVersion()} 的返回值，此时不读写对接缓存与受体网格图
+     */
+    String UNKNOWN_VERSION = "unknown";
+
+    /**
+     * 引擎名称，如 vina
+     */
+    String getName();
+
+    /**
+     * 引擎版本，参与缓存键计算；无法确定时返回 {@link #UNKNOWN_VERSION}
+     */
+    String getVersion();
+
+    /**
+     * 执行对接
+     * @param request 对接输入
+     * @param context 任务上下文：上报进度、登记外部进程，以便看门狗与取消接口终止任务
+     * @return 对接输出
+     */
+    DockingOutput dock(DockingRequest request, DockingJobContext context) throws Exception;
+
+    /**
+     * 是否支持预先计算受体网格图并在后续对接中复用
+     */
+    default boolean supportsPreparedMaps() {
+        return false;
+    }
+
+    /**
+     * 为受体与对接盒预先计算网格图
+     * @param receptorFile 受体 PDBQT
+     * @param center 对接盒中心 (x, y, z)
+     * @param size 对接盒尺寸 (x, y, z)
+     * @param mapsPrefix 网格图文件前缀（目录 + 文件名前缀）
+     * @return 是否写出了网格图；不支持预计算的引擎返回 false，由调用方改为对接时现场计算
+     */
+    default boolean prepareMaps(Path receptorFile, double[] center, double[] size, Path mapsPrefix) throws Exception {
+        return false;
+    }
+}
@@ -0,0 +1,407 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.dto.DockingEventDTO;
+import com.drugscreen.platform.dto.ScreeningRunDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对接事件推送中心
+ * 对接执行线程发布状态变化（queued → running → progress → completed/failed），
+ * 由内存中的订阅表扇出到 SSE 连接，客户端无需轮询数据库。
+ * 每个任务保留最近一个事件，新订阅者连接后立即收到当前状态；
+ * 筛选批次订阅者只收到任务结束事件和批次完成事件，不接收逐条进度。
+ * 每个连接有自己的有界发送队列（未发出的进度事件合并为最新一条），由发送线程池按连接顺序发送：
+ * 慢客户端只占用一个发送线程，队列满或单次发送超过 send-timeout-ms 的连接被移除，客户端重连后从当前状态继续。
+ * 事件只在执行任务的节点产生：订阅了由其他工作节点执行的任务或批次时，按 remote-poll-ms 从数据库读取状态，
+ * 状态变化（开始运行、结束、批次完成）时补发事件
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DockingEventHub {
+
+    /** 批次完成事件名 */
+    public static final String RUN_COMPLETED = "run-completed";
+
+    private static final String PROGRESS = "progress";
+
+    // 订阅中任务的结果与队列状态（失败原因只取开头）
+    private static final String TASK_STATE_SQL =
+            "SELECT r.id, r.status, r.affinity, r.compound_id, r.protein_id, r.screening_run_id, j.status AS job_status, " +
+            "CASE WHEN r.status IN ('failed', 'timeout', 'cancelled') THEN LEFT(r.docked_pdbqt_content, 500) END AS message " +
+            "FROM docking_results r LEFT JOIN docking_jobs j ON j.docking_result_id = r.id WHERE r.id = ANY(?)";
+
+    private static final String RUN_COMPLETED_SQL =
+            "SELECT id, total, completed, failed, finished_at FROM screening_runs " +
+            "WHERE status = 'COMPLETED' AND id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DockingScheduler dockingScheduler;
+
+    @Value("${docking.events.timeout-ms:1800000}")
+    private long timeoutMs; // SSE 连接超时
+
+    @Value("${docking.events.retention-ms:300000}")
+    private long retentionMs; // 任务结束后保留最后事件的时长
+
+    @Value("${docking.events.stale-ms:7200000}")
+    private long staleMs; // 未结束任务的最后事件超过该时长没有更新时清理（执行节点崩溃等）
+
+    @Value("${docking.events.queue-capacity:64}")
+    private int queueCapacity; // 每个连接待发送事件的上限
+
+    @Value("${docking.events.send-timeout-ms:10000}")
+    private long sendTimeoutMs; // 单次发送的最长时间
+
+    @Value("${docking.events.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${docking.events.remote-poll-ms:5000}")
+    private long remotePollMs; // 检查其他节点执行的任务状态的间隔
+
+    private final Map<Long, List<Subscriber>> taskSubscribers = new ConcurrentHashMap<>();
+    private final Map<Long, List<Subscriber>> runSubscribers = new ConcurrentHashMap<>();
+    private final Map<Long, DockingEventDTO> lastEvents = new ConcurrentHashMap<>();
+
+    // 发送线程池，慢客户端不阻塞对接线程；同一连接同一时间只有一个线程发送，保证事件有序
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "Docking-SSE-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * 待发送的事件；name 为空时只关闭连接
+     */
+    private record Pending(String name, Object data, boolean complete) {
+    }
+
+    /**
+     * 一个 SSE 连接及其发送队列
+     */
+    private final class Subscriber {
+        final SseEmitter emitter = new SseEmitter(timeoutMs);
+        final Map<Long, List<Subscriber>> subscribers;
+        final Long key;
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        volatile long sendingSince; // 当前发送开始的时间，未在发送时为 0
+
+        Subscriber(Map<Long, List<Subscriber>> subscribers, Long key) {
+            this.subscribers = subscribers;
+            this.key = key;
+        }
+
+        /**
+         * 加入发送队列；complete 为 true 时发送后关闭连接，之后的事件不再接收
+         */
+        void offer(String name, Object data, boolean complete) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                // 未发出的进度只保留最新一条
+                if (PROGRESS.equals(name) && !queue.isEmpty() && PROGRESS.equals(queue.peekLast().name())) {
+                    queue.pollLast();
+                }
+                if (queue.size() >= queueCapacity) {
+                    log.warn("SSE 客户端接收过慢，发送队列已满，关闭连接: key={}", key);
+                    queue.clear();
+                    queue.add(new Pending(null, null, true));
+                    closed = true;
+                } else {
+                    queue.add(new Pending(name, data, complete));
+                    closed = complete;
+                }
+                if (closed) {
+                    unregister(subscribers, key, this);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        /**
+         * 停止接收事件并移出订阅表
+         */
+        void abort() {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
+            unregister(subscribers, key, this);
+        }
+
+        private void drain() {
+            while (true) {
+                Pending next;
+                synchronized (this) {
+                    next = queue.poll();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (next.name() != null) {
+                        sendingSince = System.currentTimeMillis();
+                        emitter.send(SseEmitter.event().name(next.name()).data(next.data()));
+                    }
+                    if (next.complete()) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // 客户端已断开
+                    log.debug("SSE 推送失败，移除订阅: key={}, {}", key, e.getMessage());
+                    abort();
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * 发布任务事件
+     */
+    public void publish(Long taskId, Long screeningRunId, Long compoundId, Long proteinId, String state,
+                        Double progress, Double affinity, String message) {
+        DockingEventDTO event = new DockingEventDTO();
+        event.setTaskId(taskId);
+        event.setScreeningRunId(screeningRunId);
+        event.setCompoundId(compoundId);
+        event.setProteinId(proteinId);
+        event.setState(state);
+        event.setProgress(progress);
+        event.setAffinity(affinity);
+        event.setMessage(message);
+        event.setTimestamp(System.currentTimeMillis());
+        lastEvents.put(taskId, event);
+
+        send(taskSubscribers, taskId, state, event, event.isTerminal());
+        if (screeningRunId != null && event.isTerminal()) {
+            send(runSubscribers, screeningRunId, state, event, false);
+        }
+    }
+
+    /**
+     * 发布进度事件
+     * 进度随 Vina 进度条频繁更新，只推送给该任务的订阅者；没有订阅者时直接返回，
+     * 也不覆盖最后事件，之后订阅的客户端仍收到 queued / running 等状态事件
+     */
+    public void publishProgress(Long taskId, double fraction) {
+        if (!taskSubscribers.containsKey(taskId)) {
+            return;
+        }
+        DockingEventDTO last = lastEvents.get(taskId);
+        if (last == null) {
+            return;
+        }
+        DockingEventDTO event = new DockingEventDTO();
+        event.setTaskId(taskId);
+        event.setScreeningRunId(last.getScreeningRunId());
+        event.setCompoundId(last.getCompoundId());
+        event.setProteinId(last.getProteinId());
+        event.setState(PROGRESS);
+        event.setProgress(fraction);
+        event.setTimestamp(System.currentTimeMillis());
+        send(taskSubscribers, taskId, PROGRESS, event, false);
+    }
+
+    /**
+     * 发布批次完成事件并关闭批次订阅
+     */
+    public void publishRunCompleted(Long runId, ScreeningRunDTO summary) {
+        send(runSubscribers, runId, RUN_COMPLETED, summary, true);
+    }
+
+    /**
+     * 订阅单个任务
+     * @param current 内存中没有事件时的当前状态（由调用方从数据库查询），可为 null
+     */
+    public SseEmitter subscribeTask(Long taskId, DockingEventDTO current) {
+        Subscriber subscriber = register(taskSubscribers, taskId);
+        DockingEventDTO last = lastEvents.getOrDefault(taskId, current);
+        if (last != null) {
+            subscriber.offer(last.getState(), last, last.isTerminal());
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * 订阅筛选批次
+     * @param current 批次当前进度，已完成时立即推送完成事件并关闭连接
+     */
+    public SseEmitter subscribeRun(Long runId, ScreeningRunDTO current) {
+        Subscriber subscriber = register(runSubscribers, runId);
+        if ("COMPLETED".equals(current.getStatus())) {
+            subscriber.offer(RUN_COMPLETED, current, true);
+        } else {
+            subscriber.offer("run-progress", current, false);
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * 内存中是否有该任务的事件
+     */
+    public boolean hasEvents(Long taskId) {
+        return lastEvents.containsKey(taskId);
+    }
+
+    /**
+     * 为本节点调度器之外的订阅任务从数据库读取状态，状态变化时发布事件；并为已完成的订阅批次发布完成事件
+     */
+    @Scheduled(fixedDelayString = "${docking.events.remote-poll-ms:5000}",
+            initialDelayString = "${docking.events.remote-poll-ms:5000}")
+    public void pollRemote() {
+        try {
+            List<Long> remote = new ArrayList<>();
+            for (Long taskId : taskSubscribers.keySet()) {
+                if (!dockingScheduler.contains(taskId)) {
+                    remote.add(taskId);
+                }
+            }
+            if (!remote.isEmpty()) {
+                pollTasks(remote);
+            }
+            if (!runSubscribers.isEmpty()) {
+                pollRuns(new ArrayList<>(runSubscribers.keySet()));
+            }
+        } catch (Exception e) {
+            log.warn("读取订阅任务状态失败: {}", e.getMessage());
+        }
+    }
+
+    private void pollTasks(List<Long> taskIds) {
+        jdbcTemplate.query(TASK_STATE_SQL, ps -> ps.setArray(1, bigintArray(ps.getConnection(), taskIds)), rs -> {
+            Long taskId = rs.getLong("id");
+            String status = rs.getString("status");
+            String jobStatus = rs.getString("job_status");
+            String state = "PENDING".equals(status) ? (DockingJobQueue.LEASED.equals(jobStatus) ? "running" : "queued")
+                    : status;
+            DockingEventDTO last = lastEvents.get(taskId);
+            String lastState = last == null ? null : last.getState();
+            if (state.equals(lastState)) {
+                return;
+            }
+            Double affinity = rs.getObject("affinity", Double.class);
+            publish(taskId, rs.getObject("screening_run_id", Long.class), rs.getLong("compound_id"),
+                    rs.getLong("protein_id"), state, "completed".equals(state) ? 1.0 : null, affinity,
+                    rs.getString("message"));
+        });
+    }
+
+    private void pollRuns(List<Long> runIds) {
+        jdbcTemplate.query(RUN_COMPLETED_SQL, ps -> ps.setArray(1, bigintArray(ps.getConnection(), runIds)), rs -> {
+            ScreeningRunDTO summary = new ScreeningRunDTO();
+            summary.setRunId(rs.getLong("id"));
+            summary.setStatus("COMPLETED");
+            summary.setTotal(rs.getInt("total"));
+            summary.setCompleted(rs.getInt("completed"));
+            summary.setFailed(rs.getInt("failed"));
+            summary.setPending(0);
+            Timestamp finishedAt = rs.getTimestamp("finished_at");
+            summary.setFinishedAt(finishedAt != null ? finishedAt.toLocalDateTime() : null);
+            publishRunCompleted(summary.getRunId(), summary);
+        });
+    }
+
+    private static Array bigintArray(Connection con, Collection<Long> ids) throws SQLException {
+        return con.createArrayOf("bigint", ids.toArray());
+    }
+
+    /**
+     * 清理已结束任务的最后事件，以及长时间没有更新的未结束任务的最后事件
+     */
+    @Scheduled(fixedDelayString = "${docking.events.retention-ms:300000}")
+    public void evictFinished() {
+        long now = System.currentTimeMillis();
+        lastEvents.values().removeIf(e -> e.getTimestamp() < now - (e.isTerminal() ? retentionMs : staleMs));
+    }
+
+    /**
+     * 移除发送超时的连接：阻塞中的发送无法从外部中断，移出订阅表后不再为其排队事件，
+     * 连接在发送失败或 SSE 超时时由容器关闭
+     */
+    @Scheduled(fixedDelayString = "${docking.events.send-timeout-ms:10000}")
+    public void evictStalled() {
+        long cutoff = System.currentTimeMillis() - sendTimeoutMs;
+        for (Map<Long, List<Subscriber>> subscribers : List.of(taskSubscribers, runSubscribers)) {
+            for (List<Subscriber> list : subscribers.values()) {
+                for (Subscriber subscriber : list) {
+                    long since = subscriber.sendingSince;
+                    if (since != 0 && since < cutoff) {
+                        log.warn("SSE 发送超时，移除订阅: key={}", subscriber.key);
+                        subscriber.abort();
+                    }
+                }
+            }
+        }
+    }
+
+    private Subscriber register(Map<Long, List<Subscriber>> subscribers, Long key) {
+        Subscriber subscriber = new Subscriber(subscribers, key);
+        subscribers.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(subscriber);
+        subscriber.emitter.onCompletion(() -> unregister(subscribers, key, subscriber));
+        subscriber.emitter.onTimeout(() -> unregister(subscribers, key, subscriber));
+        subscriber.emitter.onError(e -> unregister(subscribers, key, subscriber));
+        return subscriber;
+    }
+
+    private void unregister(Map<Long, List<Subscriber>> subscribers, Long key, Subscriber subscriber) {
+        subscribers.computeIfPresent(key, (k, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private void send(Map<Long, List<Subscriber>> subscribers, Long key, String name, Object data, boolean complete) {
+        List<Subscriber> list = complete ? subscribers.remove(key) : subscribers.get(key);
+        if (list == null) {
+            return;
+        }
+        for (Subscriber subscriber : list) {
+            subscriber.offer(name, data, complete);
+        }
+    }
+}
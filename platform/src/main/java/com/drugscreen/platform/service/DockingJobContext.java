@@ -0,0 +1,99 @@
+package com.drugscreen.platform.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 运行中对接任务的上下文
+ * 对接引擎通过它上报进度、登记外部进程；看门狗和取消接口通过它终止任务
+ */
+@Slf4j
+public class DockingJobContext implements VinaOutputParser.ProgressListener {
+
+    /** 终止原因：超时 */
+    public static final String TIMEOUT = "timeout";
+
+    /** 终止原因：用户取消 */
+    public static final String CANCELLED = "cancelled";
+
+    private final Long taskId;
+    private final VinaOutputParser.ProgressListener listener;
+    private final long startedAt = System.nanoTime();
+    private volatile Process process;
+    private volatile String terminationReason;
+
+    public DockingJobContext(Long taskId, VinaOutputParser.ProgressListener listener) {
+        this.taskId = taskId;
+        this.listener = listener;
+    }
+
+    @Override
+    public void onProgress(double fraction) {
+        if (listener != null) {
+            listener.onProgress(fraction);
+        }
+    }
+
+    /**
+     * 登记对接进程；任务已被终止时立即结束该进程
+     */
+    public void attachProcess(Process process) {
+        this.process = process;
+        if (terminationReason != null) {
+            destroy(process);
+        }
+    }
+
+    /**
+     * 终止任务并结束整个进程树，重复调用时保留第一次的原因
+     */
+    public synchronized void terminate(String reason) {
+        if (terminationReason != null) {
+            return;
+        }
+        terminationReason = reason;
+        Process p = process;
+        if (p != null) {
+            log.warn("终止对接进程: taskId={}, pid={}, 原因={}", taskId, p.pid(), reason);
+            destroy(p);
+        }
+    }
+
+    /**
+     * 已被终止时抛出异常（供不启动外部进程的引擎在循环中检查）
+     */
+    public void checkTerminated() throws InterruptedException {
+        if (terminationReason != null) {
+            throw new InterruptedException("对接任务已终止: " + terminationReason);
+        }
+    }
+
+    /**
+     * 结束进程及其全部子进程
+     */
+    static void destroy(Process p) {
+        p.descendants().forEach(ProcessHandle::destroyForcibly);
+        p.destroyForcibly();
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Process getProcess() {
+        return process;
+    }
+
+    /**
+     * 终止原因（timeout / cancelled），未终止时为 null
+     */
+    public String getTerminationReason() {
+        return terminationReason;
+    }
+
+    /**
+     * 已运行的毫秒数
+     */
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startedAt) / 1_000_000L;
+    }
+}
@@ -0,0 +1,137 @@
+package com.drugscreen.platform.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 对接任务分发器（工作节点模式）
+ * 从共享的持久化队列领取任务交给本节点的 {@link DockingScheduler}，内存中最多只保留
+ * 并发数 + 预取数个任务，其余任务留在数据库中。多个节点连接同一数据库即可横向扩展，
+ * 领取使用 FOR UPDATE SKIP LOCKED，节点之间互不阻塞、不会重复领取。
+ * docking.worker.enabled=false 的节点只接收请求、入队，不执行对接。
+ * 启动时先回收上次运行遗留的租约并恢复筛选批次
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DockingJobDispatcher {
+
+    private final DockingJobQueue dockingJobQueue;
+    private final DockingScheduler dockingScheduler;
+    private final DockingService dockingService;
+    private final ScreeningService screeningService;
+
+    @Value("${docking.worker.enabled:true}")
+    private boolean workerEnabled; // 是否在本节点执行对接
+
+    @Value("${docking.queue.poll-interval-ms:2000}")
+    private long pollIntervalMs; // 没有入队通知时的轮询间隔
+
+    @Value("${docking.queue.prefetch:0}")
+    private int configuredPrefetch; // 0 表示与并发数相同
+
+    private final AtomicBoolean pollPending = new AtomicBoolean();
+    private volatile boolean started;
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Docking-Dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dockingJobQueue.onEnqueue(this::wakeUp);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 启动恢复：回收本节点遗留及已过期的租约，恢复进行中的筛选批次，然后开始领取任务
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        try {
+            int requeued = dockingJobQueue.requeueExpired(true);
+            log.info("对接任务队列恢复完成: 重新入队 {} 个任务", requeued);
+            screeningService.resumeRuns();
+        } catch (Exception e) {
+            log.error("对接任务队列恢复失败: {}", e.getMessage(), e);
+        }
+        if (!workerEnabled) {
+            log.info("本节点未启用对接工作模式，只负责任务入队: node={}", dockingJobQueue.getNodeId());
+            return;
+        }
+        started = true;
+        executor.scheduleWithFixedDelay(this::poll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::checkCancellations, pollIntervalMs, pollIntervalMs,
+                TimeUnit.MILLISECONDS);
+        log.info("对接工作节点已启动: node={}, 并发={}, 预取={}", dockingJobQueue.getNodeId(),
+                dockingScheduler.getSlots(), configuredPrefetch > 0 ? configuredPrefetch : dockingScheduler.getSlots());
+    }
+
+    /**
+     * 有新任务入队或任务结束时尽快领取
+     */
+    public void wakeUp() {
+        if (started && pollPending.compareAndSet(false, true)) {
+            executor.execute(this::poll);
+        }
+    }
+
+    /**
+     * 终止其他节点请求取消的、由本节点执行的任务
+     */
+    private void checkCancellations() {
+        try {
+            for (Long taskId : dockingJobQueue.findCancelRequested()) {
+                dockingService.cancelLocal(taskId);
+            }
+        } catch (Exception e) {
+            log.error("检查取消请求失败: {}", e.getMessage(), e);
+        }
+    }
+
+    private void poll() {
+        pollPending.set(false);
+        try {
+            int prefetch = configuredPrefetch > 0 ? configuredPrefetch : dockingScheduler.getSlots();
+            int capacity = dockingScheduler.getSlots() + prefetch - dockingScheduler.getBacklog();
+            if (capacity <= 0) {
+                return;
+            }
+            List<DockingJobQueue.ClaimedJob> jobs = dockingJobQueue.claim(capacity);
+            for (DockingJobQueue.ClaimedJob job : jobs) {
+                dockingScheduler.submit(job.taskId(), job.priority(), cpu -> {
+                    try {
+                        dockingService.executeDocking(job.taskId(), job.compoundId(), job.proteinId(),
+                                job.screeningRunId(), job.exhaustiveness(), cpu);
+                    } finally {
+                        // 腾出槽位后继续领取
+                        wakeUp();
+                    }
+                });
+            }
+            if (!jobs.isEmpty()) {
+                log.debug("领取对接任务 {} 个", jobs.size());
+            }
+        } catch (Exception e) {
+            log.error("领取对接任务失败: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.dto.DockingTaskStatusDTO;
+import com.drugscreen.platform.entity.DockingResult;
+import com.drugscreen.platform.repository.DockingJobRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 持久化对接任务队列（docking_jobs 表）
+ * 提交时任务与 PENDING 结果一同落库；节点以租约方式领取任务（FOR UPDATE SKIP LOCKED），
+ * 运行期间定期续约，任务结束时由 {@link DockingResultWriter} 在写回结果的同一事务中标记完成。
+ * 节点崩溃或重启后，过期租约的任务重新入队，长时间的筛选批次从中断处继续
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DockingJobQueue {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String LEASED = "LEASED";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+    public static final String CANCELLED = "CANCELLED";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO docking_jobs (docking_result_id, compound_id, protein_id, screening_run_id, priority, " +
+            "exhaustiveness, status, attempts, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 'QUEUED', 0, ?, ?)";
+
+    private static final String CLAIM_SQL =
+            "UPDATE docking_jobs SET status = 'LEASED', lease_owner = ?, lease_expires_at = ?, heartbeat_at = ?, " +
+            "attempts = attempts + 1, updated_at = ? " +
+            "WHERE id IN (SELECT id FROM docking_jobs WHERE status = 'QUEUED' " +
+            "ORDER BY priority DESC, id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING docking_result_id, compound_id, protein_id, screening_run_id, priority, exhaustiveness";
+
+    private static final String REQUEUE_SQL =
+            "UPDATE docking_jobs SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'QUEUED' END, " +
+            "lease_owner = NULL, lease_expires_at = NULL, updated_at = ? " +
+            "WHERE status = 'LEASED' AND (lease_expires_at < ? OR lease_owner = ?) " +
+            "RETURNING docking_result_id, screening_run_id, status";
+
+    // 只续约本节点实际持有的任务：调度器中排队或运行的、以及结果尚在写入缓冲区的
+    private static final String RENEW_SQL =
+            "UPDATE docking_jobs SET lease_expires_at = ?, heartbeat_at = ? " +
+            "WHERE lease_owner = ? AND status = 'LEASED' AND docking_result_id = ANY(?)";
+
+    // 排队位置与领取顺序一致：优先级更高，或优先级相同且 ID 更小的 QUEUED 任务排在前面
+    private static final String STATUS_SQL =
+            "SELECT j.priority, j.status, j.created_at, " +
+            "(SELECT COUNT(*) FROM docking_jobs q WHERE q.status = 'QUEUED' " +
+            "AND (q.priority > j.priority OR (q.priority = j.priority AND q.id < j.id))) AS ahead, " +
+            "(SELECT COUNT(*) FROM docking_jobs q WHERE q.status = 'QUEUED') AS queued " +
+            "FROM docking_jobs j WHERE j.docking_result_id = ?";
+
+    private static final String RESET_RESULT_SQL =
+            "UPDATE docking_results SET status = 'PENDING', updated_at = ? WHERE id = ? AND status = 'running'";
+
+    private static final String FAIL_RESULT_SQL =
+            "UPDATE docking_results SET status = 'failed', docked_pdbqt_content = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DockingJobRepository jobRepository;
+    private final ScreeningProgressTracker progressTracker;
+    private final DockingScheduler dockingScheduler;
+    private final DockingResultWriter dockingResultWriter;
+
+    @Value("${docking.node-id:}")
+    private String configuredNodeId; // 为空时使用 主机名:端口，需在重启前后保持不变
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${docking.queue.lease-ms:60000}")
+    private long leaseMs; // 租约时长
+
+    @Value("${docking.queue.max-attempts:3}")
+    private int maxAttempts; // 超过该领取次数仍未完成的任务记为失败
+
+    private String nodeId;
+    private final List<Runnable> enqueueListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 已领取的任务
+     */
+    public record ClaimedJob(Long taskId, Long compoundId, Long proteinId, Long screeningRunId, int priority,
+                             Integer exhaustiveness) {
+    }
+
+    @PostConstruct
+    public void init() {
+        nodeId = configuredNodeId;
+        if (nodeId == null || nodeId.isBlank()) {
+            try {
+                nodeId = InetAddress.getLocalHost().getHostName() + ":" + serverPort;
+            } catch (Exception e) {
+                nodeId = "node:" + serverPort;
+            }
+        }
+        log.info("对接任务队列节点ID: {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 注册入队通知（事务提交后回调）
+     */
+    public void onEnqueue(Runnable listener) {
+        enqueueListeners.add(listener);
+    }
+
+    /**
+     * 为已保存的 PENDING 结果创建队列任务，需在调用方事务内执行
+     */
+    public void enqueue(List<DockingResult> results, int priority) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, results, results.size(), (ps, r) -> {
+            ps.setLong(1, r.getId());
+            ps.setLong(2, r.getCompoundId());
+            ps.setLong(3, r.getProteinId());
+            ps.setObject(4, r.getScreeningRunId(), Types.BIGINT);
+            ps.setInt(5, priority);
+            ps.setObject(6, r.getExhaustiveness(), Types.INTEGER);
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifyEnqueued();
+                }
+            });
+        } else {
+            notifyEnqueued();
+        }
+    }
+
+    /**
+     * 领取最多 limit 个任务（优先级高者优先），并发节点互不阻塞
+     */
+    public List<ClaimedJob> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, i) -> new ClaimedJob(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                        (Long) rs.getObject(4), rs.getInt(5), (Integer) rs.getObject(6)),
+                nodeId, Timestamp.valueOf(now.plusNanos(leaseMs * 1_000_000L)), Timestamp.valueOf(now),
+                Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * 定期续约本节点持有的租约
+     * 只续约调度器中仍在排队或运行、以及结果尚未写入的任务；其余挂在本节点名下的租约（结果写入失败、
+     * 调度任务丢失等）不再续约，过期后由 {@link #reapExpired()} 回收
+     */
+    @Scheduled(fixedDelayString = "${docking.queue.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        Set<Long> held = new HashSet<>(dockingScheduler.getTaskIds());
+        held.addAll(dockingResultWriter.getPendingIds());
+        if (held.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int renewed = jdbcTemplate.update(RENEW_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(now.plusNanos(leaseMs * 1_000_000L)));
+            ps.setTimestamp(2, Timestamp.valueOf(now));
+            ps.setString(3, nodeId);
+            ps.setArray(4, ps.getConnection().createArrayOf("bigint", held.toArray()));
+        });
+        if (renewed > 0) {
+            log.debug("续约对接任务租约 {} 个", renewed);
+        }
+    }
+
+    /**
+     * 定期回收其他节点过期的租约
+     */
+    @Scheduled(fixedDelayString = "${docking.queue.reap-interval-ms:60000}",
+               initialDelayString = "${docking.queue.reap-interval-ms:60000}")
+    public void reapExpired() {
+        requeueExpired(false);
+    }
+
+    /**
+     * 将过期租约的任务重新入队，超过最大领取次数的记为失败
+     * @param includeOwn 是否同时回收本节点名下的租约（启动时使用：上一次运行留下的租约已无人执行）
+     * @return 重新入队的任务数
+     */
+    public int requeueExpired(boolean includeOwn) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp ts = Timestamp.valueOf(now);
+        List<Object[]> rows = jdbcTemplate.query(REQUEUE_SQL,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getObject(2), rs.getString(3)},
+                maxAttempts, ts, ts, includeOwn ? nodeId : "");
+
+        int requeued = 0;
+        for (Object[] row : rows) {
+            Long resultId = (Long) row[0];
+            Long runId = (Long) row[1];
+            if (QUEUED.equals(row[2])) {
+                jdbcTemplate.update(RESET_RESULT_SQL, ts, resultId);
+                requeued++;
+            } else {
+                jdbcTemplate.update(FAIL_RESULT_SQL, "Error: 对接任务多次中断，已放弃", ts, resultId);
+                if (runId != null) {
+                    progressTracker.onJobFinished(runId, false);
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            log.warn("回收过期的对接任务租约: 重新入队 {} 个, 放弃 {} 个", requeued, rows.size() - requeued);
+            notifyEnqueued();
+        }
+        return requeued;
+    }
+
+    /**
+     * 从 docking_jobs 读取任务的调度状态（尚未被任何节点领取、或由其他节点执行的任务）
+     * @return 调度状态，没有对应的队列任务时返回 null
+     */
+    public DockingTaskStatusDTO getStatus(Long taskId) {
+        List<DockingTaskStatusDTO> rows = jdbcTemplate.query(STATUS_SQL, (rs, i) -> {
+            DockingTaskStatusDTO dto = new DockingTaskStatusDTO();
+            dto.setTaskId(taskId);
+            dto.setPriority(rs.getInt("priority"));
+            dto.setQueueLength(rs.getInt("queued"));
+            dto.setCpuPerJob(dockingScheduler.getStats().getCpuPerJob());
+            String status = rs.getString("status");
+            if (QUEUED.equals(status)) {
+                dto.setState("QUEUED");
+                dto.setQueuePosition(rs.getInt("ahead") + 1);
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                if (createdAt != null) {
+                    dto.setWaitMillis(Duration.between(createdAt.toLocalDateTime(), LocalDateTime.now()).toMillis());
+                }
+            } else if (LEASED.equals(status)) {
+                dto.setState("RUNNING");
+                dto.setQueuePosition(0);
+            } else {
+                dto.setState("FINISHED");
+            }
+            return dto;
+        }, taskId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * 取消尚未被领取的任务
+     */
+    public boolean cancelQueued(Long taskId) {
+        return jobRepository.cancelQueued(taskId, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * 请求取消由其他节点执行中的任务
+     */
+    public boolean requestCancel(Long taskId) {
+        return jobRepository.requestCancel(taskId, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * 本节点持有且已被请求取消的任务
+     */
+    public List<Long> findCancelRequested() {
+        return jobRepository.findCancelRequested(nodeId);
+    }
+
+    /**
+     * 对接结果状态对应的队列任务状态
+     */
+    public static String jobStatusOf(String resultStatus) {
+        if ("completed".equals(resultStatus)) {
+            return DONE;
+        }
+        if (DockingJobContext.CANCELLED.equals(resultStatus)) {
+            return CANCELLED;
+        }
+        return FAILED;
+    }
+
+    private void notifyEnqueued() {
+        for (Runnable listener : enqueueListeners) {
+            listener.run();
+        }
+    }
+}
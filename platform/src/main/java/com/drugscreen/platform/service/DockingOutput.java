@@ -0,0 +1,11 @@
+package com.drugscreen.platform.service;
+
+/**
+ * 单次对接的输出
+ * @param bestAffinity 最佳结合模式的亲和力 (kcal/mol)
+ * @param modeCount 结合模式数
+ * @param logContent 日志（未保留完整日志时为结合模式表）
+ * @param posesPdbqt 全部构象（*_out.pdbqt 内容）
+ */
+public record DockingOutput(double bestAffinity, int modeCount, String logContent, String posesPdbqt) {
+}
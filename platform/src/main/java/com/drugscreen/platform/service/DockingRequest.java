@@ -0,0 +1,21 @@
+package com.drugscreen.platform.service;
+
+import java.nio.file.Path;
+
+/**
+ * 单次对接的输入
+ * @param receptorFile 受体 PDBQT
+ * @param ligandFile 配体 PDBQT
+ * @param workDir 工作目录
+ * @param outFileName 输出构象文件名（位于工作目录下）
+ * @param center 对接盒中心 (x, y, z)
+ * @param size 对接盒尺寸 (x, y, z)
+ * @param exhaustiveness 搜索彻底性
+ * @param seed 随机种子
+ * @param cpu 分配的 CPU 数
+ * @param mapsPrefix 预计算网格图前缀，为 null 时由引擎根据受体现场计算
+ */
+public record DockingRequest(Path receptorFile, Path ligandFile, Path workDir, String outFileName,
+                             double[] center, double[] size, int exhaustiveness, long seed, int cpu,
+                             Path mapsPrefix) {
+}
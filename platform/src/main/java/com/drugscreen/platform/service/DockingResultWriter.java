@@ -0,0 +1,187 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.entity.DockingResult;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对接结果写入器
+ * 批量筛选产生的结果先进入缓冲区，达到批大小或定时触发时通过 JDBC batch 一次性写入，
+ * 避免每个任务单独执行一次 save。结果与对应队列任务的完成状态在同一事务中写入，
+ * 提交后为对接成功的结果发布对接完成事件与评分输入变更事件
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DockingResultWriter {
+
+    private static final String UPDATE_SQL =
+            "UPDATE docking_results SET affinity = ?, status = ?, docked_pdbqt_content = ?, updated_at = ? WHERE id = ?";
+
+    private static final String FINISH_JOB_SQL =
+            "UPDATE docking_jobs SET status = ?, lease_owner = NULL, lease_expires_at = NULL, updated_at = ? " +
+            "WHERE docking_result_id = ?";
+
+    // 批量写入连续失败该次数后改为逐条写入，避免单条坏数据使整批永远写不进去
+    private static final int MAX_BATCH_FAILURES = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentLinkedQueue<DockingResult> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    // 已结束但尚未写入数据库的任务（含正在写入的批次），其队列租约需继续续约
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+
+    @Value("${docking.result-batch.size:100}")
+    private int batchSize;
+
+    private int batchFailures; // 只在 flush 中（持有锁）访问
+
+    /**
+     * 立即写入单个结果
+     */
+    public void write(DockingResult result) {
+        update(List.of(result));
+        publish(List.of(result));
+    }
+
+    /**
+     * 加入缓冲区，达到批大小时立即刷新
+     */
+    public void enqueue(DockingResult result) {
+        pendingIds.add(result.getId());
+        buffer.add(result);
+        if (buffered.incrementAndGet() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * 将缓冲区中的结果全部写入数据库
+     * 写入失败时结果放回缓冲区，下次刷新重试（期间租约继续续约）；连续失败多次后逐条写入，
+     * 仍失败的结果放弃，其任务租约不再续约，过期后重新执行
+     */
+    @Scheduled(fixedDelayString = "${docking.result-batch.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        List<DockingResult> batch = new ArrayList<>();
+        DockingResult result;
+        while ((result = buffer.poll()) != null) {
+            buffered.decrementAndGet();
+            batch.add(result);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            update(batch);
+        } catch (Exception e) {
+            if (++batchFailures < MAX_BATCH_FAILURES) {
+                log.error("批量写入对接结果失败，{} 条结果放回缓冲区稍后重试: {}", batch.size(), e.getMessage());
+                for (DockingResult r : batch) {
+                    buffer.add(r);
+                    buffered.incrementAndGet();
+                }
+                return;
+            }
+            log.error("批量写入对接结果连续失败 {} 次，改为逐条写入: {}", batchFailures, e.getMessage());
+            batchFailures = 0;
+            writeEach(batch);
+            return;
+        }
+        batchFailures = 0;
+        batch.forEach(r -> pendingIds.remove(r.getId()));
+        log.debug("批量写入对接结果 {} 条", batch.size());
+        publish(batch);
+    }
+
+    /**
+     * 关闭前写出缓冲区中的结果，避免已完成的任务在重启后重新执行
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 缓冲区中尚未写入的任务 ID
+     */
+    public List<Long> getPendingIds() {
+        return new ArrayList<>(pendingIds);
+    }
+
+    private void writeEach(List<DockingResult> results) {
+        for (DockingResult r : results) {
+            try {
+                update(List.of(r));
+                pendingIds.remove(r.getId());
+                publish(List.of(r));
+            } catch (Exception e) {
+                log.error("对接结果写入失败，已放弃，任务租约过期后重新执行: taskId={}, {}", r.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void update(List<DockingResult> results) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, results, batchSize, (ps, r) -> {
+                ps.setObject(1, r.getAffinity(), Types.DOUBLE);
+                ps.setString(2, r.getStatus());
+                ps.setString(3, r.getDockedPdbqtContent());
+                ps.setTimestamp(4, now);
+                ps.setLong(5, r.getId());
+            });
+            jdbcTemplate.batchUpdate(FINISH_JOB_SQL, results, batchSize, (ps, r) -> {
+                ps.setString(1, DockingJobQueue.jobStatusOf(r.getStatus()));
+                ps.setTimestamp(2, now);
+                ps.setLong(3, r.getId());
+            });
+        });
+    }
+
+    /**
+     * 写入提交后发布对接完成与评分输入变更事件；监听器失败不影响已写入的结果
+     */
+    private void publish(List<DockingResult> results) {
+        Set<Long> completed = new LinkedHashSet<>();
+        List<DockingCompletedEvent.Completed> ranked = new ArrayList<>();
+        for (DockingResult r : results) {
+            if ("completed".equals(r.getStatus())) {
+                completed.add(r.getCompoundId());
+                if (r.getAffinity() != null) {
+                    ranked.add(new DockingCompletedEvent.Completed(r.getCompoundId(), r.getProteinId(), r.getAffinity()));
+                }
+            }
+        }
+        try {
+            if (!ranked.isEmpty()) {
+                eventPublisher.publishEvent(new DockingCompletedEvent(ranked));
+            }
+            if (!completed.isEmpty()) {
+                eventPublisher.publishEvent(new ScoringInputChangedEvent(completed, ScoringInputChangedEvent.SOURCE_DOCKING));
+            }
+        } catch (Exception e) {
+            log.error("对接结果事件处理失败: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.dto.DockingSchedulerStatsDTO;
+import com.drugscreen.platform.dto.DockingTaskStatusDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * 分子对接调度器
+ * 根据检测到的 CPU 核数决定同时运行的 Vina 进程数以及每个进程的 --cpu，
+ * 任务在优先级队列中排队（优先级高者先执行，同优先级先进先出）
+ */
+@Slf4j
+@Component
+public class DockingScheduler {
+
+    /** 单个交互式提交的默认优先级 */
+    public static final int PRIORITY_INTERACTIVE = 10;
+
+    /** 批量筛选任务的默认优先级 */
+    public static final int PRIORITY_BATCH = 0;
+
+    @Value("${docking.scheduler.max-concurrent:0}")
+    private int configuredSlots; // 0 表示按核数自动计算
+
+    @Value("${docking.scheduler.cpu-per-job:0}")
+    private int configuredCpuPerJob; // 0 表示按核数自动计算
+
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final Map<Long, DockingTask> tasks = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ThreadPoolExecutor executor;
+    private int cores;
+    private int slots;
+    private int cpuPerJob;
+
+    @PostConstruct
+    public void init() {
+        cores = Runtime.getRuntime().availableProcessors();
+        cpuPerJob = configuredCpuPerJob > 0
+                ? Math.min(configuredCpuPerJob, cores)
+                : Math.max(1, Math.min(4, cores / 4));
+        slots = configuredSlots > 0 ? configuredSlots : Math.max(1, cores / cpuPerJob);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(slots, slots, 0L, TimeUnit.MILLISECONDS, queue, r -> {
+            Thread thread = new Thread(r, "Docking-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("对接调度器已启动: CPU核数={}, 并发Vina进程={}, 每进程CPU={}", cores, slots, cpuPerJob);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交对接任务
+     * @param taskId 任务ID（即 DockingResult ID）
+     * @param priority 优先级，数值越大越先执行
+     * @param job 实际执行体，参数为分配给该任务的 CPU 数
+     */
+    public void submit(Long taskId, int priority, IntConsumer job) {
+        DockingTask task = new DockingTask(taskId, priority, sequence.incrementAndGet(), job);
+        tasks.put(taskId, task);
+        executor.execute(task);
+        log.debug("对接任务已入队: taskId={}, priority={}", taskId, priority);
+    }
+
+    /**
+     * 从队列中移除尚未开始的任务
+     * @return 任务仍在排队并已移除时返回 true；已开始或不存在时返回 false
+     */
+    public boolean cancelQueued(Long taskId) {
+        DockingTask task = tasks.get(taskId);
+        if (task == null || task.startedAt != 0L || !queue.remove(task)) {
+            return false;
+        }
+        tasks.remove(taskId);
+        log.info("排队中的对接任务已取消: taskId={}", taskId);
+        return true;
+    }
+
+    /**
+     * 任务是否在本节点排队或运行
+     */
+    public boolean contains(Long taskId) {
+        return tasks.containsKey(taskId);
+    }
+
+    /**
+     * 本节点排队或运行中的全部任务 ID
+     */
+    public List<Long> getTaskIds() {
+        return new ArrayList<>(tasks.keySet());
+    }
+
+    /**
+     * 同时运行的任务数
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    /**
+     * 本节点已接收但尚未结束的任务数（排队 + 运行）
+     */
+    public int getBacklog() {
+        return tasks.size();
+    }
+
+    /**
+     * 更新运行中任务的进度（0-1）
+     */
+    public void updateProgress(Long taskId, double fraction) {
+        DockingTask task = tasks.get(taskId);
+        if (task != null) {
+            task.progress = fraction;
+        }
+    }
+
+    /**
+     * 查询任务的排队位置与等待时间，任务已结束或不存在时返回 null
+     */
+    public DockingTaskStatusDTO getStatus(Long taskId) {
+        DockingTask task = tasks.get(taskId);
+        if (task == null) {
+            return null;
+        }
+
+        DockingTaskStatusDTO dto = new DockingTaskStatusDTO();
+        dto.setTaskId(taskId);
+        dto.setPriority(task.priority);
+        dto.setCpuPerJob(cpuPerJob);
+        dto.setQueueLength(queue.size());
+
+        long startedAt = task.startedAt;
+        if (startedAt == 0L) {
+            dto.setState("QUEUED");
+            dto.setQueuePosition(queuePosition(task));
+            dto.setWaitMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - task.enqueuedAt));
+        } else {
+            dto.setState("RUNNING");
+            dto.setQueuePosition(0);
+            dto.setProgress(task.progress);
+            dto.setWaitMillis(TimeUnit.NANOSECONDS.toMillis(startedAt - task.enqueuedAt));
+        }
+        return dto;
+    }
+
+    /**
+     * 调度器整体状态
+     */
+    public DockingSchedulerStatsDTO getStats() {
+        DockingSchedulerStatsDTO dto = new DockingSchedulerStatsDTO();
+        dto.setCores(cores);
+        dto.setSlots(slots);
+        dto.setCpuPerJob(cpuPerJob);
+        dto.setRunning(executor.getActiveCount());
+        dto.setQueued(queue.size());
+        dto.setCompleted(executor.getCompletedTaskCount());
+        return dto;
+    }
+
+    /**
+     * 排在该任务之前的任务数 + 1（PriorityBlockingQueue 的迭代顺序不保证有序，故逐个比较）
+     */
+    private int queuePosition(DockingTask task) {
+        int ahead = 0;
+        for (Runnable r : queue) {
+            if (r != task && ((DockingTask) r).compareTo(task) < 0) {
+                ahead++;
+            }
+        }
+        return ahead + 1;
+    }
+
+    /**
+     * 队列中的对接任务
+     */
+    private final class DockingTask implements Runnable, Comparable<DockingTask> {
+
+        private final Long taskId;
+        private final int priority;
+        private final long seq;
+        private final IntConsumer job;
+        private final long enqueuedAt = System.nanoTime();
+        private volatile long startedAt;
+        private volatile double progress;
+
+        private DockingTask(Long taskId, int priority, long seq, IntConsumer job) {
+            this.taskId = taskId;
+            this.priority = priority;
+            this.seq = seq;
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            startedAt = System.nanoTime();
+            log.info("对接任务开始执行: taskId={}, 排队等待 {} ms", taskId,
+                    TimeUnit.NANOSECONDS.toMillis(startedAt - enqueuedAt));
+            try {
+                job.accept(cpuPerJob);
+            } catch (Exception e) {
+                log.error("对接任务异常: taskId={}, {}", taskId, e.getMessage(), e);
+            } finally {
+                tasks.remove(taskId);
+            }
+        }
+
+        @Override
+        public int compareTo(DockingTask other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -1,20 +1,36 @@
 package com.drugscreen.platform.service;
 
+import com.drugscreen.platform.dto.DockedPoseDTO;
+import com.drugscreen.platform.dto.DockingEventDTO;
+import com.drugscreen.platform.dto.DockingCacheStatsDTO;
+import com.drugscreen.platform.dto.DockingSchedulerStatsDTO;
+import com.drugscreen.platform.dto.DockingTaskStatusDTO;
 import com.drugscreen.platform.entity.Compound;
+import com.drugscreen.platform.entity.DockingCacheEntry;
 import com.drugscreen.platform.entity.DockingResult;
 import com.drugscreen.platform.repository.CompoundRepository;
 import com.drugscreen.platform.repository.DockingResultRepository;
+import com.drugscreen.platform.repository.ScreeningRunRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @Slf4j
@@ -23,227 +39,391 @@ public class DockingService {
 
     private final DockingResultRepository dockingResultRepository;
     private final CompoundRepository compoundRepository;
+    private final DockingScheduler dockingScheduler;
+    private final DockingResultWriter dockingResultWriter;
+    private final ScreeningProgressTracker progressTracker;
+    private final DockingCacheService dockingCacheService;
+    private final DockedPoseService dockedPoseService;
+    private final DockingEngine dockingEngine;
+    private final ReceptorPreparationService receptorPreparationService;
+    private final ReceptorFileCache receptorFileCache;
+    private final ProteinService proteinService;
+    private final DockingEventHub dockingEventHub;
+    private final DockingWatchdog dockingWatchdog;
+    private final DockingJobQueue dockingJobQueue;
+    private final ScreeningRunRepository screeningRunRepository;
+    private final DockingWorkspaceService dockingWorkspaceService;
+    private final LigandContentStore ligandContentStore;
 
-    @Value("${vina.path:D:\\tool\\vina\\vina.exe}")
-    private String vinaPath;
+    private final TransactionTemplate transactionTemplate;
+
+    /** 默认（及漏斗复筛）穷举度 */
+    static final int EXHAUSTIVENESS = 16;
+
+    // 工作目录中的输出构象文件名
+    private static final String OUT_FILE_NAME = "out.pdbqt";
+
+    // 本节点上按输入指纹合并并发提交
+    private final SingleFlight<String, Submission> submitFlight = new SingleFlight<>();
+
+    @Value("${docking.vina.seed:42}")
+    private long seed; // 固定随机种子，保证相同输入得到相同结果，缓存才有意义
 
     /**
-     * 执行分子对接
+     * 提交分子对接任务
+     * 相同输入（引擎、化合物、受体及其版本、对接参数）已有排队或运行中的任务时不再新建，直接返回该任务；
+     * 本节点上同一输入的并发提交只有一个进入数据库检查与插入，其余等待并加入其结果。
+     * 新任务在一个事务内创建 PENDING 状态的对接记录和持久化队列任务，由 {@link DockingJobDispatcher} 领取执行
      * @param compoundId 化合物ID
+     * @param proteinId 受体蛋白ID，为 null 时使用默认受体
+     * @param priority 优先级，数值越大越先执行
+     * @return 任务调度状态
      */
-    @Async("asyncExecutor")
-    public void executeDocking(Long compoundId) {
-        log.info("开始执行分子对接，化合物ID: {}", compoundId);
+    public DockingTaskStatusDTO submitDocking(Long compoundId, Long proteinId, int priority) {
+        if (!compoundRepository.existsById(compoundId)) {
+            throw new RuntimeException("化合物不存在: " + compoundId);
+        }
+        Long targetId = proteinId != null ? proteinId : proteinService.getDefaultProteinId();
+        // 提前校验受体，并让本节点写出受体文件
+        ReceptorFileCache.ReceptorTarget target = receptorFileCache.resolve(targetId);
+        String fingerprint = fingerprint(compoundId, target, EXHAUSTIVENESS);
+
+        // 只有实际执行了检查与插入的调用者才可能新建任务，其余调用者加入其结果
+        AtomicBoolean leader = new AtomicBoolean();
+        Submission submission = submitFlight.execute(fingerprint, () -> {
+            leader.set(true);
+            // 事务在合并窗口内提交，窗口关闭后到达的调用者一定能查到新记录
+            return transactionTemplate.execute(tx -> submitOrAttach(compoundId, targetId, fingerprint, priority));
+        });
 
-        // 获取化合物信息
-        Compound compound = compoundRepository.findById(compoundId)
-                .orElseThrow(() -> new RuntimeException("化合物不存在: " + compoundId));
+        if (leader.get() && submission.created()) {
+            // 事务已提交，任务可能仍在 docking_jobs 中排队，也可能已被本节点或其他节点领取
+            DockingTaskStatusDTO status = getTaskStatus(submission.taskId());
+            if (status == null) {
+                status = new DockingTaskStatusDTO();
+                status.setTaskId(submission.taskId());
+                status.setState("QUEUED");
+                status.setPriority(priority);
+                status.setCpuPerJob(dockingScheduler.getStats().getCpuPerJob());
+            }
+            status.setDeduplicated(false);
+            return status;
+        }
+        log.info("相同输入的对接任务正在进行，合并提交: compoundId={}, proteinId={}, taskId={}",
+                compoundId, targetId, submission.taskId());
+        return attachedStatus(submission.taskId());
+    }
+
+    /**
+     * 提交结果：任务 ID 及是否为新建任务
+     */
+    private record Submission(Long taskId, boolean created) {
+    }
+
+    private Submission submitOrAttach(Long compoundId, Long proteinId, String fingerprint, int priority) {
+        List<Long> inFlight = dockingResultRepository.findInFlightIds(fingerprint, PageRequest.of(0, 1));
+        if (!inFlight.isEmpty()) {
+            return new Submission(inFlight.get(0), false);
+        }
 
         // 创建对接结果记录
         DockingResult result = new DockingResult();
         result.setCompoundId(compoundId);
+        result.setProteinId(proteinId);
+        result.setFingerprint(fingerprint);
+        result.setExhaustiveness(EXHAUSTIVENESS);
         result.setStatus("PENDING");
         result = dockingResultRepository.save(result);
 
+        dockingJobQueue.enqueue(List.of(result), priority);
+
+        dockingEventHub.publish(result.getId(), null, compoundId, proteinId, "queued", null, null, null);
+        return new Submission(result.getId(), true);
+    }
+
+    /**
+     * 被合并到的进行中任务的状态：优先取调度状态，没有队列任务时按对接结果状态返回
+     */
+    private DockingTaskStatusDTO attachedStatus(Long taskId) {
+        DockingTaskStatusDTO status = getTaskStatus(taskId);
+        if (status == null) {
+            status = new DockingTaskStatusDTO();
+            status.setTaskId(taskId);
+            String state = dockingResultRepository.findStatusById(taskId)
+                    .map(DockingResultRepository.DockingResultStatus::getStatus)
+                    .orElse("PENDING");
+            status.setState("running".equals(state) ? "RUNNING" : "PENDING".equals(state) ? "QUEUED" : "FINISHED");
+            status.setCpuPerJob(dockingScheduler.getStats().getCpuPerJob());
+        }
+        status.setDeduplicated(true);
+        return status;
+    }
+
+    /**
+     * 对接输入指纹：引擎名称与版本、化合物、受体及其版本、穷举度与随机种子的 SHA-256
+     */
+    private String fingerprint(Long compoundId, ReceptorFileCache.ReceptorTarget target, int exhaustiveness) {
         try {
-            // 校验文件
-            validateFiles(compound.getEnglishName());
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String input = dockingEngine.getName() + ":" + dockingEngine.getVersion()
+                    + "|" + compoundId + "|" + target.proteinId() + "|" + target.version()
+                    + "|" + exhaustiveness + "|" + seed;
+            return HexFormat.of().formatHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("无法计算对接输入指纹", e);
+        }
+    }
+
+    /**
+     * 批量提交对接任务（虚拟筛选批次分发时使用）
+     * 一个事务内创建整块 PENDING 记录与队列任务（化合物 × 受体），并记录批次分发进度，
+     * 重启后从该进度继续分发而不会重复；结果通过 {@link DockingResultWriter} 批量写回
+     * @param compoundIds 化合物ID列表（须已确认存在）
+     * @param proteinIds 受体蛋白ID列表
+     * @param screeningRunId 筛选批次ID
+     * @param priority 优先级
+     * @param dispatchCursor 本块分发后的批次分发进度
+     * @param stage 漏斗筛选阶段，非漏斗批次为 null
+     * @param exhaustiveness Vina 穷举度
+     * @return 提交的任务数
+     */
+    @Transactional
+    public int submitBatch(List<Long> compoundIds, List<Long> proteinIds, Long screeningRunId, int priority,
+                           Long dispatchCursor, Integer stage, int exhaustiveness) {
+        List<DockingResult> pending = new ArrayList<>(compoundIds.size() * proteinIds.size());
+        for (Long proteinId : proteinIds) {
+            ReceptorFileCache.ReceptorTarget target = receptorFileCache.resolve(proteinId);
+            for (Long compoundId : compoundIds) {
+                DockingResult result = new DockingResult();
+                result.setCompoundId(compoundId);
+                result.setProteinId(proteinId);
+                // 批次内不合并，但记录指纹，交互式提交可以加入批次中的同一任务
+                result.setFingerprint(fingerprint(compoundId, target, exhaustiveness));
+                result.setStage(stage);
+                result.setExhaustiveness(exhaustiveness);
+                result.setScreeningRunId(screeningRunId);
+                result.setStatus("PENDING");
+                pending.add(result);
+            }
+        }
+        pending = dockingResultRepository.saveAll(pending);
+        dockingJobQueue.enqueue(pending, priority);
+        screeningRunRepository.updateDispatchCursor(screeningRunId, dispatchCursor);
+        return pending.size();
+    }
+
+    /**
+     * 执行分子对接（在对接调度器线程中运行）
+     * @param taskId 对接结果ID
+     * @param compoundId 化合物ID
+     * @param proteinId 受体蛋白ID
+     * @param screeningRunId 筛选批次ID，单独提交时为 null
+     * @param exhaustiveness Vina 穷举度，为 null 时使用默认值
+     * @param cpu 分配给 Vina 的 CPU 数
+     */
+    public void executeDocking(Long taskId, Long compoundId, Long proteinId, Long screeningRunId,
+                               Integer exhaustiveness, int cpu) {
+        int effort = exhaustiveness != null ? exhaustiveness : EXHAUSTIVENESS;
+        log.info("开始执行分子对接，任务ID: {}, 化合物ID: {}, 受体ID: {}", taskId, compoundId, proteinId);
+        dockingResultRepository.updateStatus(taskId, "running");
+        dockingEventHub.publish(taskId, screeningRunId, compoundId, proteinId, "running", 0.0, null, null);
+
+        DockingResult result = new DockingResult();
+        result.setId(taskId);
+        result.setCompoundId(compoundId);
+        result.setProteinId(proteinId);
+        result.setScreeningRunId(screeningRunId);
+
+        // 登记到看门狗，超时或取消时结束对接进程
+        DockingJobContext context = dockingWatchdog.start(taskId, fraction -> {
+            dockingScheduler.updateProgress(taskId, fraction);
+            dockingEventHub.publishProgress(taskId, fraction);
+        });
+
+        // 每个任务在独立的临时目录中运行，结束后连同输出一起删除
+        try (DockingWorkspaceService.Workspace workspace = dockingWorkspaceService.open(taskId)) {
+            // 获取化合物信息
+            Compound compound = compoundRepository.findById(compoundId)
+                    .orElseThrow(() -> new RuntimeException("化合物不存在: " + compoundId));
+
+            // 受体文件与对接盒（本节点本地缓存，只读共享）
+            ReceptorFileCache.ReceptorTarget target = receptorFileCache.resolve(proteinId);
+            File receptorFile = target.receptorFile();
+
+            // 配体写入工作目录
+            File ligandFile = ligandContentStore.materialize(compound, workspace.dir()).toFile();
+
+            // 相同输入命中缓存时直接返回已有结果；引擎版本未知时不读写缓存，避免不同版本的结果混用
+            String engineVersion = dockingEngine.getVersion();
+            String cacheKey = null;
+            if (DockingEngine.UNKNOWN_VERSION.equals(engineVersion)) {
+                log.warn("无法确定对接引擎版本，本次对接不使用对接缓存: taskId={}", taskId);
+            } else {
+                cacheKey = dockingCacheService.computeKey(dockingEngine.getName() + ":" + engineVersion,
+                        receptorFile, ligandFile, target.center(), target.size(), effort, seed);
+            }
+            DockingCacheEntry cached = cacheKey != null ? dockingCacheService.lookup(cacheKey) : null;
+
+            if (cached != null) {
+                result.setDockedPdbqtContent(cached.getLogContent());
+                result.setAffinity(cached.getAffinity());
+                dockedPoseService.savePoses(taskId, cached.getPosesPdbqt());
+            } else {
+                // 调用对接引擎执行对接，受体网格图按受体与对接盒只计算一次
+                Path mapsPrefix = receptorPreparationService.getMapsPrefix(receptorFile, target.center(), target.size());
+                DockingRequest request = new DockingRequest(receptorFile.toPath(), ligandFile.toPath(),
+                        workspace.dir(), OUT_FILE_NAME,
+                        target.center(), target.size(), effort, seed, cpu, mapsPrefix);
+                // 构象读入内存后随结果一起写库，输出文件随工作目录删除
+                DockingOutput output = dockingEngine.dock(request, context);
+                result.setDockedPdbqtContent(output.logContent());
 
-            // 调用Vina执行对接
-            String logContent = runVina(compound.getEnglishName());
-            result.setDockedPdbqtContent(logContent);
+                // 对接结果（第一个结合模式即最佳）
+                Double affinity = output.bestAffinity();
+                result.setAffinity(affinity);
 
-            // 提取对接结果
-            Double affinity = extractAffinity(logContent);
-            result.setAffinity(affinity);
+                if (cacheKey != null) {
+                    dockingCacheService.store(cacheKey, affinity, output.logContent(), output.posesPdbqt());
+                }
+                dockedPoseService.savePoses(taskId, output.posesPdbqt());
+            }
             result.setStatus("completed");
 
         } catch (Exception e) {
-            log.error("分子对接失败: {}", e.getMessage(), e);
-            result.setStatus("failed");
-            result.setDockedPdbqtContent("Error: " + e.getMessage());
+            String reason = context.getTerminationReason();
+            if (reason != null) {
+                // 被看门狗或取消接口终止
+                log.warn("分子对接被终止: taskId={}, 原因={}, 已运行 {} ms", taskId, reason, context.getElapsedMillis());
+                result.setStatus(reason);
+                result.setDockedPdbqtContent(DockingJobContext.TIMEOUT.equals(reason)
+                        ? "Error: 对接超时，已终止" : "Error: 对接已取消");
+            } else {
+                log.error("分子对接失败: {}", e.getMessage(), e);
+                result.setStatus("failed");
+                result.setDockedPdbqtContent("Error: " + e.getMessage());
+            }
         } finally {
-            // 保存结果到数据库
-            dockingResultRepository.save(result);
+            dockingWatchdog.finish(taskId);
+            // 保存结果到数据库，批量筛选的结果走批量写入
+            if (screeningRunId != null) {
+                dockingResultWriter.enqueue(result);
+                progressTracker.onJobFinished(screeningRunId, "completed".equals(result.getStatus()));
+            } else {
+                dockingResultWriter.write(result);
+            }
+            boolean success = "completed".equals(result.getStatus());
+            dockingEventHub.publish(taskId, screeningRunId, compoundId, proteinId, result.getStatus(),
+                    success ? 1.0 : null, result.getAffinity(), success ? null : result.getDockedPdbqtContent());
         }
 
         log.info("分子对接完成，结果ID: {}", result.getId());
     }
 
     /**
-     * 校验文件
+     * 取消对接任务
+     * 排队中（数据库队列或本节点调度队列）的任务直接移出并记为 cancelled；
+     * 本节点运行中的任务结束其进程树，由对接线程记录 cancelled；
+     * 由其他工作节点持有的任务记录取消请求，由该节点在下次检查时终止
+     * @return 是否取消成功（任务已结束时返回 false）
      */
-    private void validateFiles(String englishName) throws Exception {
-        log.info("校验化合物 {} 的文件", englishName);
-        
-        // 获取项目根目录（platform 的父目录）
-        File currentDir = new File(System.getProperty("user.dir"));
-        File dockingDir;
-        
-        // 如果当前目录是 platform，则使用父目录的 docking
-        if (currentDir.getName().equals("platform")) {
-            dockingDir = new File(currentDir.getParentFile(), "docking");
-        } else {
-            dockingDir = new File(currentDir, "docking");
-        }
-        
-        log.info("Docking 目录路径: {}", dockingDir.getAbsolutePath());
-        
-        // 检查1e9h.pdbqt文件是否存在
-        File receptorFile = new File(dockingDir, "1e9h.pdbqt");
-        if (!receptorFile.exists()) {
-            throw new Exception("受体文件不存在: " + receptorFile.getAbsolutePath());
+    public boolean cancel(Long taskId) {
+        if (cancelLocal(taskId)) {
+            return true;
         }
-        log.info("受体文件存在: {}", receptorFile.getAbsolutePath());
-        
-        // 检查配体文件是否存在
-        File ligandFile = new File(dockingDir, englishName + ".pdbqt");
-        if (!ligandFile.exists()) {
-            throw new Exception("配体文件不存在: " + ligandFile.getAbsolutePath());
+        if (dockingJobQueue.requestCancel(taskId)) {
+            log.info("已向持有任务的节点发送取消请求: taskId={}", taskId);
+            return true;
         }
-        log.info("配体文件存在: {}", ligandFile.getAbsolutePath());
+        return false;
     }
 
     /**
-     * 运行Vina执行对接
+     * 在本节点取消任务（数据库队列中未领取的、本节点调度队列中或正在运行的）
+     * @return 是否取消成功
      */
-    private String runVina(String englishName) throws Exception {
-        log.info("调用Vina执行对接，路径: {}", vinaPath);
+    public boolean cancelLocal(Long taskId) {
+        if (dockingWatchdog.terminate(taskId, DockingJobContext.CANCELLED)) {
+            log.info("已终止运行中的对接任务: taskId={}", taskId);
+            return true;
+        }
+        if (!dockingJobQueue.cancelQueued(taskId) && !dockingScheduler.cancelQueued(taskId)) {
+            return false;
+        }
 
-        // 检查Vina路径是否存在
-        File vinaFile = new File(vinaPath);
-        if (!vinaFile.exists()) {
-            throw new Exception("Vina可执行文件不存在: " + vinaPath);
+        DockingResultRepository.DockingResultStatus status = dockingResultRepository.findStatusById(taskId)
+                .orElseThrow(() -> new RuntimeException("任务不存在: " + taskId));
+        DockingResult result = new DockingResult();
+        result.setId(taskId);
+        result.setCompoundId(status.getCompoundId());
+        result.setProteinId(status.getProteinId());
+        result.setScreeningRunId(status.getScreeningRunId());
+        result.setStatus(DockingJobContext.CANCELLED);
+        result.setDockedPdbqtContent("Error: 对接已取消");
+        dockingResultWriter.write(result);
+        if (status.getScreeningRunId() != null) {
+            progressTracker.onJobFinished(status.getScreeningRunId(), false);
         }
-        log.info("Vina可执行文件存在: {}", vinaFile.getAbsolutePath());
+        dockingEventHub.publish(taskId, status.getScreeningRunId(), status.getCompoundId(), status.getProteinId(),
+                DockingJobContext.CANCELLED, null, null, result.getDockedPdbqtContent());
+        return true;
+    }
 
+    /**
+     * 获取 docking 目录（项目根目录下的 docking）
+     */
+    static File resolveDockingDir() {
         // 获取项目根目录（platform 的父目录）
         File currentDir = new File(System.getProperty("user.dir"));
-        File dockingDir;
-        
+
         // 如果当前目录是 platform，则使用父目录的 docking
         if (currentDir.getName().equals("platform")) {
-            dockingDir = new File(currentDir.getParentFile(), "docking");
-        } else {
-            dockingDir = new File(currentDir, "docking");
-        }
-        
-        log.info("Docking目录路径: {}", dockingDir.getAbsolutePath());
-        if (!dockingDir.exists()) {
-            boolean created = dockingDir.mkdirs();
-            log.info("创建docking目录: {}", created);
-            if (!created) {
-                throw new Exception("无法创建docking目录");
-            }
-        }
-        log.info("Docking目录存在: {}", dockingDir.exists());
-        
-        // 确保目录路径格式正确
-        if (!dockingDir.isDirectory()) {
-            throw new Exception("docking路径不是有效的目录: " + dockingDir.getAbsolutePath());
+            return new File(currentDir.getParentFile(), "docking");
         }
+        return new File(currentDir, "docking");
+    }
 
-        // 构建Vina命令
-        ProcessBuilder pb = new ProcessBuilder(
-                vinaPath,
-                "--receptor", "1e9h.pdbqt",
-                "--ligand", englishName + ".pdbqt",
-                "--out", englishName + "_out.pdbqt",
-                // 1e9h蛋白质的活性位点坐标（准确值）
-                "--center_x", "11.114",
-                "--center_y", "27.215",
-                "--center_z", "90.265",
-                // 网格大小，确保覆盖整个活性位点区域
-                "--size_x", "49",
-                "--size_y", "77",
-                "--size_z", "23",
-                // 增加搜索彻底性以获得更好的结果
-                "--exhaustiveness", "16"
-        );
-
-        // 使用绝对路径作为工作目录
-        pb.directory(dockingDir);
-        pb.redirectErrorStream(true);
-        log.info("开始执行Vina命令，工作目录: {}", dockingDir.getAbsolutePath());
-        log.info("Vina可执行文件路径: {}", vinaPath);
-
-        Process process = pb.start();
-        StringBuilder logContent = new StringBuilder();
-
-        // 读取合并后的输出流（标准输出和标准错误）
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                logContent.append(line).append("\n");
-                log.info("Vina输出: {}", line);
-            }
+    /**
+     * 订阅任务状态事件
+     * 内存中没有该任务的事件时（如批量任务尚未开始或已过保留期），从数据库读取一次当前状态
+     */
+    public SseEmitter subscribe(Long taskId) {
+        DockingEventDTO current = null;
+        if (!dockingEventHub.hasEvents(taskId)) {
+            DockingResultRepository.DockingResultStatus status = dockingResultRepository.findStatusById(taskId)
+                    .orElseThrow(() -> new RuntimeException("任务不存在: " + taskId));
+            current = new DockingEventDTO();
+            current.setTaskId(taskId);
+            current.setScreeningRunId(status.getScreeningRunId());
+            current.setCompoundId(status.getCompoundId());
+            current.setProteinId(status.getProteinId());
+            current.setState("PENDING".equals(status.getStatus()) ? "queued" : status.getStatus());
+            current.setAffinity(status.getAffinity());
+            current.setTimestamp(System.currentTimeMillis());
         }
+        return dockingEventHub.subscribeTask(taskId, current);
+    }
 
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            String errorMessage = "Vina执行失败，退出码: " + exitCode + "\n" + 
-                                "输出日志: " + logContent;
-            log.error(errorMessage);
-            throw new Exception(errorMessage);
-        }
-        
-        log.info("Vina执行成功，退出码: {}", exitCode);
+    /**
+     * 查询任务的调度状态（排队位置、等待时间）
+     * 本节点调度器中的任务取内存状态，其余（尚未领取或由其他节点执行）从 docking_jobs 读取，都没有时返回 null
+     */
+    public DockingTaskStatusDTO getTaskStatus(Long taskId) {
+        DockingTaskStatusDTO status = dockingScheduler.getStatus(taskId);
+        return status != null ? status : dockingJobQueue.getStatus(taskId);
+    }
 
-        return logContent.toString();
+    /**
+     * 查询对接结果缓存统计
+     */
+    public DockingCacheStatsDTO getCacheStats() {
+        return dockingCacheService.getStats();
     }
 
     /**
-     * 从日志中提取亲和力值
+     * 查询调度器整体状态
      */
-    private Double extractAffinity(String logContent) {
-        log.info("从日志中提取亲和力值");
-        log.info("Vina日志内容: {}", logContent);
-        
-        // 从Vina日志中提取亲和力值
-        String[] lines = logContent.split("\\n");
-        
-        // 标志：是否已经找到亲和力表格的开始
-        boolean foundTable = false;
-        
-        for (String line : lines) {
-            // 检查是否找到亲和力表格的开始
-            if (line.contains("mode |   affinity | dist from best mode")) {
-                foundTable = true;
-                log.info("找到亲和力表格开始");
-                continue;
-            }
-            
-            // 如果已经找到表格，检查数据行
-            if (foundTable && line.trim().length() > 0) {
-                // 跳过分隔线和标题行
-                if (line.contains("-----+") || line.contains("(kcal/mol)") || line.contains("mode |")) {
-                    continue;
-                }
-                
-                try {
-                    // 分割行，提取亲和力值
-                    String[] parts = line.trim().split("\\s+");
-                    if (parts.length >= 2) {
-                        // 第二列是亲和力值
-                        try {
-                            double affinity = Double.parseDouble(parts[1]);
-                            // 亲和力值应该是负数（kcal/mol），且绝对值通常小于15
-                            if (affinity < 0 && Math.abs(affinity) < 15) {
-                                log.info("提取到亲和力值 (表格格式): {}", affinity);
-                                return affinity;
-                            }
-                        } catch (NumberFormatException e) {
-                            // 跳过非数字部分
-                        }
-                    }
-                } catch (Exception e) {
-                    log.warn("解析亲和力值失败: {}", e.getMessage());
-                }
-            }
-        }
-        
-        // 如果没有找到亲和力值，抛出异常
-        throw new RuntimeException("无法从Vina日志中提取亲和力值");
+    public DockingSchedulerStatsDTO getSchedulerStats() {
+        return dockingScheduler.getStats();
     }
 
     /**
@@ -253,6 +433,20 @@ public class DockingService {
         return dockingResultRepository.findById(id).orElse(null);
     }
 
+    /**
+     * 查询对接结果的全部构象摘要
+     */
+    public List<DockedPoseDTO> getPoses(Long taskId) {
+        return dockedPoseService.getPoseSummaries(taskId);
+    }
+
+    /**
+     * 按序号查询单个构象
+     */
+    public DockedPoseDTO getPose(Long taskId, int modeIndex) {
+        return dockedPoseService.getPose(taskId, modeIndex);
+    }
+
     /**
      * 根据化合物ID查询最新的对接结果
      */
@@ -0,0 +1,96 @@
+package com.drugscreen.platform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 对接进程看门狗
+ * 跟踪所有运行中的对接任务，超过墙钟时间或 CPU 时间上限时结束整个进程树，
+ * 对接线程随之返回，调度器槽位被释放，个别异常配体不会拖住整个筛选批次
+ */
+@Slf4j
+@Component
+public class DockingWatchdog {
+
+    @Value("${docking.watchdog.wall-timeout-ms:1800000}")
+    private long wallTimeoutMs; // 墙钟时间上限，0 表示不限制
+
+    @Value("${docking.watchdog.cpu-timeout-ms:7200000}")
+    private long cpuTimeoutMs; // 进程树累计 CPU 时间上限，0 表示不限制
+
+    private final Map<Long, DockingJobContext> running = new ConcurrentHashMap<>();
+
+    /**
+     * 任务开始执行时登记
+     */
+    public DockingJobContext start(Long taskId, VinaOutputParser.ProgressListener listener) {
+        DockingJobContext context = new DockingJobContext(taskId, listener);
+        running.put(taskId, context);
+        return context;
+    }
+
+    /**
+     * 任务结束时注销
+     */
+    public void finish(Long taskId) {
+        running.remove(taskId);
+    }
+
+    /**
+     * 终止运行中的任务
+     * @return 任务正在运行并已发出终止时返回 true
+     */
+    public boolean terminate(Long taskId, String reason) {
+        DockingJobContext context = running.get(taskId);
+        if (context == null) {
+            return false;
+        }
+        context.terminate(reason);
+        return true;
+    }
+
+    /**
+     * 定期检查超时任务
+     */
+    @Scheduled(fixedDelayString = "${docking.watchdog.interval-ms:2000}")
+    public void check() {
+        for (DockingJobContext context : running.values()) {
+            if (context.getTerminationReason() != null) {
+                continue;
+            }
+            long elapsed = context.getElapsedMillis();
+            if (wallTimeoutMs > 0 && elapsed > wallTimeoutMs) {
+                log.warn("对接任务超过墙钟时间上限: taskId={}, 已运行 {} ms", context.getTaskId(), elapsed);
+                context.terminate(DockingJobContext.TIMEOUT);
+                continue;
+            }
+            if (cpuTimeoutMs > 0) {
+                long cpu = cpuMillis(context.getProcess());
+                if (cpu > cpuTimeoutMs) {
+                    log.warn("对接任务超过CPU时间上限: taskId={}, CPU {} ms", context.getTaskId(), cpu);
+                    context.terminate(DockingJobContext.TIMEOUT);
+                }
+            }
+        }
+    }
+
+    /**
+     * 进程及其子进程累计 CPU 时间，无法获取时返回 0
+     */
+    static long cpuMillis(Process process) {
+        if (process == null) {
+            return 0L;
+        }
+        long total = process.info().totalCpuDuration().map(Duration::toMillis).orElse(0L);
+        total += process.descendants()
+                .mapToLong(h -> h.info().totalCpuDuration().map(Duration::toMillis).orElse(0L))
+                .sum();
+        return total;
+    }
+}
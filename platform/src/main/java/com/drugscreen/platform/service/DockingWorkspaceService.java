@@ -0,0 +1,119 @@
+package com.drugscreen.platform.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * 对接任务临时工作目录
+ * 每个对接任务在独立目录中运行（配体输入与 Vina 输出都在其中），任务结束后整个目录删除，
+ * 并发任务之间不会互相覆盖，共享的 docking 目录也不再堆积输出文件。
+ * 未配置目录时优先使用 tmpfs（/dev/shm），不可用时使用系统临时目录
+ */
+@Slf4j
+@Service
+public class DockingWorkspaceService {
+
+    private static final String JOB_DIR_PREFIX = "job-";
+    private static final Path TMPFS = Paths.get("/dev/shm");
+
+    @Value("${docking.scratch.dir:}")
+    private String configuredDir; // 为空时自动选择
+
+    @Value("${docking.scratch.prefer-tmpfs:true}")
+    private boolean preferTmpfs;
+
+    @Value("${docking.scratch.stale-ms:86400000}")
+    private long staleMs; // 启动时清理超过该时长的残留目录（进程崩溃时未能删除）
+
+    private Path baseDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (configuredDir != null && !configuredDir.isBlank()) {
+            baseDir = Paths.get(configuredDir);
+        } else if (preferTmpfs && Files.isDirectory(TMPFS) && Files.isWritable(TMPFS)) {
+            baseDir = TMPFS.resolve("drugscreen-docking");
+        } else {
+            baseDir = Paths.get(System.getProperty("java.io.tmpdir"), "drugscreen", "scratch");
+        }
+        Files.createDirectories(baseDir);
+        int removed = cleanStale();
+        log.info("对接临时工作目录: {}, 清理残留目录 {} 个", baseDir, removed);
+    }
+
+    /**
+     * 为任务创建独立的工作目录
+     */
+    public Workspace open(Long taskId) throws IOException {
+        return new Workspace(Files.createTempDirectory(baseDir, JOB_DIR_PREFIX + taskId + "-"));
+    }
+
+    public Path getBaseDir() {
+        return baseDir;
+    }
+
+    /**
+     * 删除上次运行残留的过期任务目录；同机其他实例正在使用的目录未过期，不受影响
+     */
+    private int cleanStale() {
+        long cutoff = System.currentTimeMillis() - staleMs;
+        int removed = 0;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(baseDir, JOB_DIR_PREFIX + "*")) {
+            for (Path dir : dirs) {
+                if (Files.getLastModifiedTime(dir).toMillis() < cutoff) {
+                    deleteRecursively(dir);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理残留对接目录失败: {}", e.getMessage());
+        }
+        return removed;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(path)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    /**
+     * 单个任务的工作目录，关闭时连同其中的文件一起删除
+     */
+    public static final class Workspace implements AutoCloseable {
+
+        private final Path dir;
+
+        private Workspace(Path dir) {
+            this.dir = dir;
+        }
+
+        public Path dir() {
+            return dir;
+        }
+
+        @Override
+        public void close() {
+            try {
+                deleteRecursively(dir);
+            } catch (IOException e) {
+                log.warn("删除对接工作目录失败: {}, {}", dir, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.dto.ScoringBatchResultDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 增量重新评分
+ * 收集 {@link ScoringInputChangedEvent} 中的化合物ID（同一化合物多次变更只记一次），
+ * 事件停止到达 debounce-ms 后、或最早的变更已等待 max-delay-ms、或待评分数达到 max-batch 时，
+ * 只对这些化合物执行一次批量评分。同一时间只运行一轮评分，运行期间到达的变更留到下一轮
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IncrementalRescorer {
+
+    private final ScoringService scoringService;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong firstEventAt = new AtomicLong();
+    private final AtomicLong lastEventAt = new AtomicLong();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService executor;
+
+    @Value("${scoring.rescore.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scoring.rescore.debounce-ms:3000}")
+    private long debounceMs; // 最后一次变更后的静默时间
+
+    @Value("${scoring.rescore.max-delay-ms:30000}")
+    private long maxDelayMs; // 变更持续到达时，最早的变更最多等待的时间
+
+    @Value("${scoring.rescore.max-batch:5000}")
+    private int maxBatch; // 一轮最多评分的化合物数，达到时不再等待
+
+    @PostConstruct
+    public void init() {
+        // 评分在单独的线程中进行，不占用定时任务线程
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Rescore");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener
+    public void onInputChanged(ScoringInputChangedEvent event) {
+        if (!enabled || event.compoundIds() == null || event.compoundIds().isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (pending.isEmpty()) {
+            firstEventAt.set(now);
+        }
+        pending.addAll(event.compoundIds());
+        lastEventAt.set(now);
+        log.debug("评分输入变更: 来源={}, 化合物 {} 个, 待评分 {} 个", event.source(), event.compoundIds().size(), pending.size());
+    }
+
+    /**
+     * 检查是否到了评分时机，到了则取出待评分的化合物交给评分线程
+     */
+    @Scheduled(fixedDelayString = "${scoring.rescore.check-interval-ms:1000}")
+    public void tick() {
+        if (pending.isEmpty() || running.get()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        boolean quiet = now - lastEventAt.get() >= debounceMs;
+        boolean overdue = now - firstEventAt.get() >= maxDelayMs;
+        if (!quiet && !overdue && pending.size() < maxBatch) {
+            return;
+        }
+
+        List<Long> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        running.set(true);
+        executor.execute(() -> {
+            try {
+                ScoringBatchResultDTO result = scoringService.analyzeBatch(batch, null);
+                log.info("增量重新评分完成: 变更 {} 个, 评分 {} 个, 熔断 {} 个, 耗时 {} ms",
+                        batch.size(), result.getScored(), result.getVetoed(), result.getElapsedMillis());
+            } catch (Exception e) {
+                // 失败的化合物放回待评分集合，下一轮重试
+                log.error("增量重新评分失败: {}", e.getMessage(), e);
+                requeue(batch);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    private List<Long> drain() {
+        List<Long> batch = new ArrayList<>(Math.min(pending.size(), maxBatch));
+        for (Long id : pending) {
+            if (batch.size() >= maxBatch) {
+                break;
+            }
+            if (pending.remove(id)) {
+                batch.add(id);
+            }
+        }
+        // 超出 max-batch 的剩余化合物不再等待静默，本轮结束后的下一次检查即评分
+        long now = System.currentTimeMillis();
+        firstEventAt.set(now);
+        if (!pending.isEmpty()) {
+            lastEventAt.set(now - debounceMs);
+        }
+        return batch;
+    }
+
+    private void requeue(List<Long> batch) {
+        long now = System.currentTimeMillis();
+        if (pending.isEmpty()) {
+            firstEventAt.set(now);
+        }
+        pending.addAll(batch);
+        lastEventAt.set(now);
+    }
+
+    /**
+     * 当前等待评分的化合物数
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
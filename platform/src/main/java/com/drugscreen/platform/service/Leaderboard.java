@@ -0,0 +1,135 @@
+package com.drugscreen.platform.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 有界排行榜
+ * 按亲和力从好到差（越负越好，同分按化合物 ID）保留前 capacity 个化合物，每个化合物只占一个名次（取最佳值）。
+ * 只接受更好的值：化合物的最佳亲和力只会随新的对接结果变好，被挤出榜单的化合物只有在变得更好时才可能回到榜单，
+ * 因此增量更新的结果与全量排序一致。线程安全
+ */
+public class Leaderboard {
+
+    /**
+     * 榜单中的一个名次
+     */
+    public record Entry(long compoundId, double affinity) {
+    }
+
+    private final long[] ids;
+    private final double[] affinities;
+    private int size;
+
+    public Leaderboard(int capacity) {
+        if (capacity <= 0) {
+            throw new RuntimeException("榜单容量必须大于 0");
+        }
+        ids = new long[capacity];
+        affinities = new double[capacity];
+    }
+
+    /**
+     * 提交化合物的一个亲和力，返回榜单是否变化
+     */
+    public synchronized boolean offer(long compoundId, double affinity) {
+        if (Double.isNaN(affinity)) {
+            return false;
+        }
+        int existing = indexOf(compoundId);
+        if (existing >= 0) {
+            if (!before(compoundId, affinity, ids[existing], affinities[existing])) {
+                return false;
+            }
+            remove(existing);
+        } else if (size == ids.length && !before(compoundId, affinity, ids[size - 1], affinities[size - 1])) {
+            return false;
+        }
+        insert(compoundId, affinity);
+        return true;
+    }
+
+    /**
+     * 前 k 名（k 超过当前人数时返回全部）
+     */
+    public synchronized List<Entry> top(int k) {
+        int n = Math.min(k, size);
+        List<Entry> entries = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            entries.add(new Entry(ids[i], affinities[i]));
+        }
+        return entries;
+    }
+
+    public synchronized boolean contains(long compoundId) {
+        return indexOf(compoundId) >= 0;
+    }
+
+    /**
+     * 榜单中全部化合物 ID
+     */
+    public synchronized long[] compoundIds() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * 进入榜单所需的亲和力上限：榜单已满时为最后一名的亲和力，未满时为正无穷
+     */
+    public synchronized double threshold() {
+        return size < ids.length ? Double.POSITIVE_INFINITY : affinities[size - 1];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return ids.length;
+    }
+
+    // 容量通常为几百，线性查找比维护额外的索引更快
+    private int indexOf(long compoundId) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == compoundId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void remove(int index) {
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        System.arraycopy(affinities, index + 1, affinities, index, size - index - 1);
+        size--;
+    }
+
+    private void insert(long compoundId, double affinity) {
+        // 二分查找插入位置
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (before(ids[mid], affinities[mid], compoundId, affinity)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int moved = Math.min(size, ids.length - 1) - lo;
+        if (moved > 0) {
+            System.arraycopy(ids, lo, ids, lo + 1, moved);
+            System.arraycopy(affinities, lo, affinities, lo + 1, moved);
+        }
+        ids[lo] = compoundId;
+        affinities[lo] = affinity;
+        if (size < ids.length) {
+            size++;
+        }
+    }
+
+    // a 是否排在 b 前面
+    private static boolean before(long idA, double affinityA, long idB, double affinityB) {
+        return affinityA < affinityB || (affinityA == affinityB && idA < idB);
+    }
+}
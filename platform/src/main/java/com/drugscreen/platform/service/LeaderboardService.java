@@ -0,0 +1,326 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.dto.RankedCompoundDTO;
+import com.drugscreen.platform.repository.CompoundRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 化合物排行榜
+ * 在内存中按受体、按化合物分类和全局各维护一个有界榜单（每个化合物取最佳亲和力，同一化合物只占一个名次），
+ * 查询直接读内存，不访问数据库。启动时由一次分组聚合查询构建，之后随 {@link DockingCompletedEvent} 增量更新，
+ * 并按 rebuild-interval-ms 定期重建以反映直接修改数据库的变更（化合物分类修改、结果删除等）。
+ * 榜单尚未建成（启动中或重建失败）时按 retry-interval-ms 重试，期间查询改为有界的数据库查询
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    // 每个化合物在每个受体上的最佳亲和力（不读取 TEXT 列）
+    private static final String BEST_SQL =
+            "SELECT d.compound_id, d.protein_id, MIN(d.affinity) AS affinity, c.category " +
+            "FROM docking_results d JOIN compounds c ON c.id = d.compound_id " +
+            "WHERE d.affinity IS NOT NULL " +
+            "GROUP BY d.compound_id, d.protein_id, c.category";
+
+    private static final int SUMMARY_CHUNK = 1000;
+
+    private final CompoundRepository compoundRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${leaderboard.capacity:100}")
+    private int capacity; // 每个榜单保留的名次数，也是可查询的最大 k
+
+    @Value("${leaderboard.fetch-size:5000}")
+    private int fetchSize;
+
+    private volatile Boards boards;
+    // 重建期间到达的结果，重建完成后补到新榜单上；只在持有 this 锁时访问
+    private List<DockingCompletedEvent.Completed> replay;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * 一组榜单及其中化合物的名称与分类
+     */
+    private class Boards {
+        final Leaderboard global = new Leaderboard(capacity);
+        final Map<Long, Leaderboard> byReceptor = new ConcurrentHashMap<>();
+        final Map<String, Leaderboard> byCategory = new ConcurrentHashMap<>();
+        final Map<Long, CompoundRepository.CompoundSummary> summaries = new ConcurrentHashMap<>();
+
+        boolean offer(long compoundId, Long proteinId, String category, double affinity) {
+            boolean changed = global.offer(compoundId, affinity);
+            if (proteinId != null) {
+                changed |= byReceptor.computeIfAbsent(proteinId, id -> new Leaderboard(capacity)).offer(compoundId, affinity);
+            }
+            if (category != null) {
+                changed |= byCategory.computeIfAbsent(category, c -> new Leaderboard(capacity)).offer(compoundId, affinity);
+            }
+            return changed;
+        }
+
+        /**
+         * 可能进入某个分类榜的亲和力上限，超过该值的结果不必查询分类
+         */
+        double categoryThreshold() {
+            if (byCategory.isEmpty()) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double threshold = Double.NEGATIVE_INFINITY;
+            for (Leaderboard board : byCategory.values()) {
+                threshold = Math.max(threshold, board.threshold());
+            }
+            return threshold;
+        }
+
+        /**
+         * 为新上榜的化合物补充名称，并移除已不在任何榜单上的化合物信息
+         */
+        void syncSummaries() {
+            Set<Long> members = members();
+            summaries.keySet().retainAll(members);
+
+            List<Long> missing = new ArrayList<>();
+            for (Long id : members) {
+                if (!summaries.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            loadSummaries(missing);
+        }
+
+        /**
+         * 已被挤出榜单的化合物信息超过榜单总名次的两倍时清理一次，增量更新不必每次遍历全部榜单
+         */
+        void pruneSummaries() {
+            long limit = 2L * capacity * (1 + byReceptor.size() + byCategory.size());
+            if (summaries.size() > limit) {
+                summaries.keySet().retainAll(members());
+            }
+        }
+
+        void loadSummaries(Collection<Long> ids) {
+            List<Long> list = new ArrayList<>(ids);
+            for (int from = 0; from < list.size(); from += SUMMARY_CHUNK) {
+                List<Long> chunk = list.subList(from, Math.min(from + SUMMARY_CHUNK, list.size()));
+                compoundRepository.findSummaryByIdIn(chunk).forEach(s -> summaries.put(s.getId(), s));
+            }
+        }
+
+        private Set<Long> members() {
+            Set<Long> members = new HashSet<>();
+            addAll(members, global);
+            byReceptor.values().forEach(board -> addAll(members, board));
+            byCategory.values().forEach(board -> addAll(members, board));
+            return members;
+        }
+
+        private void addAll(Set<Long> members, Leaderboard board) {
+            for (long id : board.compoundIds()) {
+                members.add(id);
+            }
+        }
+    }
+
+    /**
+     * 查询排行榜
+     * @param k 名次数，不超过榜单容量
+     * @param proteinId 受体ID，为空时不限受体
+     * @param category 化合物分类，为空时不限分类；不能与受体同时指定
+     */
+    public List<RankedCompoundDTO> top(int k, Long proteinId, String category) {
+        if (k < 1 || k > capacity) {
+            throw new RuntimeException("k 必须在 1 到 " + capacity + " 之间");
+        }
+        if (proteinId != null && category != null) {
+            throw new RuntimeException("受体与分类不能同时指定");
+        }
+        Boards current = boards;
+        if (current == null) {
+            return topFromDatabase(k, proteinId, category);
+        }
+        Leaderboard board = proteinId != null ? current.byReceptor.get(proteinId)
+                : category != null ? current.byCategory.get(category)
+                : current.global;
+        if (board == null) {
+            return List.of();
+        }
+        return toRanked(board.top(k), current.summaries);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 对接成功的结果写入后更新榜单
+     */
+    @EventListener
+    public void onDockingCompleted(DockingCompletedEvent event) {
+        synchronized (this) {
+            if (replay != null) {
+                replay.addAll(event.results());
+            }
+            Boards current = boards;
+            if (current == null) {
+                return;
+            }
+            apply(current, event.results());
+        }
+    }
+
+    /**
+     * 从数据库重建全部榜单，完成后整体替换；启动时与定时执行
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${leaderboard.rebuild-interval-ms:3600000}",
+            initialDelayString = "${leaderboard.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        try {
+            Boards fresh = new Boards();
+            int[] rows = new int[1];
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(BEST_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                rows[0]++;
+                fresh.offer(rs.getLong("compound_id"), rs.getObject("protein_id", Long.class),
+                        rs.getString("category"), rs.getDouble("affinity"));
+            }));
+            fresh.syncSummaries();
+            synchronized (this) {
+                apply(fresh, replay);
+                boards = fresh;
+            }
+            log.info("排行榜重建完成: {} 行, 受体榜 {} 个, 分类榜 {} 个, 耗时 {} ms", rows[0],
+                    fresh.byReceptor.size(), fresh.byCategory.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("排行榜重建失败: {}", e.getMessage(), e);
+        } finally {
+            synchronized (this) {
+                replay = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 榜单尚未建成时重试重建
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.retry-interval-ms:30000}",
+            initialDelayString = "${leaderboard.retry-interval-ms:30000}")
+    public void retryRebuild() {
+        if (boards == null) {
+            log.info("排行榜尚未建成，重试重建");
+            rebuild();
+        }
+    }
+
+    private void apply(Boards target, List<DockingCompletedEvent.Completed> results) {
+        // 已在榜上的化合物使用已知分类；其余只有可能进入分类榜时才查询分类（只读 ID 与分类）。
+        // 新出现的分类在下次重建时补齐
+        double categoryThreshold = target.categoryThreshold();
+        Set<Long> lookup = new HashSet<>();
+        for (DockingCompletedEvent.Completed r : results) {
+            if (!target.summaries.containsKey(r.compoundId()) && r.affinity() <= categoryThreshold) {
+                lookup.add(r.compoundId());
+            }
+        }
+        Map<Long, String> categories = new HashMap<>();
+        if (!lookup.isEmpty()) {
+            compoundRepository.findCategoryByIdIn(lookup).forEach(c -> categories.put(c.getId(), c.getCategory()));
+        }
+
+        // 名称只为实际进入榜单的新化合物查询
+        Set<Long> entered = new HashSet<>();
+        for (DockingCompletedEvent.Completed r : results) {
+            CompoundRepository.CompoundSummary summary = target.summaries.get(r.compoundId());
+            String category = summary != null ? summary.getCategory() : categories.get(r.compoundId());
+            if (target.offer(r.compoundId(), r.proteinId(), category, r.affinity()) && summary == null) {
+                entered.add(r.compoundId());
+            }
+        }
+        if (!entered.isEmpty()) {
+            target.loadSummaries(entered);
+            target.pruneSummaries();
+        }
+    }
+
+    /**
+     * 榜单尚未建成时直接从数据库查询前 k 名
+     */
+    private List<RankedCompoundDTO> topFromDatabase(int k, Long proteinId, String category) {
+        StringBuilder sql = new StringBuilder("SELECT d.compound_id, MIN(d.affinity) AS affinity FROM docking_results d ");
+        List<Object> args = new ArrayList<>();
+        if (category != null) {
+            sql.append("JOIN compounds c ON c.id = d.compound_id AND c.category = ? ");
+            args.add(category);
+        }
+        sql.append("WHERE d.affinity IS NOT NULL ");
+        if (proteinId != null) {
+            sql.append("AND d.protein_id = ? ");
+            args.add(proteinId);
+        }
+        sql.append("GROUP BY d.compound_id ORDER BY affinity, d.compound_id LIMIT ?");
+        args.add(k);
+
+        List<Leaderboard.Entry> entries = jdbcTemplate.query(sql.toString(),
+                (rs, i) -> new Leaderboard.Entry(rs.getLong("compound_id"), rs.getDouble("affinity")), args.toArray());
+        Map<Long, CompoundRepository.CompoundSummary> summaries = new HashMap<>();
+        if (!entries.isEmpty()) {
+            compoundRepository.findSummaryByIdIn(entries.stream().map(Leaderboard.Entry::compoundId).toList())
+                    .forEach(s -> summaries.put(s.getId(), s));
+        }
+        return toRanked(entries, summaries);
+    }
+
+    private static List<RankedCompoundDTO> toRanked(List<Leaderboard.Entry> entries,
+                                                    Map<Long, CompoundRepository.CompoundSummary> summaries) {
+        List<RankedCompoundDTO> result = new ArrayList<>(entries.size());
+        int rank = 1;
+        for (Leaderboard.Entry entry : entries) {
+            CompoundRepository.CompoundSummary summary = summaries.get(entry.compoundId());
+            RankedCompoundDTO dto = new RankedCompoundDTO();
+            dto.setId(entry.compoundId());
+            dto.setAffinity(entry.affinity());
+            dto.setRank(rank++);
+            if (summary != null) {
+                dto.setName(summary.getName());
+                dto.setEnglishName(summary.getEnglishName());
+                dto.setCategory(summary.getCategory());
+            }
+            result.add(dto);
+        }
+        return result;
+    }
+}
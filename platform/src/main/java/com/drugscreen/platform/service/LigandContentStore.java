@@ -0,0 +1,50 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.entity.Compound;
+import com.drugscreen.platform.repository.CompoundRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 配体内容存储
+ * 以化合物的 raw_pdbqt_content 为准（所有工作节点共享），尚未入库的化合物从 docking 目录读取
+ * {@code <englishName>.pdbqt} 并回填到数据库，之后其他节点无需该目录也能对接
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LigandContentStore {
+
+    /** 工作目录中的配体文件名 */
+    public static final String LIGAND_FILE = "ligand.pdbqt";
+
+    private final CompoundRepository compoundRepository;
+
+    /**
+     * 将配体写入任务工作目录
+     * @return 配体文件路径
+     */
+    public Path materialize(Compound compound, Path workDir) throws IOException {
+        String content = compound.getRawPdbqtContent();
+        if (content == null || content.isBlank()) {
+            content = loadLegacyFile(compound);
+            compoundRepository.updateRawPdbqtContent(compound.getId(), content);
+            compound.setRawPdbqtContent(content);
+            log.info("配体 PDBQT 已回填到数据库: compoundId={}", compound.getId());
+        }
+        return Files.writeString(workDir.resolve(LIGAND_FILE), content);
+    }
+
+    private String loadLegacyFile(Compound compound) throws IOException {
+        Path file = DockingService.resolveDockingDir().toPath().resolve(compound.getEnglishName() + ".pdbqt");
+        if (!Files.exists(file)) {
+            throw new IOException("配体文件不存在: " + file.toAbsolutePath());
+        }
+        return Files.readString(file);
+    }
+}
@@ -0,0 +1,159 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.entity.AdmetResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地规则 ADMET 预测引擎
+ * 在进程内由 SMILES 计算分子描述符与结构警示，按经验规则估算五项指标，不依赖网络，可用于离线环境：
+ * - hERG：碱性胺、高 logP、多芳环提高风险，高 TPSA 降低风险（logistic 组合）
+ * - Ames：硝基芳烃、芳香胺、偶氮、N-亚硝基、环氧/氮丙啶、卤代烷、醛等警示子结构
+ * - 肝毒性：肼、噻吩等警示子结构，或 logP &gt; 3 且 TPSA &lt; 75（Hughes 3/75 规则）
+ * - 吸收：按 TPSA 与 logP（Egan 规则区间）以及氢键供体数估算
+ * - 代谢稳定性：按 N-甲基、芳香甲醚、酯、苄位等代谢易位点数与 logP 扣减
+ * 批量预测按 CPU 核数分片并行计算
+ */
+@Slf4j
+@Component
+public class LocalRuleAdmetPredictor implements AdmetPredictor {
+
+    public static final String NAME = "local";
+
+    private static final String VERSION = "rules-1";
+
+    @Value("${admet.local.threads:0}")
+    private int configuredThreads; // 0 表示使用全部 CPU 核
+
+    private ExecutorService executor;
+    private int threads;
+
+    @PostConstruct
+    public void init() {
+        threads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger index = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "AdmetLocal-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("本地 ADMET 预测引擎已启动: 规则集={}, 线程数={}", VERSION, threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public CompletableFuture<AdmetResult> predict(String name, String smiles) {
+        try {
+            return CompletableFuture.completedFuture(estimate(smiles));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
+
+    /**
+     * 按线程数分片并行计算；无法解析的 SMILES 对应位置为 null
+     */
+    @Override
+    public CompletableFuture<List<AdmetResult>> predictBatch(List<String> smiles) {
+        int sliceSize = Math.max(1, (smiles.size() + threads - 1) / threads);
+        List<CompletableFuture<List<AdmetResult>>> slices = new ArrayList<>();
+        for (int from = 0; from < smiles.size(); from += sliceSize) {
+            List<String> slice = smiles.subList(from, Math.min(from + sliceSize, smiles.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> slice.stream().map(LocalRuleAdmetPredictor::estimateOrNull).toList(),
+                    executor));
+        }
+        return CompletableFuture.allOf(slices.toArray(new CompletableFuture[0]))
+                .thenApply(v -> {
+                    List<AdmetResult> results = new ArrayList<>(smiles.size());
+                    slices.forEach(slice -> results.addAll(slice.join()));
+                    return results;
+                });
+    }
+
+    private static AdmetResult estimateOrNull(String smiles) {
+        try {
+            return estimate(smiles);
+        } catch (RuntimeException e) {
+            log.warn("本地 ADMET 估算失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 由 SMILES 估算五项 ADMET 指标
+     */
+    static AdmetResult estimate(String smiles) {
+        SmilesDescriptors d = SmilesDescriptors.parse(smiles);
+        double logP = d.getLogP();
+        double tpsa = d.getTpsa();
+
+        AdmetResult result = new AdmetResult();
+
+        // hERG：碱性中心 + 亲脂性 + 芳环数
+        double hergLogit = -3.0 + 0.55 * logP + (d.getBasicAmines() > 0 ? 1.6 : 0.0)
+                + 0.35 * Math.min(d.getAromaticRings(), 4) - 0.02 * tpsa;
+        result.setHergToxicity(round(clamp(sigmoid(hergLogit), 0.02, 0.95)));
+
+        // Ames：任一警示子结构即判为阳性
+        result.setAmesToxicity(d.getAmesAlerts() > 0 ? 1 : 0);
+
+        // 肝毒性：警示子结构或 3/75 规则
+        result.setLiverToxicity(d.getLiverAlerts() > 0 || (logP > 3 && tpsa < 75) ? 1 : 0);
+
+        // 吸收：TPSA 越大越差，logP 超出 Egan 区间或氢键供体过多时折减
+        double absorption = sigmoid((140 - tpsa) / 20);
+        if (logP > 5.88 || logP < -1) {
+            absorption *= 0.6;
+        }
+        if (d.getHbd() > 5) {
+            absorption *= 0.7;
+        }
+        result.setAbsorption(round(clamp(absorption, 0.05, 0.98)));
+
+        // 代谢稳定性：每个易位点扣减，亲脂性过高时进一步扣减
+        double metabolism = 0.85 - 0.08 * d.getMetabolicSoftSpots() - 0.05 * Math.max(0, logP - 3);
+        result.setMetabolism(round(clamp(metabolism, 0.1, 0.95)));
+        return result;
+    }
+
+    private static double sigmoid(double x) {
+        return 1.0 / (1.0 + Math.exp(-x));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.drugscreen.platform.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vina 输出 PDBQT（*_out.pdbqt）解析器
+ * 按 MODEL/ENDMDL 拆分为单个构象，并读取 REMARK VINA RESULT 中的亲和力与 RMSD
+ */
+public final class PdbqtPoseParser {
+
+    private PdbqtPoseParser() {
+    }
+
+    /**
+     * 单个构象
+     */
+    public record ParsedPose(int modeIndex, double affinity, double rmsdLb, double rmsdUb,
+                             int atomCount, String block) {
+    }
+
+    public static List<ParsedPose> parse(String outPdbqt) {
+        List<ParsedPose> poses = new ArrayList<>();
+        if (outPdbqt == null || outPdbqt.isEmpty()) {
+            return poses;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new StringReader(outPdbqt))) {
+            StringBuilder block = null;
+            int modeIndex = 0;
+            double affinity = Double.NaN;
+            double rmsdLb = Double.NaN;
+            double rmsdUb = Double.NaN;
+            int atomCount = 0;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("MODEL")) {
+                    block = new StringBuilder(4096);
+                    modeIndex = parseModelIndex(line, poses.size() + 1);
+                    affinity = Double.NaN;
+                    rmsdLb = Double.NaN;
+                    rmsdUb = Double.NaN;
+                    atomCount = 0;
+                }
+                if (block == null) {
+                    continue;
+                }
+                block.append(line).append('\n');
+
+                if (line.startsWith("REMARK VINA RESULT:")) {
+                    String[] parts = line.substring("REMARK VINA RESULT:".length()).trim().split("\\s+");
+                    if (parts.length >= 3) {
+                        affinity = Double.parseDouble(parts[0]);
+                        rmsdLb = Double.parseDouble(parts[1]);
+                        rmsdUb = Double.parseDouble(parts[2]);
+                    }
+                } else if (line.startsWith("ATOM") || line.startsWith("HETATM")) {
+                    atomCount++;
+                } else if (line.startsWith("ENDMDL")) {
+                    poses.add(new ParsedPose(modeIndex, affinity, rmsdLb, rmsdUb, atomCount, block.toString()));
+                    block = null;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new RuntimeException("解析对接构象失败: " + e.getMessage(), e);
+        }
+        return poses;
+    }
+
+    private static int parseModelIndex(String line, int fallback) {
+        String rest = line.substring("MODEL".length()).trim();
+        try {
+            return rest.isEmpty() ? fallback : Integer.parseInt(rest);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.entity.Protein;
+import com.drugscreen.platform.repository.ProteinRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * 蛋白（受体）服务
+ * 维护默认受体 1e9h 的数据库记录，并提供可视化用的受体结构
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProteinService {
+
+    // 1e9h 受体文件及其活性位点对接盒（准确值）
+    private static final String DEFAULT_RECEPTOR_PDB = "structures/receptor_1e9h.pdb";
+    private static final String DEFAULT_RECEPTOR_PDBQT = "1e9h.pdbqt";
+    private static final double[] DEFAULT_BOX_CENTER = {11.114, 27.215, 90.265};
+    private static final double[] DEFAULT_BOX_SIZE = {49, 77, 23};
+
+    private final ProteinRepository proteinRepository;
+
+    @Value("${docking.default-protein:1e9h}")
+    private String defaultProteinName;
+
+    private volatile Long defaultProteinId;
+
+    /**
+     * 启动时确保默认受体存在且带有对接盒与 PDBQT 内容
+     */
+    public void ensureDefaultProtein() {
+        try {
+            Protein protein = proteinRepository.findByName(defaultProteinName).orElse(null);
+            if (protein == null) {
+                protein = new Protein(defaultProteinName, readClasspath(DEFAULT_RECEPTOR_PDB));
+                protein.setDescription("CDK2 (PDB: 1E9H)");
+            }
+            boolean changed = protein.getId() == null;
+            if (protein.getBoxCenterX() == null) {
+                protein.setBoxCenterX(DEFAULT_BOX_CENTER[0]);
+                protein.setBoxCenterY(DEFAULT_BOX_CENTER[1]);
+                protein.setBoxCenterZ(DEFAULT_BOX_CENTER[2]);
+                protein.setBoxSizeX(DEFAULT_BOX_SIZE[0]);
+                protein.setBoxSizeY(DEFAULT_BOX_SIZE[1]);
+                protein.setBoxSizeZ(DEFAULT_BOX_SIZE[2]);
+                changed = true;
+            }
+            if (protein.getPdbqtContent() == null) {
+                File pdbqt = new File(DockingService.resolveDockingDir(), DEFAULT_RECEPTOR_PDBQT);
+                if (pdbqt.exists()) {
+                    protein.setPdbqtContent(Files.readString(pdbqt.toPath(), StandardCharsets.UTF_8));
+                    changed = true;
+                } else {
+                    log.warn("默认受体 PDBQT 文件不存在: {}", pdbqt.getAbsolutePath());
+                }
+            }
+            if (changed) {
+                protein = proteinRepository.save(protein);
+                log.info("默认受体已写入数据库: name={}, id={}", protein.getName(), protein.getId());
+            }
+            defaultProteinId = protein.getId();
+        } catch (IOException e) {
+            log.error("初始化默认受体失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 默认受体 ID，未提供 proteinId 的对接与筛选使用该受体
+     */
+    public Long getDefaultProteinId() {
+        Long id = defaultProteinId;
+        if (id == null) {
+            id = proteinRepository.findByName(defaultProteinName)
+                    .map(Protein::getId)
+                    .orElseThrow(() -> new RuntimeException("默认受体不存在: " + defaultProteinName));
+            defaultProteinId = id;
+        }
+        return id;
+    }
+
+    /**
+     * 受体 PDB 内容（可视化用），proteinId 为空时使用默认受体，数据库中没有时读取 classpath 文件
+     */
+    public String getReceptorPdb(Long proteinId) throws IOException {
+        Long id = proteinId != null ? proteinId : defaultProteinId;
+        if (id != null) {
+            String pdb = proteinRepository.findPdbContentById(id).orElse(null);
+            if (pdb != null && !pdb.isEmpty()) {
+                return pdb;
+            }
+        }
+        return readClasspath(DEFAULT_RECEPTOR_PDB);
+    }
+
+    private static String readClasspath(String path) throws IOException {
+        ClassPathResource resource = new ClassPathResource(path);
+        return new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,100 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.repository.ProteinRepository;
+import com.drugscreen.platform.repository.ProteinRepository.ProteinTarget;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 受体文件本地缓存
+ * 每个节点只把受体结构从数据库写到本地磁盘一次，之后的对接任务直接使用该文件；
+ * 受体记录更新（updated_at 变化）时重新写出
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReceptorFileCache {
+
+    private final ProteinRepository proteinRepository;
+
+    @Value("${docking.receptor-cache.dir:${java.io.tmpdir}/drugscreen/receptors}")
+    private String cacheDir;
+
+    private final Map<Long, ReceptorTarget> targets = new ConcurrentHashMap<>();
+
+    /**
+     * 对接目标：受体文件与对接盒
+     */
+    public record ReceptorTarget(Long proteinId, String name, File receptorFile, double[] center, double[] size,
+                                 LocalDateTime version) {
+    }
+
+    /**
+     * 获取受体的本地文件与对接盒，必要时从数据库写出
+     */
+    public ReceptorTarget resolve(Long proteinId) {
+        ProteinTarget target = proteinRepository.findTargetById(proteinId)
+                .orElseThrow(() -> new RuntimeException("受体蛋白不存在: " + proteinId));
+        if (target.getBoxCenterX() == null || target.getBoxSizeX() == null) {
+            throw new RuntimeException("受体蛋白未设置对接盒: " + target.getName());
+        }
+
+        ReceptorTarget cached = targets.get(proteinId);
+        if (isCurrent(cached, target)) {
+            return cached;
+        }
+        // 同一受体并发写出时只写一次
+        return targets.compute(proteinId, (id, existing) -> isCurrent(existing, target) ? existing : write(target));
+    }
+
+    /**
+     * 移除受体的本地缓存
+     */
+    public void evict(Long proteinId) {
+        ReceptorTarget removed = targets.remove(proteinId);
+        if (removed != null) {
+            removed.receptorFile().delete();
+        }
+    }
+
+    private static boolean isCurrent(ReceptorTarget cached, ProteinTarget target) {
+        return cached != null && Objects.equals(cached.version(), target.getUpdatedAt()) && cached.receptorFile().exists();
+    }
+
+    private ReceptorTarget write(ProteinTarget target) {
+        String content = proteinRepository.findReceptorContentById(target.getId())
+                .orElseThrow(() -> new RuntimeException("受体蛋白没有结构内容: " + target.getName()));
+        try {
+            Path dir = Paths.get(cacheDir);
+            Files.createDirectories(dir);
+            Path file = dir.resolve("protein-" + target.getId() + ".pdbqt");
+            // 先写临时文件再原子替换，避免正在运行的对接读到写了一半的受体
+            Path tmp = Files.createTempFile(dir, "protein-" + target.getId(), ".tmp");
+            Files.writeString(tmp, content, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("受体文件已写入本地缓存: name={}, path={}", target.getName(), file);
+
+            double[] center = {target.getBoxCenterX(), target.getBoxCenterY(), target.getBoxCenterZ()};
+            double[] size = {target.getBoxSizeX(), target.getBoxSizeY(), target.getBoxSizeZ()};
+            return new ReceptorTarget(target.getId(), target.getName(), file.toFile(), center, size,
+                    target.getUpdatedAt());
+        } catch (IOException e) {
+            throw new UncheckedIOException("写出受体文件失败: " + target.getName(), e);
+        }
+    }
+}
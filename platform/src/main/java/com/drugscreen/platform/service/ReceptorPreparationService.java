@@ -0,0 +1,170 @@
+package com.drugscreen.platform.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * 受体准备服务
+ * 按 (受体内容, 对接盒, 引擎名称与版本) 预先计算一次受体网格图并保存在本地磁盘，
+ * 之后的对接任务直接加载网格图，不再为每个配体重复计算。
+ * 网格图目录以上述三者的 SHA-256 命名，受体或对接盒变化时自然落到新目录，旧网格图不会被误用。
+ * 网格图先写入临时目录再整体改名，同机多个实例同时准备时只有一个生效
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReceptorPreparationService {
+
+    // 网格图全部写出后创建的标记文件，避免读到写了一半的目录
+    private static final String COMPLETE_MARKER = ".complete";
+    private static final String MAPS_NAME = "receptor";
+
+    private final DockingEngine dockingEngine;
+    private final DockingCacheService dockingCacheService;
+
+    @Value("${docking.maps.enabled:true}")
+    private boolean enabled;
+
+    @Value("${docking.maps.dir:${java.io.tmpdir}/drugscreen/maps}")
+    private String mapsDir;
+
+    @Value("${docking.maps.wait-timeout-ms:300000}")
+    private long waitTimeoutMs; // 等待其他任务计算同一网格图的上限，超时后本次对接现场计算
+
+    @Value("${docking.maps.retry-after-ms:60000}")
+    private long retryAfterMs; // 计算失败后该时间内的任务直接现场计算，之后再次尝试预计算
+
+    // 同一网格图只计算一次，并发任务等待同一个 future；失败时移除，由之后的任务重试
+    private final Map<String, CompletableFuture<Path>> prepared = new ConcurrentHashMap<>();
+    // 最近一次计算失败的时间，避免每个配体都重试一次失败的计算
+    private final Map<String, Long> failedAt = new ConcurrentHashMap<>();
+
+    /**
+     * 获取受体网格图前缀，必要时先计算
+     * @return 网格图前缀；引擎不支持、功能关闭或计算失败时返回 null，由引擎现场计算
+     */
+    public Path getMapsPrefix(File receptorFile, double[] center, double[] size) {
+        if (!enabled || !dockingEngine.supportsPreparedMaps()) {
+            return null;
+        }
+        // 引擎版本未知时无法区分不同版本生成的网格图，由引擎现场计算
+        String engineVersion = dockingEngine.getVersion();
+        if (DockingEngine.UNKNOWN_VERSION.equals(engineVersion)) {
+            log.warn("无法确定对接引擎版本，不使用预计算的受体网格图");
+            return null;
+        }
+        try {
+            String key = computeKey(engineVersion, receptorFile, center, size);
+            Long failed = failedAt.get(key);
+            if (failed != null && System.currentTimeMillis() - failed < retryAfterMs) {
+                return null;
+            }
+            CompletableFuture<Path> future = new CompletableFuture<>();
+            CompletableFuture<Path> existing = prepared.putIfAbsent(key, future);
+            if (existing != null) {
+                try {
+                    return existing.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    log.warn("等待受体网格图计算超过 {} ms，本次对接现场计算", waitTimeoutMs);
+                    return null;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            try {
+                future.complete(prepare(key, receptorFile, center, size));
+                failedAt.remove(key);
+            } catch (Exception e) {
+                log.warn("受体网格图预计算失败，{} ms 内的对接现场计算: {}", retryAfterMs, e.getMessage());
+                failedAt.put(key, System.currentTimeMillis());
+                prepared.remove(key, future);
+                future.complete(null);
+            }
+            return future.join();
+        } catch (Exception e) {
+            log.warn("无法获取受体网格图: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Path prepare(String key, File receptorFile, double[] center, double[] size) throws Exception {
+        Path dir = Paths.get(mapsDir, key);
+        Path prefix = dir.resolve(MAPS_NAME);
+        if (Files.exists(dir.resolve(COMPLETE_MARKER))) {
+            log.info("复用已有受体网格图: {}", dir);
+            return prefix;
+        }
+
+        Files.createDirectories(dir.getParent());
+        Path tmpDir = Files.createTempDirectory(dir.getParent(), key + ".tmp-");
+        long start = System.currentTimeMillis();
+        try {
+            if (!dockingEngine.prepareMaps(receptorFile.toPath(), center, size, tmpDir.resolve(MAPS_NAME))) {
+                log.info("{} 引擎未生成受体网格图，对接时现场计算", dockingEngine.getName());
+                return null;
+            }
+            Files.writeString(tmpDir.resolve(COMPLETE_MARKER), receptorFile.getName() + "\n");
+            try {
+                Files.move(tmpDir, dir, StandardCopyOption.ATOMIC_MOVE);
+                log.info("受体网格图计算完成: {}, 耗时 {} ms", dir, System.currentTimeMillis() - start);
+            } catch (FileSystemException e) {
+                // 目标目录已存在：其他实例已先完成
+                if (!Files.exists(dir.resolve(COMPLETE_MARKER))) {
+                    throw e;
+                }
+                log.info("受体网格图已由其他实例生成: {}", dir);
+            }
+        } finally {
+            deleteRecursively(tmpDir);
+        }
+        return prefix;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(path)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private String computeKey(String engineVersion, File receptorFile, double[] center, double[] size) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update((dockingEngine.getName() + ":" + engineVersion).getBytes(StandardCharsets.UTF_8));
+        digest.update(dockingCacheService.receptorDigest(receptorFile));
+        ByteBuffer box = ByteBuffer.allocate(Double.BYTES * 6);
+        for (double v : center) {
+            box.putDouble(v);
+        }
+        for (double v : size) {
+            box.putDouble(v);
+        }
+        digest.update(box.array());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
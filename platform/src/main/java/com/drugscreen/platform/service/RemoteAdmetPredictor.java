@@ -0,0 +1,222 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.entity.AdmetResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 远程 ADMET 预测引擎
+ * 通过 {@link AdmetHttpClient} 调用外部 ADMET 服务（经过舱壁与熔断器），服务配置了批量接口时支持批量预测
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RemoteAdmetPredictor implements AdmetPredictor {
+
+    public static final String NAME = "remote";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final AdmetHttpClient admetHttpClient;
+
+    @Value("${admet.predictor.version:admetmesh}")
+    private String version; // 与预测缓存使用同一版本号
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    /**
+     * 调用ADMET API获取预测结果
+     * @param name 化合物名称（日志用）
+     * @param smiles SMILES 结构式
+     * @return ADMET结果
+     */
+    @Override
+    public CompletableFuture<AdmetResult> predict(String name, String smiles) {
+        log.debug("调用ADMET API，化合物: {}", name);
+
+        // 构建请求体（使用SMILES）
+        String requestBody;
+        try {
+            requestBody = MAPPER.writeValueAsString(Map.of("smiles", smiles));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        log.debug("请求体: {}", requestBody);
+
+        return admetHttpClient.postJson(requestBody).thenApply(response -> {
+            log.debug("ADMET API响应: {}", response);
+            try {
+                // 解析响应JSON
+                return parseAdmetResponse(response);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * 解析ADMET API响应
+     */
+    private AdmetResult parseAdmetResponse(String responseJson) throws Exception {
+        JsonNode rootNode = MAPPER.readTree(responseJson);
+        JsonNode dataNode = rootNode.has("data") ? rootNode.get("data") : rootNode;
+        return parseAdmetNode(dataNode);
+    }
+
+    /**
+     * 从单个化合物的预测节点提取ADMET指标
+     */
+    private AdmetResult parseAdmetNode(JsonNode dataNode) {
+        AdmetResult result = new AdmetResult();
+        
+        // 提取 hERG 毒性
+        if (dataNode.has("herg_toxicity")) {
+            result.setHergToxicity(dataNode.get("herg_toxicity").asDouble());
+        } else if (dataNode.has("hERG")) {
+            result.setHergToxicity(dataNode.get("hERG").asDouble());
+        } else if (dataNode.has("Cardiotoxicity")) {
+            result.setHergToxicity(dataNode.get("Cardiotoxicity").asDouble());
+        } else {
+            log.warn("未找到 hERG 毒性字段，使用默认值 0.3");
+            result.setHergToxicity(0.3);
+        }
+        
+        // 提取 Ames 致突变性
+        if (dataNode.has("ames_toxicity")) {
+            result.setAmesToxicity(dataNode.get("ames_toxicity").asInt());
+        } else if (dataNode.has("AMES")) {
+            result.setAmesToxicity(dataNode.get("AMES").asInt());
+        } else if (dataNode.has("Mutagenicity")) {
+            result.setAmesToxicity(dataNode.get("Mutagenicity").asInt());
+        } else {
+            log.warn("未找到 Ames 致突变性字段，使用默认值 0");
+            result.setAmesToxicity(0);
+        }
+        
+        // 提取肝毒性
+        if (dataNode.has("liver_toxicity")) {
+            result.setLiverToxicity(dataNode.get("liver_toxicity").asInt());
+        } else if (dataNode.has("DILI")) {
+            result.setLiverToxicity(dataNode.get("DILI").asInt());
+        } else if (dataNode.has("Hepatotoxicity")) {
+            result.setLiverToxicity(dataNode.get("Hepatotoxicity").asInt());
+        } else {
+            log.warn("未找到肝毒性字段，使用默认值 0");
+            result.setLiverToxicity(0);
+        }
+        
+        // 提取吸收性
+        if (dataNode.has("absorption")) {
+            result.setAbsorption(dataNode.get("absorption").asDouble());
+        } else if (dataNode.has("Caco2")) {
+            // Caco2 通透性：通常是对数值，需要转换为 0-1 范围
+            double caco2 = dataNode.get("Caco2").asDouble();
+            // 假设 Caco2 > -5.15 为高通透性，转换为 0-1 分数
+            result.setAbsorption(Math.min(1.0, Math.max(0.0, (caco2 + 7) / 4)));
+        } else if (dataNode.has("HIA")) {
+            // 人体肠道吸收（Human Intestinal Absorption）
+            result.setAbsorption(dataNode.get("HIA").asDouble());
+        } else if (dataNode.has("Bioavailability")) {
+            result.setAbsorption(dataNode.get("Bioavailability").asDouble());
+        } else {
+            log.warn("未找到吸收性字段，使用默认值 0.7");
+            result.setAbsorption(0.7);
+        }
+        
+        // 提取代谢稳定性
+        if (dataNode.has("metabolism")) {
+            result.setMetabolism(dataNode.get("metabolism").asDouble());
+        } else if (dataNode.has("CYP")) {
+            // CYP 抑制：0 表示不抑制（好），1 表示抑制（不好）
+            int cyp = dataNode.get("CYP").asInt();
+            result.setMetabolism(cyp == 0 ? 0.8 : 0.4);
+        } else if (dataNode.has("CYP3A4_Substrate")) {
+            // CYP3A4 底物：0 表示不是底物（代谢稳定），1 表示是底物（代谢不稳定）
+            int cyp3a4 = dataNode.get("CYP3A4_Substrate").asInt();
+            result.setMetabolism(cyp3a4 == 0 ? 0.7 : 0.5);
+        } else if (dataNode.has("Half_Life")) {
+            // 半衰期：值越大越稳定
+            double halfLife = dataNode.get("Half_Life").asDouble();
+            result.setMetabolism(Math.min(1.0, halfLife / 10.0));
+        } else if (dataNode.has("Clearance")) {
+            // 清除率：值越小越稳定
+            double clearance = dataNode.get("Clearance").asDouble();
+            result.setMetabolism(Math.max(0.0, 1.0 - clearance / 100.0));
+        } else {
+            log.warn("未找到代谢稳定性字段，使用默认值 0.6");
+            result.setMetabolism(0.6);
+        }
+        
+        // 确保所有值都在合理范围内
+        result.setHergToxicity(Math.max(0.0, Math.min(1.0, result.getHergToxicity())));
+        result.setAbsorption(Math.max(0.0, Math.min(1.0, result.getAbsorption())));
+        result.setMetabolism(Math.max(0.0, Math.min(1.0, result.getMetabolism())));
+        
+        log.debug("成功解析ADMET API响应 - hERG: {}, Ames: {}, Liver: {}, Absorption: {}, Metabolism: {}", 
+                result.getHergToxicity(), result.getAmesToxicity(), result.getLiverToxicity(),
+                result.getAbsorption(), result.getMetabolism());
+        
+        return result;
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return admetHttpClient.supportsBatch();
+    }
+
+    /**
+     * 调用批量接口，请求体 {"smiles": [...]}，响应的 data 数组与请求顺序一致
+     */
+    @Override
+    public CompletableFuture<List<AdmetResult>> predictBatch(List<String> smiles) {
+        String requestBody;
+        try {
+            requestBody = MAPPER.writeValueAsString(Map.of("smiles", smiles));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        log.info("调用ADMET批量接口，化合物数: {}", smiles.size());
+
+        return admetHttpClient.postBatchJson(requestBody).thenApply(response -> {
+            try {
+                JsonNode rootNode = MAPPER.readTree(response);
+                JsonNode dataNode = rootNode.has("data") ? rootNode.get("data") : rootNode;
+                if (!dataNode.isArray() || dataNode.size() != smiles.size()) {
+                    throw new RuntimeException("ADMET批量接口返回的结果数与请求不一致");
+                }
+                List<AdmetResult> results = new ArrayList<>(smiles.size());
+                for (JsonNode node : dataNode) {
+                    results.add(parseAdmetNode(node));
+                }
+                return results;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+}
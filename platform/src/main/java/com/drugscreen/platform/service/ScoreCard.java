@@ -0,0 +1,64 @@
+package com.drugscreen.platform.service;
+
+/**
+ * 评分内核的输出：分项得分、总分、是否熔断与标签位
+ * 对象可由调用方复用（每次评分前由内核重置），批量评分时每个线程只需一个实例
+ */
+public final class ScoreCard {
+
+    double potency;
+    double safety;
+    double druglikeness;
+    double total;
+    boolean vetoed;
+    int flags;
+
+    // 建议文本中引用的输入值与权重
+    ScoringWeights weights;
+    double affinity;
+    double absorption;
+    double metabolism;
+
+    void reset() {
+        potency = 0.0;
+        safety = 0.0;
+        druglikeness = 0.0;
+        total = 0.0;
+        vetoed = false;
+        flags = 0;
+    }
+
+    public double getPotency() {
+        return potency;
+    }
+
+    public double getSafety() {
+        return safety;
+    }
+
+    public double getDruglikeness() {
+        return druglikeness;
+    }
+
+    /**
+     * 总分，保留一位小数；熔断时为 0
+     */
+    public double getTotal() {
+        return total;
+    }
+
+    public boolean isVetoed() {
+        return vetoed;
+    }
+
+    /**
+     * 标签位，见 {@link ScoringKernel} 中的 FLAG_* 常量
+     */
+    public int getFlags() {
+        return flags;
+    }
+
+    public boolean has(int flag) {
+        return (flags & flag) != 0;
+    }
+}
@@ -0,0 +1,35 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.entity.AdmetResult;
+import com.drugscreen.platform.entity.Compound;
+import com.drugscreen.platform.entity.DockingResult;
+
+/**
+ * 单个化合物的评分输入：分子属性、最佳对接结果与 ADMET 预测
+ * 单个评分由实体组装，批量评分由一次联表查询的结果行组装
+ */
+public record ScoringInput(
+        Long compoundId,
+        Double logP,
+        Double molecularWeight,
+        Integer hbd,
+        Integer hba,
+        Integer heavyAtomCount,
+        Double affinity,
+        Double similarity,
+        Double hergToxicity,
+        Integer amesToxicity,
+        Integer liverToxicity,
+        Double absorption,
+        Double metabolism,
+        String admetProvenance,
+        String admetPredictor) {
+
+    public static ScoringInput of(Compound compound, DockingResult docking, AdmetResult admet) {
+        return new ScoringInput(compound.getId(), compound.getLogP(), compound.getMolecularWeight(),
+                compound.getHbd(), compound.getHba(), compound.getHeavyAtomCount(),
+                docking.getAffinity(), docking.getSimilarityScore(),
+                admet.getHergToxicity(), admet.getAmesToxicity(), admet.getLiverToxicity(),
+                admet.getAbsorption(), admet.getMetabolism(), admet.getProvenance(), admet.getPredictor());
+    }
+}
@@ -0,0 +1,128 @@
+package com.drugscreen.platform.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 评分输入缓存
+ * 按受体缓存整个化合物库的评分输入（与批量评分相同的联表查询），供按不同评分方案重新排名时反复使用。
+ * 首次使用或超过 cache-ttl-ms 时整体加载；之后收到 {@link ScoringInputChangedEvent} 的化合物
+ * 只在下次使用前重新读取这些行。最多缓存 max-receptors 个受体，超出时淘汰最久未用的
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScoringInputCache {
+
+    private static final long ALL_RECEPTORS = 0L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${scoring.rerank.cache-ttl-ms:600000}")
+    private long ttlMs; // 整体重新加载的间隔，覆盖事件未通知的变更（化合物属性修改、删除等）
+
+    @Value("${scoring.rerank.max-receptors:4}")
+    private int maxReceptors;
+
+    @Value("${scoring.batch.fetch-size:2000}")
+    private int fetchSize;
+
+    private final Map<Long, Snapshot> snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Snapshot> eldest) {
+            return size() > maxReceptors;
+        }
+    });
+
+    /**
+     * 一个受体的缓存
+     */
+    private static class Snapshot {
+        final Map<Long, ScoringInput> inputs = new ConcurrentHashMap<>();
+        final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+        final long loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 取得评分输入（化合物ID -> 输入），必要时先加载或刷新
+     * @param proteinId 只取该受体上的最佳对接结果，为空时不限受体
+     */
+    public Map<Long, ScoringInput> get(Long proteinId) {
+        long key = proteinId != null ? proteinId : ALL_RECEPTORS;
+        // 同一时间只有一个线程加载或刷新，避免并发请求重复读取整个化合物库
+        synchronized (this) {
+            Snapshot snapshot = snapshots.get(key);
+            if (snapshot == null || System.currentTimeMillis() - snapshot.loadedAt > ttlMs) {
+                snapshot = load(proteinId);
+                snapshots.put(key, snapshot);
+            } else if (!snapshot.dirty.isEmpty()) {
+                refresh(snapshot, proteinId);
+            }
+            return Collections.unmodifiableMap(snapshot.inputs);
+        }
+    }
+
+    /**
+     * 标记变更的化合物，下次使用时重新读取
+     */
+    @EventListener
+    public void onInputChanged(ScoringInputChangedEvent event) {
+        if (event.compoundIds() == null || event.compoundIds().isEmpty()) {
+            return;
+        }
+        synchronized (snapshots) {
+            for (Snapshot snapshot : snapshots.values()) {
+                snapshot.dirty.addAll(event.compoundIds());
+            }
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        snapshots.clear();
+    }
+
+    private Snapshot load(Long proteinId) {
+        long start = System.currentTimeMillis();
+        Snapshot snapshot = new Snapshot();
+        ScoringService.streamInputs(jdbcTemplate, transactionTemplate, null, proteinId, fetchSize,
+                input -> snapshot.inputs.put(input.compoundId(), input));
+        log.info("加载评分输入缓存: 受体={}, 化合物 {} 个, 耗时 {} ms",
+                proteinId, snapshot.inputs.size(), System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    private void refresh(Snapshot snapshot, Long proteinId) {
+        List<Long> changed = new ArrayList<>(snapshot.dirty);
+        snapshot.dirty.removeAll(changed);
+        Set<Long> found = new HashSet<>();
+        ScoringService.streamInputs(jdbcTemplate, transactionTemplate, changed, proteinId, fetchSize, input -> {
+            snapshot.inputs.put(input.compoundId(), input);
+            found.add(input.compoundId());
+        });
+        // 不再满足评分条件的化合物移出缓存
+        for (Long id : changed) {
+            if (!found.contains(id)) {
+                snapshot.inputs.remove(id);
+            }
+        }
+        log.debug("刷新评分输入缓存: 受体={}, 变更 {} 个", proteinId, changed.size());
+    }
+}
@@ -0,0 +1,15 @@
+package com.drugscreen.platform.service;
+
+import java.util.Collection;
+
+/**
+ * 评分输入变更事件
+ * 对接结果完成写入、ADMET 结果保存后发布（事务提交之后），由 {@link IncrementalRescorer} 合并后重新评分
+ * @param compoundIds 输入发生变化的化合物ID
+ * @param source 变更来源（docking / admet）
+ */
+public record ScoringInputChangedEvent(Collection<Long> compoundIds, String source) {
+
+    public static final String SOURCE_DOCKING = "docking";
+    public static final String SOURCE_ADMET = "admet";
+}
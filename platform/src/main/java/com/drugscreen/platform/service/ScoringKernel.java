@@ -0,0 +1,245 @@
+package com.drugscreen.platform.service;
+
+import java.util.List;
+
+/**
+ * 评分内核
+ * 无状态的评分规则：输入为基本类型，输出分项得分、总分与标签位，评分过程不分配对象；
+ * 标签文字与专家建议只在调用方需要时由 {@link #appendTags} 与 {@link #appendAdvice} 按标签位生成。
+ * 权重与阈值来自 {@link ScoringWeights}，未指定时使用内置规则：
+ * - 安全性 35 分：hERG &gt; 0.7 一票否决（总分 0），&lt; 0.3 得 15 分，否则 5 分；Ames 阴性 10 分；无肝毒性 10 分
+ * - 效能 45 分：亲和力 -10 满分 30 分、-6 为 0 分之间线性插值；相似性 10/5/2 分；配体效率 &ge; 0.3 得 5 分
+ * - 成药性 20 分：吸收 5/3/1 分；代谢 5/3/1 分；LogP 窗口 5/3 分；分子量窗口 3/2 分；Lipinski 氢键 2/1 分
+ */
+public final class ScoringKernel {
+
+    // 标签位，按标签在报告中出现的顺序排列
+    public static final int FLAG_HERG_VETO = 1;
+    public static final int FLAG_HERG_SAFE = 1 << 1;
+    public static final int FLAG_HERG_MODERATE = 1 << 2;
+    public static final int FLAG_AMES_POSITIVE = 1 << 3;
+    public static final int FLAG_LIVER_TOXIC = 1 << 4;
+    public static final int FLAG_STRONG_BINDING = 1 << 5;
+    public static final int FLAG_WEAK_BINDING = 1 << 6;
+    public static final int FLAG_MATURE_SCAFFOLD = 1 << 7;
+    public static final int FLAG_NOVEL_SCAFFOLD = 1 << 8;
+    public static final int FLAG_HIGH_LE = 1 << 9;
+    public static final int FLAG_GOOD_ABSORPTION = 1 << 10;
+    public static final int FLAG_POOR_ABSORPTION = 1 << 11;
+    public static final int FLAG_STABLE_METABOLISM = 1 << 12;
+    public static final int FLAG_UNSTABLE_METABOLISM = 1 << 13;
+    public static final int FLAG_POOR_LOGP = 1 << 14;
+
+    // 各标签位对应的标签文字；为 null 的只影响建议文本，不作为标签
+    private static final String[] LABELS = {
+            "⛔ hERG高危熔断",
+            "心脏安全性佳",
+            "hERG风险中等",
+            "致突变风险",
+            "肝毒性风险",
+            "🌟 极强结合",
+            "结合力弱",
+            "骨架成熟",
+            "💡 骨架新颖",
+            "高配体效率",
+            "吸收性优",
+            null,
+            "代谢稳定",
+            null,
+            "LogP不佳",
+    };
+
+    static final ScoringWeights DEFAULT_WEIGHTS = new ScoringWeights();
+
+    private ScoringKernel() {
+    }
+
+    /**
+     * 按内置规则评分
+     */
+    public static ScoreCard score(double affinity, double similarity, double hergProb, boolean amesPositive,
+                                  boolean liverToxic, double absorption, double metabolism, double logP,
+                                  double molecularWeight, int hbd, int hba, int heavyAtoms, ScoreCard out) {
+        return score(affinity, similarity, hergProb, amesPositive, liverToxic, absorption, metabolism, logP,
+                molecularWeight, hbd, hba, heavyAtoms, DEFAULT_WEIGHTS, out);
+    }
+
+    /**
+     * 评分
+     * @param affinity 最佳对接亲和力 (kcal/mol)
+     * @param similarity 结构相似性 (0-1)
+     * @param hergProb hERG 毒性概率 (0-1)
+     * @param amesPositive Ames 是否阳性
+     * @param liverToxic 是否有肝毒性
+     * @param absorption 吸收性 (0-1)
+     * @param metabolism 代谢稳定性 (0-1)
+     * @param logP LogP
+     * @param molecularWeight 分子量
+     * @param hbd 氢键供体数
+     * @param hba 氢键受体数
+     * @param heavyAtoms 重原子数
+     * @param w 权重与阈值
+     * @param out 输出对象，评分前重置
+     * @return out
+     */
+    public static ScoreCard score(double affinity, double similarity, double hergProb, boolean amesPositive,
+                                  boolean liverToxic, double absorption, double metabolism, double logP,
+                                  double molecularWeight, int hbd, int hba, int heavyAtoms, ScoringWeights w,
+                                  ScoreCard out) {
+        out.reset();
+        out.weights = w;
+        out.affinity = affinity;
+        out.absorption = absorption;
+        out.metabolism = metabolism;
+
+        // 安全性（优先检查熔断）
+        if (hergProb > w.getHergVeto()) {
+            out.vetoed = true;
+            out.flags = FLAG_HERG_VETO;
+            return out;
+        }
+        int flags = 0;
+        double safety = 0.0;
+        if (hergProb < w.getHergSafe()) {
+            safety += w.getHergSafePoints();
+            flags |= FLAG_HERG_SAFE;
+        } else {
+            safety += w.getHergModeratePoints();
+            flags |= FLAG_HERG_MODERATE;
+        }
+        if (!amesPositive) {
+            safety += w.getAmesPoints();
+        } else {
+            flags |= FLAG_AMES_POSITIVE;
+        }
+        if (!liverToxic) {
+            safety += w.getLiverPoints();
+        } else {
+            flags |= FLAG_LIVER_TOXIC;
+        }
+
+        // 效能：亲和力在 affinityFull（满分）到 affinityFloor（0 分）之间线性插值
+        double potency = 0.0;
+        double affScore;
+        if (affinity <= w.getAffinityFull()) {
+            affScore = w.getAffinityPoints();
+            flags |= FLAG_STRONG_BINDING;
+        } else if (affinity > w.getAffinityFloor()) {
+            affScore = 0.0;
+            flags |= FLAG_WEAK_BINDING;
+        } else {
+            affScore = w.getAffinityPoints() * (affinity - w.getAffinityFloor()) / (w.getAffinityFull() - w.getAffinityFloor());
+        }
+        potency += affScore;
+
+        if (similarity >= w.getSimilarityHigh()) {
+            potency += w.getSimilarityHighPoints();
+            flags |= FLAG_MATURE_SCAFFOLD;
+        } else if (similarity >= w.getSimilarityMid()) {
+            potency += w.getSimilarityMidPoints();
+        } else {
+            potency += w.getSimilarityLowPoints();
+            flags |= FLAG_NOVEL_SCAFFOLD;
+        }
+
+        double le = -affinity / heavyAtoms;
+        if (le >= w.getLeThreshold()) {
+            potency += w.getLePoints();
+            flags |= FLAG_HIGH_LE;
+        }
+
+        // 成药性
+        double drug = 0.0;
+        if (absorption >= w.getAbsorptionGood()) {
+            drug += w.getAdmeGoodPoints();
+            flags |= FLAG_GOOD_ABSORPTION;
+        } else if (absorption >= w.getAbsorptionMid()) {
+            drug += w.getAdmeMidPoints();
+        } else {
+            drug += w.getAdmePoorPoints();
+            flags |= FLAG_POOR_ABSORPTION;
+        }
+
+        if (metabolism >= w.getMetabolismGood()) {
+            drug += w.getAdmeGoodPoints();
+            flags |= FLAG_STABLE_METABOLISM;
+        } else if (metabolism >= w.getMetabolismMid()) {
+            drug += w.getAdmeMidPoints();
+        } else {
+            drug += w.getAdmePoorPoints();
+            flags |= FLAG_UNSTABLE_METABOLISM;
+        }
+
+        if (logP >= w.getLogPMin() && logP <= w.getLogPMax()) {
+            drug += w.getLogPPoints();
+        } else if (logP >= w.getLogPSoftMin() && logP <= w.getLogPSoftMax()) {
+            drug += w.getLogPSoftPoints();
+        } else {
+            flags |= FLAG_POOR_LOGP;
+        }
+
+        if (molecularWeight >= w.getMwMin() && molecularWeight <= w.getMwMax()) {
+            drug += w.getMwPoints();
+        } else if (molecularWeight >= w.getMwSoftMin() && molecularWeight <= w.getMwSoftMax()) {
+            drug += w.getMwSoftPoints();
+        }
+
+        if (hbd <= w.getHbdMax() && hba <= w.getHbaMax()) {
+            drug += w.getLipinskiPoints();
+        } else {
+            drug += w.getLipinskiViolationPoints();
+        }
+
+        double total = 0.0;
+        total += safety;
+        total += potency;
+        total += drug;
+
+        out.safety = safety;
+        out.potency = potency;
+        out.druglikeness = drug;
+        out.total = Math.round(total * 10.0) / 10.0;
+        out.flags = flags;
+        return out;
+    }
+
+    /**
+     * 按标签位追加标签文字
+     */
+    public static void appendTags(ScoreCard card, List<String> tags) {
+        for (int bit = 0; bit < LABELS.length; bit++) {
+            if ((card.flags & (1 << bit)) != 0 && LABELS[bit] != null) {
+                tags.add(LABELS[bit]);
+            }
+        }
+    }
+
+    /**
+     * 追加专家建议文本
+     */
+    public static void appendAdvice(ScoreCard card, StringBuilder advice) {
+        if (card.vetoed) {
+            advice.append("❌ 严重警告：该分子 hERG 心脏毒性预测概率过高 (>").append(card.weights.getHergVeto())
+                    .append(")，存在致死性心律失常风险。根据安全一票否决制，系统已自动终止该分子的开发流程。\n");
+            return;
+        }
+        if (card.has(FLAG_AMES_POSITIVE)) {
+            advice.append("⚠️ 安全性：AMES 测试呈阳性，存在潜在致癌/致突变风险。\n");
+        }
+        if (card.has(FLAG_LIVER_TOXIC)) {
+            advice.append("⚠️ 安全性：预测存在肝损伤 (DILI) 风险。\n");
+        }
+        ScoringWeights w = card.weights;
+        advice.append(String.format("🛡️ 安全性得分：%.1f / %.1f\n", card.safety, w.getSafetyMax()));
+        advice.append(String.format("🎯 效能得分：%.1f / %.1f (Affinity: %.1f kcal/mol)\n",
+                card.potency, w.getPotencyMax(), card.affinity));
+        if (card.has(FLAG_POOR_ABSORPTION)) {
+            advice.append("⚠️ 成药性：吸收性较差，可能影响生物利用度。\n");
+        }
+        if (card.has(FLAG_UNSTABLE_METABOLISM)) {
+            advice.append("⚠️ 成药性：代谢不稳定，可能需要频繁给药。\n");
+        }
+        advice.append(String.format("💊 成药性得分：%.1f / %.1f (含吸收: %.2f, 代谢: %.2f)\n",
+                card.druglikeness, w.getDruglikenessMax(), card.absorption, card.metabolism));
+    }
+}
@@ -0,0 +1,191 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.entity.ScoringProfile;
+import com.drugscreen.platform.repository.ScoringProfileRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 评分方案管理
+ * 方案按名称保存多个版本（JSON 权重，保存后不再修改），全局只有一个生效版本。
+ * 生效方案缓存在内存中，激活后本节点立即切换，其他节点由定时检查在 reload-interval-ms 内切换，无需重启。
+ * 没有生效方案时使用内置规则（builtin）
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScoringProfileService {
+
+    public static final String BUILTIN = "builtin";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+
+    private static final Profile BUILTIN_PROFILE = new Profile(BUILTIN, 0, new ScoringWeights());
+
+    private final ScoringProfileRepository profileRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 已解析的方案版本（版本内容不可变，可以一直缓存）
+    private final Map<String, Profile> parsed = new ConcurrentHashMap<>();
+    private volatile Profile active = BUILTIN_PROFILE;
+
+    /**
+     * 已解析的评分方案版本
+     * @param name 方案名称
+     * @param version 版本号，内置规则为 0
+     * @param weights 权重与阈值，不要修改
+     */
+    public record Profile(String name, int version, ScoringWeights weights) {
+
+        /**
+         * 写入分析报告的方案标识，如 default@v2
+         */
+        public String label() {
+            return version == 0 ? name : name + "@v" + version;
+        }
+    }
+
+    /**
+     * 当前生效的方案
+     */
+    public Profile getActive() {
+        return active;
+    }
+
+    /**
+     * 查找方案版本
+     * @param name 方案名称，为空时返回生效方案，builtin 表示内置规则
+     * @param version 版本号，为空时取最新版本
+     */
+    public Profile resolve(String name, Integer version) {
+        if (name == null || name.isBlank()) {
+            return active;
+        }
+        if (BUILTIN.equals(name)) {
+            return BUILTIN_PROFILE;
+        }
+        ScoringProfile profile = (version != null
+                ? profileRepository.findByNameAndVersion(name, version)
+                : profileRepository.findFirstByNameOrderByVersionDesc(name))
+                .orElseThrow(() -> new RuntimeException("评分方案不存在: " + name + (version != null ? " v" + version : "")));
+        return toProfile(profile);
+    }
+
+    public List<ScoringProfile> listProfiles() {
+        return profileRepository.findAllByOrderByNameAscVersionDesc();
+    }
+
+    /**
+     * 保存方案的新版本（不生效）
+     * @param name 方案名称
+     * @param weights 与 ScoringWeights 字段同名的权重与阈值，未给出的取默认值
+     * @param description 说明
+     */
+    public ScoringProfile createVersion(String name, Map<String, Object> weights, String description) {
+        if (BUILTIN.equals(name)) {
+            throw new RuntimeException("方案名称 builtin 为内置规则保留");
+        }
+        String json;
+        try {
+            json = MAPPER.writeValueAsString(weights != null ? weights : Map.of());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("评分方案无法序列化: " + e.getOriginalMessage());
+        }
+        parse(json);
+
+        // 版本号由唯一约束 (name, version) 保证不重复，并发保存同名方案时后提交的失败
+        return transactionTemplate.execute(status -> {
+            int next = profileRepository.findFirstByNameOrderByVersionDesc(name)
+                    .map(p -> p.getVersion() + 1)
+                    .orElse(1);
+            ScoringProfile profile = new ScoringProfile();
+            profile.setName(name);
+            profile.setVersion(next);
+            profile.setWeightsJson(json);
+            profile.setDescription(description);
+            profile.setActive(false);
+            profile = profileRepository.save(profile);
+            log.info("保存评分方案: {} v{}", name, next);
+            return profile;
+        });
+    }
+
+    /**
+     * 激活方案版本，之后的评分使用该方案；name 为 builtin 时恢复内置规则
+     * @param version 版本号，为空时取最新版本
+     */
+    public Profile activate(String name, Integer version) {
+        Profile profile = resolve(name, version);
+        transactionTemplate.executeWithoutResult(status -> {
+            profileRepository.deactivateAll();
+            if (profile.version() > 0) {
+                ScoringProfile entity = profileRepository.findByNameAndVersion(profile.name(), profile.version())
+                        .orElseThrow(() -> new RuntimeException("评分方案不存在: " + profile.label()));
+                entity.setActive(true);
+                profileRepository.save(entity);
+            }
+        });
+        switchTo(profile);
+        return profile;
+    }
+
+    /**
+     * 从数据库重新读取生效方案；启动时与定时执行，也可由接口手动触发
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${scoring.profile.reload-interval-ms:30000}",
+            initialDelayString = "${scoring.profile.reload-interval-ms:30000}")
+    public void reload() {
+        try {
+            Profile profile = profileRepository.findFirstByActiveTrue()
+                    .map(this::toProfile)
+                    .orElse(BUILTIN_PROFILE);
+            switchTo(profile);
+        } catch (Exception e) {
+            // 方案读取或解析失败时保留当前方案
+            log.error("重新加载评分方案失败，继续使用 {}: {}", active.label(), e.getMessage());
+        }
+    }
+
+    private void switchTo(Profile profile) {
+        Profile previous = active;
+        active = profile;
+        if (!Objects.equals(previous.label(), profile.label())) {
+            log.info("评分方案切换: {} -> {}", previous.label(), profile.label());
+        }
+    }
+
+    private Profile toProfile(ScoringProfile entity) {
+        String key = entity.getName() + "@" + entity.getVersion();
+        return parsed.computeIfAbsent(key, k ->
+                new Profile(entity.getName(), entity.getVersion(), parse(entity.getWeightsJson())));
+    }
+
+    /**
+     * 解析并校验权重 JSON，未知字段视为错误（避免拼写错误被静默忽略）
+     */
+    static ScoringWeights parse(String json) {
+        ScoringWeights weights;
+        try {
+            weights = MAPPER.readValue(json, ScoringWeights.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("评分方案格式错误: " + e.getOriginalMessage());
+        }
+        weights.validate();
+        return weights;
+    }
+}
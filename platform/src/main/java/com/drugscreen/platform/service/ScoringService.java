@@ -1,5 +1,8 @@
 package com.drugscreen.platform.service;
 
+import com.drugscreen.platform.dto.RerankItemDTO;
+import com.drugscreen.platform.dto.RerankResultDTO;
+import com.drugscreen.platform.dto.ScoringBatchResultDTO;
 import com.drugscreen.platform.dto.ScoringResultDTO;
 import com.drugscreen.platform.entity.AdmetResult;
 import com.drugscreen.platform.entity.AnalysisReport;
@@ -9,13 +12,31 @@ import com.drugscreen.platform.repository.AdmetResultRepository;
 import com.drugscreen.platform.repository.AnalysisReportRepository;
 import com.drugscreen.platform.repository.CompoundRepository;
 import com.drugscreen.platform.repository.DockingResultRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -26,6 +47,54 @@ public class ScoringService {
     private final AnalysisReportRepository reportRepository;
     private final DockingResultRepository dockingResultRepository;
     private final AdmetResultRepository admetResultRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ScoringProfileService profileService;
+    private final ScoringInputCache inputCache;
+
+    // 一次联表读出评分所需的全部数据：化合物属性、ADMET 结果、最佳对接结果（可限定受体）
+    static final String LIBRARY_SQL =
+            "SELECT c.id, c.log_p, c.molecular_weight, c.hbd, c.hba, c.heavy_atom_count, d.affinity, d.similarity_score, " +
+            "a.herg_toxicity, a.ames_toxicity, a.liver_toxicity, a.absorption, a.metabolism, a.provenance, a.predictor " +
+            "FROM compounds c " +
+            "JOIN admet_results a ON a.compound_id = c.id " +
+            "JOIN LATERAL (SELECT r.affinity, r.similarity_score FROM docking_results r " +
+            "WHERE r.compound_id = c.id AND (CAST(? AS BIGINT) IS NULL OR r.protein_id = ?) " +
+            "ORDER BY r.affinity ASC NULLS LAST LIMIT 1) d ON TRUE " +
+            "WHERE c.log_p IS NOT NULL AND c.molecular_weight IS NOT NULL";
+
+    private static final String INSERT_REPORT_SQL =
+            "INSERT INTO analysis_reports (compound_id, total_score, potency_score, safety_score, druglikeness_score, " +
+            "is_vetoed, admet_provenance, scoring_profile, advice_tags, expert_advice, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${scoring.batch.chunk-size:2000}")
+    private int batchChunkSize; // 每个分块的化合物数（评分与写入的单位）
+
+    @Value("${scoring.batch.fetch-size:2000}")
+    private int fetchSize; // 流式读取时每次从数据库取回的行数
+
+    @Value("${scoring.batch.threads:0}")
+    private int configuredThreads; // 0 表示使用全部 CPU 核
+
+    private ExecutorService executor;
+    private int threads;
+
+    @PostConstruct
+    public void init() {
+        threads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger index = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "Scoring-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
 
     @Transactional
     public ScoringResultDTO analyze(Long compoundId) {
@@ -41,204 +110,311 @@ public class ScoringService {
         AdmetResult admetResult = admetResultRepository.findByCompoundId(compoundId)
                 .orElseThrow(() -> new RuntimeException("未找到ADMET结果"));
 
-        // 获取真实的 Vina 对接数据
-        double affinity = dockingResult.getAffinity() != null ? dockingResult.getAffinity() : -7.0;
-        double similarity = dockingResult.getSimilarityScore() != null ? dockingResult.getSimilarityScore() : 0.65;
-
-        // 获取真实的 ADMET 预测数据（五个维度）
-        double hergProb = admetResult.getHergToxicity() != null ? admetResult.getHergToxicity() : 0.1;
-        boolean amesPositive = admetResult.getAmesToxicity() != null && admetResult.getAmesToxicity() == 1;
-        boolean liverToxic = admetResult.getLiverToxicity() != null && admetResult.getLiverToxicity() == 1;
-        double absorption = admetResult.getAbsorption() != null ? admetResult.getAbsorption() : 0.7;
-        double metabolism = admetResult.getMetabolism() != null ? admetResult.getMetabolism() : 0.6;
-
-        // 分子属性
-        int hbd = compound.getHbd() != null ? compound.getHbd() : 3;
-        int hba = compound.getHba() != null ? compound.getHba() : 6;
-        int heavyAtoms = compound.getHeavyAtomCount() != null ? compound.getHeavyAtomCount() : 
-                         (int) (compound.getMolecularWeight() / 12);
+        // 4. 评分并保存报告
+        ScoringProfileService.Profile profile = profileService.getActive();
+        ScoringResultDTO result = score(ScoringInput.of(compound, dockingResult, admetResult), new ScoreCard(), profile.weights());
+        result.setScoringProfile(profile.label());
+        saveReport(result);
+        return result;
+    }
 
-        // --- 开始评分逻辑 (The Master Plan) ---
-        ScoringResultDTO result = new ScoringResultDTO();
-        result.setCompoundId(compoundId);
-        List<String> tags = new ArrayList<>();
-        StringBuilder advice = new StringBuilder();
+    /**
+     * 批量评分
+     * 一次联表查询流式读出化合物、最佳对接结果与 ADMET 结果，按分块交给线程池并行评分，
+     * 每个分块的报告在一个事务内批量写入；同时进行的分块数不超过线程数，读取与评分、写入重叠进行。
+     * 缺少对接结果、ADMET 结果或分子量/LogP 的化合物不评分
+     * @param compoundIds 化合物ID列表，为空时对整个化合物库评分
+     * @param proteinId 只取该受体上的最佳对接结果，为空时不限受体
+     */
+    public ScoringBatchResultDTO analyzeBatch(List<Long> compoundIds, Long proteinId) {
+        long start = System.currentTimeMillis();
+        boolean filtered = compoundIds != null && !compoundIds.isEmpty();
+        ScoringProfileService.Profile profile = profileService.getActive();
+        log.info("开始批量评分: 化合物={}, 受体={}, 方案={}", filtered ? compoundIds.size() : "全部", proteinId, profile.label());
+
+        BatchScoring batch = new BatchScoring(profile);
+        streamInputs(jdbcTemplate, transactionTemplate, compoundIds, proteinId, fetchSize, batch::add);
+        batch.finish();
+
+        ScoringBatchResultDTO dto = new ScoringBatchResultDTO();
+        dto.setScored(batch.scored.get());
+        dto.setVetoed(batch.vetoed.get());
+        dto.setMissing(filtered ? Math.max(0, (int) compoundIds.stream().distinct().count() - batch.scored.get()) : 0);
+        dto.setChunks(batch.chunks);
+        dto.setElapsedMillis(System.currentTimeMillis() - start);
+        log.info("批量评分完成: 评分={}, 熔断={}, 缺数据={}, 分块={}, 耗时 {} ms",
+                dto.getScored(), dto.getVetoed(), dto.getMissing(), dto.getChunks(), dto.getElapsedMillis());
+        return dto;
+    }
 
-        double totalScore = 0.0;
-
-        // =====================================================
-        // 模块二：ADMET 安全性 (Safety) —— 权重 35% (优先检查熔断)
-        // =====================================================
-        double safetyScore = 0.0;
-
-        // A. hERG 心脏毒性 (15分 + 熔断机制)
-        if (hergProb > 0.7) {
-            // --- 触发熔断 ---
-            result.setVetoed(true);
-            result.setTotalScore(0.0);
-            tags.add("⛔ hERG高危熔断");
-            advice.append("❌ 严重警告：该分子 hERG 心脏毒性预测概率过高 (>0.7)，存在致死性心律失常风险。根据安全一票否决制，系统已自动终止该分子的开发流程。\n");
-
-            // 即使熔断，也保存记录，但分数为0
-            saveReport(compoundId, 0.0, 0.0, 0.0, 0.0, tags, advice.toString());
-            result.setAdviceTags(tags);
-            result.setExpertAdvice(advice.toString());
-            return result; // 直接返回
-        } else if (hergProb < 0.3) {
-            safetyScore += 15.0;
-            tags.add("心脏安全性佳");
-        } else {
-            safetyScore += 5.0; // 中等风险
-            tags.add("hERG风险中等");
+    /**
+     * 按评分方案重新排名
+     * 评分输入取自内存缓存（首次或过期时从数据库整体加载一次，之后只刷新发生变更的化合物），
+     * 逐个调用评分内核并保留前 k 名，不生成报告文本、不写入 analysis_reports，用于比较不同方案的排名
+     * @param profileName 方案名称，为空时使用生效方案，builtin 表示内置规则
+     * @param version 方案版本，为空时取最新版本
+     * @param proteinId 只取该受体上的最佳对接结果，为空时不限受体
+     * @param k 返回的名次数
+     */
+    public RerankResultDTO rerank(String profileName, Integer version, Long proteinId, int k) {
+        long start = System.currentTimeMillis();
+        ScoringProfileService.Profile profile = profileService.resolve(profileName, version);
+        ScoringWeights weights = profile.weights();
+        Map<Long, ScoringInput> inputs = inputCache.get(proteinId);
+        long loaded = System.currentTimeMillis();
+
+        TopK top = new TopK(k);
+        ScoreCard card = new ScoreCard();
+        int vetoed = 0;
+        for (ScoringInput input : inputs.values()) {
+            evaluate(input, weights, card);
+            if (card.isVetoed()) {
+                vetoed++;
+            } else {
+                top.offer(input.compoundId(), card.getTotal());
+            }
         }
 
-        // B. AMES 致突变性 (10分)
-        if (!amesPositive) {
-            safetyScore += 10.0;
-        } else {
-            tags.add("致突变风险");
-            advice.append("⚠️ 安全性：AMES 测试呈阳性，存在潜在致癌/致突变风险。\n");
+        // 只为进入前 k 名的化合物生成标签
+        List<RerankItemDTO> items = new ArrayList<>(top.size());
+        int rank = 0;
+        for (TopK.Entry entry : top.sorted()) {
+            ScoringInput input = inputs.get(entry.id());
+            if (input == null) {
+                continue;
+            }
+            evaluate(input, weights, card);
+            RerankItemDTO item = new RerankItemDTO();
+            item.setRank(++rank);
+            item.setCompoundId(input.compoundId());
+            item.setTotalScore(card.getTotal());
+            item.setPotencyScore(card.getPotency());
+            item.setSafetyScore(card.getSafety());
+            item.setDruglikenessScore(card.getDruglikeness());
+            item.setAffinity(input.affinity());
+            List<String> tags = new ArrayList<>();
+            ScoringKernel.appendTags(card, tags);
+            item.setAdviceTags(tags);
+            items.add(item);
         }
 
-        // C. 肝毒性 (10分)
-        if (!liverToxic) {
-            safetyScore += 10.0;
-        } else {
-            tags.add("肝毒性风险");
-            advice.append("⚠️ 安全性：预测存在肝损伤 (DILI) 风险。\n");
-        }
+        RerankResultDTO dto = new RerankResultDTO();
+        dto.setScoringProfile(profile.label());
+        dto.setCandidates(inputs.size());
+        dto.setVetoed(vetoed);
+        dto.setCacheMillis(loaded - start);
+        dto.setElapsedMillis(System.currentTimeMillis() - start);
+        dto.setItems(items);
+        log.info("重新排名完成: 方案={}, 受体={}, 候选 {} 个, 熔断 {} 个, 耗时 {} ms（其中缓存 {} ms）",
+                dto.getScoringProfile(), proteinId, dto.getCandidates(), vetoed, dto.getElapsedMillis(), dto.getCacheMillis());
+        return dto;
+    }
 
-        advice.append(String.format("🛡️ 安全性得分：%.1f / 35.0\n", safetyScore));
-        totalScore += safetyScore;
-
-
-        // =====================================================
-        // 模块一：生物活性与效能 (Potency) —— 权重 45%
-        // =====================================================
-        double potencyScore = 0.0;
-
-        // A. 分子对接亲和力 (30分) - 线性插值
-        // 范围: -10 (满分) 到 -6 (0分)
-        double affScore = 0.0;
-        if (affinity <= -10.0) {
-            affScore = 30.0;
-            tags.add("🌟 极强结合");
-        } else if (affinity > -6.0) {
-            affScore = 0.0;
-            tags.add("结合力弱");
-        } else {
-            // 线性插值公式: Score = 30 * (x - (-6)) / (-10 - (-6))
-            affScore = 30.0 * (affinity - (-6.0)) / (-4.0);
-        }
-        potencyScore += affScore;
-
-        // B. 结构相似性 (10分)
-        if (similarity >= 0.7) {
-            potencyScore += 10.0;
-            tags.add("骨架成熟"); // 类似 Palbociclib
-        } else if (similarity >= 0.5) {
-            potencyScore += 5.0;
-        } else {
-            potencyScore += 2.0;
-            tags.add("💡 骨架新颖"); // 鼓励创新
+    /**
+     * 批量评分的分块调度：读取线程攒满一个分块后交给线程池评分并写入，信号量限制同时进行的分块数
+     */
+    private class BatchScoring {
+
+        private final ScoringProfileService.Profile profile;
+        private final Semaphore permits = new Semaphore(threads);
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        private final AtomicInteger scored = new AtomicInteger();
+        private final AtomicInteger vetoed = new AtomicInteger();
+        private List<ScoringInput> buffer = new ArrayList<>(batchChunkSize);
+        private int chunks;
+
+        BatchScoring(ScoringProfileService.Profile profile) {
+            this.profile = profile;
         }
 
-        // C. 配体效率 LE (5分)
-        double le = -affinity / heavyAtoms;
-        if (le >= 0.3) {
-            potencyScore += 5.0;
-            tags.add("高配体效率");
+        void add(ScoringInput input) {
+            buffer.add(input);
+            if (buffer.size() >= batchChunkSize) {
+                dispatch();
+            }
         }
 
-        advice.append(String.format("🎯 效能得分：%.1f / 45.0 (Affinity: %.1f kcal/mol)\n", potencyScore, affinity));
-        totalScore += potencyScore;
-
-
-        // =====================================================
-        // 模块三：理化性质与成药性 (Drug-Likeness) —— 权重 20%
-        // =====================================================
-        double drugLikenessScore = 0.0;
-        
-        // 新增：ADMET 吸收和代谢评分（融入成药性评估）
-        // D. 吸收性 Absorption (5分)
-        if (absorption >= 0.7) {
-            drugLikenessScore += 5.0;
-            tags.add("吸收性优");
-        } else if (absorption >= 0.5) {
-            drugLikenessScore += 3.0;
-        } else {
-            drugLikenessScore += 1.0;
-            advice.append("⚠️ 成药性：吸收性较差，可能影响生物利用度。\n");
-        }
-        
-        // E. 代谢稳定性 Metabolism (5分)
-        if (metabolism >= 0.7) {
-            drugLikenessScore += 5.0;
-            tags.add("代谢稳定");
-        } else if (metabolism >= 0.5) {
-            drugLikenessScore += 3.0;
-        } else {
-            drugLikenessScore += 1.0;
-            advice.append("⚠️ 成药性：代谢不稳定，可能需要频繁给药。\n");
+        void finish() {
+            if (!buffer.isEmpty()) {
+                dispatch();
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
         }
 
-        // F. LogP (5分) - 调整权重以平衡新增的吸收和代谢评分
-        double logP = compound.getLogP();
-        if (logP >= 0 && logP <= 3) {
-            drugLikenessScore += 5.0;
-        } else if ((logP > 3 && logP <= 4) || (logP >= -1 && logP < 0)) {
-            drugLikenessScore += 3.0;
-        } else {
-            tags.add("LogP不佳");
+        private void dispatch() {
+            List<ScoringInput> chunk = buffer;
+            buffer = new ArrayList<>(batchChunkSize);
+            chunks++;
+            permits.acquireUninterruptibly();
+            futures.add(CompletableFuture.runAsync(() -> {
+                List<ScoringResultDTO> results = new ArrayList<>(chunk.size());
+                ScoreCard card = new ScoreCard();
+                for (ScoringInput input : chunk) {
+                    ScoringResultDTO result = score(input, card, profile.weights());
+                    result.setScoringProfile(profile.label());
+                    if (Boolean.TRUE.equals(result.getVetoed())) {
+                        vetoed.incrementAndGet();
+                    }
+                    results.add(result);
+                }
+                saveReports(results);
+                scored.addAndGet(results.size());
+            }, executor).whenComplete((v, e) -> permits.release()));
         }
+    }
 
-        // G. 分子量 MW (3分)
-        double mw = compound.getMolecularWeight();
-        if (mw >= 300 && mw <= 500) {
-            drugLikenessScore += 3.0;
-        } else if ((mw >= 250 && mw < 300) || (mw > 500 && mw <= 550)) {
-            drugLikenessScore += 2.0;
-        }
+    /**
+     * 流式读取评分输入
+     * 流式读取需要在事务内进行，PostgreSQL 驱动才会按 fetchSize 分批取回而不是一次读入全部结果
+     * @param compoundIds 化合物ID列表，为空时读取整个化合物库
+     * @param proteinId 只取该受体上的最佳对接结果，为空时不限受体
+     */
+    static void streamInputs(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, List<Long> compoundIds,
+                             Long proteinId, int fetchSize, Consumer<ScoringInput> sink) {
+        boolean filtered = compoundIds != null && !compoundIds.isEmpty();
+        String sql = filtered ? LIBRARY_SQL + " AND c.id = ANY(?)" : LIBRARY_SQL;
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, proteinId);
+            ps.setObject(2, proteinId);
+            if (filtered) {
+                ps.setArray(3, con.createArrayOf("bigint", compoundIds.toArray()));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> sink.accept(readInput(rs))));
+    }
 
-        // H. 氢键 (2分)
-        if (hbd <= 5 && hba <= 10) {
-            drugLikenessScore += 2.0;
-        } else {
-            drugLikenessScore += 1.0;
-        }
+    private static ScoringInput readInput(ResultSet rs) throws SQLException {
+        return new ScoringInput(
+                rs.getLong("id"),
+                rs.getObject("log_p", Double.class),
+                rs.getObject("molecular_weight", Double.class),
+                rs.getObject("hbd", Integer.class),
+                rs.getObject("hba", Integer.class),
+                rs.getObject("heavy_atom_count", Integer.class),
+                rs.getObject("affinity", Double.class),
+                rs.getObject("similarity_score", Double.class),
+                rs.getObject("herg_toxicity", Double.class),
+                rs.getObject("ames_toxicity", Integer.class),
+                rs.getObject("liver_toxicity", Integer.class),
+                rs.getObject("absorption", Double.class),
+                rs.getObject("metabolism", Double.class),
+                rs.getString("provenance"),
+                rs.getString("predictor"));
+    }
+
+    /**
+     * 在一个事务内批量写入分析报告
+     */
+    private void saveReports(List<ScoringResultDTO> results) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_REPORT_SQL, results, results.size(), (ps, r) -> {
+                    ps.setLong(1, r.getCompoundId());
+                    ps.setDouble(2, r.getTotalScore());
+                    ps.setDouble(3, zeroIfNull(r.getPotencyScore()));
+                    ps.setDouble(4, zeroIfNull(r.getSafetyScore()));
+                    ps.setDouble(5, zeroIfNull(r.getDruglikenessScore()));
+                    ps.setBoolean(6, r.getVetoed());
+                    ps.setString(7, r.getAdmetProvenance());
+                    ps.setString(8, r.getScoringProfile());
+                    ps.setArray(9, ps.getConnection().createArrayOf("text", r.getAdviceTags().toArray()));
+                    ps.setString(10, r.getExpertAdvice());
+                    ps.setTimestamp(11, now);
+                }));
+    }
 
-        advice.append(String.format("💊 成药性得分：%.1f / 20.0 (含吸收: %.2f, 代谢: %.2f)\n", 
-                drugLikenessScore, absorption, metabolism));
-        totalScore += drugLikenessScore;
+    /**
+     * 按内置评分规则计算得分、标签与建议，不访问数据库
+     */
+    static ScoringResultDTO score(ScoringInput in) {
+        return score(in, new ScoreCard(), ScoringKernel.DEFAULT_WEIGHTS);
+    }
+
+    /**
+     * 按指定权重评分，复用调用方提供的 ScoreCard（批量评分时每个分块一个）
+     */
+    static ScoringResultDTO score(ScoringInput in, ScoreCard card, ScoringWeights weights) {
+        evaluate(in, weights, card);
 
-        // --- 最终汇总 ---
-        // 保留一位小数
-        totalScore = Math.round(totalScore * 10.0) / 10.0;
+        ScoringResultDTO result = new ScoringResultDTO();
+        result.setCompoundId(in.compoundId());
+        List<String> tags = new ArrayList<>();
+        StringBuilder advice = new StringBuilder();
+
+        // ADMET 服务不可用时写入的降级数据，安全性与成药性分仅供参考
+        String provenance = in.admetProvenance() != null ? in.admetProvenance() : AdmetService.PROVENANCE_REAL;
+        result.setAdmetProvenance(provenance);
+        if (AdmetService.PROVENANCE_DEFAULTED.equals(provenance)) {
+            tags.add("ADMET数据为默认值");
+            advice.append("⚠️ 数据来源：ADMET 服务不可用，安全性与成药性按默认值估算，服务恢复后请重新预测。\n");
+        } else if (AdmetService.PROVENANCE_STALE.equals(provenance)) {
+            tags.add("ADMET数据已过期");
+            advice.append("⚠️ 数据来源：ADMET 服务不可用，安全性与成药性使用了过期的历史预测，服务恢复后请重新预测。\n");
+        }
+        result.setAdmetPredictor(in.admetPredictor() != null ? in.admetPredictor() : RemoteAdmetPredictor.NAME);
+        if (LocalRuleAdmetPredictor.NAME.equals(in.admetPredictor())) {
+            tags.add("ADMET为本地规则估算");
+        }
 
-        result.setTotalScore(totalScore);
-        result.setPotencyScore(potencyScore);
-        result.setSafetyScore(safetyScore);
-        result.setDruglikenessScore(drugLikenessScore);
-        result.setVetoed(false);
+        ScoringKernel.appendTags(card, tags);
+        ScoringKernel.appendAdvice(card, advice);
         result.setAdviceTags(tags);
         result.setExpertAdvice(advice.toString());
+        result.setVetoed(card.isVetoed());
+        result.setTotalScore(card.getTotal());
+        // 熔断时分项得分不计算
+        if (!card.isVetoed()) {
+            result.setPotencyScore(card.getPotency());
+            result.setSafetyScore(card.getSafety());
+            result.setDruglikenessScore(card.getDruglikeness());
+        }
+        return result;
+    }
 
-        // 保存到数据库
-        saveReport(compoundId, totalScore, potencyScore, safetyScore, drugLikenessScore, tags, advice.toString());
+    /**
+     * 补全缺失输入的默认值后调用评分内核，只计算得分与标签位
+     */
+    static ScoreCard evaluate(ScoringInput in, ScoringWeights weights, ScoreCard card) {
+        // 获取真实的 Vina 对接数据
+        double affinity = in.affinity() != null ? in.affinity() : -7.0;
+        double similarity = in.similarity() != null ? in.similarity() : 0.65;
 
-        return result;
+        // 获取真实的 ADMET 预测数据（五个维度）
+        double hergProb = in.hergToxicity() != null ? in.hergToxicity() : 0.1;
+        boolean amesPositive = in.amesToxicity() != null && in.amesToxicity() == 1;
+        boolean liverToxic = in.liverToxicity() != null && in.liverToxicity() == 1;
+        double absorption = in.absorption() != null ? in.absorption() : 0.7;
+        double metabolism = in.metabolism() != null ? in.metabolism() : 0.6;
+
+        // 分子属性
+        int hbd = in.hbd() != null ? in.hbd() : 3;
+        int hba = in.hba() != null ? in.hba() : 6;
+        int heavyAtoms = in.heavyAtomCount() != null ? in.heavyAtomCount() :
+                         (int) (in.molecularWeight() / 12);
+
+        return ScoringKernel.score(affinity, similarity, hergProb, amesPositive, liverToxic,
+                absorption, metabolism, in.logP(), in.molecularWeight(), hbd, hba, heavyAtoms, weights, card);
     }
 
-    private void saveReport(Long compoundId, Double total, Double potency, Double safety, Double drug, List<String> tags, String advice) {
+    private void saveReport(ScoringResultDTO result) {
         AnalysisReport report = new AnalysisReport();
-        report.setCompoundId(compoundId);
-        report.setTotalScore(total);
-        report.setPotencyScore(potency);
-        report.setSafetyScore(safety);
-        report.setDruglikenessScore(drug);
-        report.setIsVetoed(total == 0.0); // 如果总分为0，说明被熔断了
-        report.setAdviceTags(tags);
-        report.setExpertAdvice(advice);
+        report.setCompoundId(result.getCompoundId());
+        report.setTotalScore(result.getTotalScore());
+        report.setPotencyScore(zeroIfNull(result.getPotencyScore()));
+        report.setSafetyScore(zeroIfNull(result.getSafetyScore()));
+        report.setDruglikenessScore(zeroIfNull(result.getDruglikenessScore()));
+        report.setIsVetoed(result.getVetoed());
+        report.setAdviceTags(result.getAdviceTags());
+        report.setExpertAdvice(result.getExpertAdvice());
+        report.setAdmetProvenance(result.getAdmetProvenance());
+        report.setScoringProfile(result.getScoringProfile());
         reportRepository.save(report);
     }
+
+    // 熔断时分项得分为空，报告中记为 0
+    private static double zeroIfNull(Double value) {
+        return value != null ? value : 0.0;
+    }
 }
@@ -0,0 +1,97 @@
+package com.drugscreen.platform.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+/**
+ * 评分权重与阈值
+ * 字段默认值即内置评分规则（安全性 35 / 效能 45 / 成药性 20）；评分方案以 JSON 保存，未给出的字段取默认值
+ */
+@Data
+public class ScoringWeights {
+
+    // 安全性
+    private double hergVeto = 0.7;          // hERG 概率高于该值一票否决
+    private double hergSafe = 0.3;          // hERG 概率低于该值为安全
+    private double hergSafePoints = 15.0;
+    private double hergModeratePoints = 5.0;
+    private double amesPoints = 10.0;       // Ames 阴性得分
+    private double liverPoints = 10.0;      // 无肝毒性得分
+
+    // 效能
+    private double affinityFull = -10.0;    // 亲和力不高于该值得满分
+    private double affinityFloor = -6.0;    // 亲和力高于该值得 0 分，两者之间线性插值
+    private double affinityPoints = 30.0;
+    private double similarityHigh = 0.7;
+    private double similarityMid = 0.5;
+    private double similarityHighPoints = 10.0;
+    private double similarityMidPoints = 5.0;
+    private double similarityLowPoints = 2.0;
+    private double leThreshold = 0.3;       // 配体效率（-亲和力/重原子数）阈值
+    private double lePoints = 5.0;
+
+    // 成药性
+    private double absorptionGood = 0.7;
+    private double absorptionMid = 0.5;
+    private double metabolismGood = 0.7;
+    private double metabolismMid = 0.5;
+    private double admeGoodPoints = 5.0;    // 吸收、代谢各自的分档得分
+    private double admeMidPoints = 3.0;
+    private double admePoorPoints = 1.0;
+    private double logPMin = 0.0;           // 最佳 LogP 窗口
+    private double logPMax = 3.0;
+    private double logPSoftMin = -1.0;      // 次佳 LogP 窗口
+    private double logPSoftMax = 4.0;
+    private double logPPoints = 5.0;
+    private double logPSoftPoints = 3.0;
+    private double mwMin = 300.0;           // 最佳分子量窗口
+    private double mwMax = 500.0;
+    private double mwSoftMin = 250.0;       // 次佳分子量窗口
+    private double mwSoftMax = 550.0;
+    private double mwPoints = 3.0;
+    private double mwSoftPoints = 2.0;
+    private int hbdMax = 5;                 // Lipinski 氢键供体上限
+    private int hbaMax = 10;                // Lipinski 氢键受体上限
+    private double lipinskiPoints = 2.0;
+    private double lipinskiViolationPoints = 1.0;
+
+    @JsonIgnore
+    public double getSafetyMax() {
+        return hergSafePoints + amesPoints + liverPoints;
+    }
+
+    @JsonIgnore
+    public double getPotencyMax() {
+        return affinityPoints + similarityHighPoints + lePoints;
+    }
+
+    @JsonIgnore
+    public double getDruglikenessMax() {
+        return 2 * admeGoodPoints + logPPoints + mwPoints + lipinskiPoints;
+    }
+
+    /**
+     * 检查阈值的先后关系与得分是否为非负数
+     */
+    public void validate() {
+        check(hergSafe <= hergVeto, "hergSafe 不能大于 hergVeto");
+        check(affinityFull < affinityFloor, "affinityFull 必须小于 affinityFloor（亲和力越负越强）");
+        check(similarityMid <= similarityHigh, "similarityMid 不能大于 similarityHigh");
+        check(absorptionMid <= absorptionGood, "absorptionMid 不能大于 absorptionGood");
+        check(metabolismMid <= metabolismGood, "metabolismMid 不能大于 metabolismGood");
+        check(logPSoftMin <= logPMin && logPMin <= logPMax && logPMax <= logPSoftMax, "LogP 窗口须满足 logPSoftMin ≤ logPMin ≤ logPMax ≤ logPSoftMax");
+        check(mwSoftMin <= mwMin && mwMin <= mwMax && mwMax <= mwSoftMax, "分子量窗口须满足 mwSoftMin ≤ mwMin ≤ mwMax ≤ mwSoftMax");
+        double[] points = {hergSafePoints, hergModeratePoints, amesPoints, liverPoints, affinityPoints,
+                similarityHighPoints, similarityMidPoints, similarityLowPoints, lePoints, admeGoodPoints, admeMidPoints,
+                admePoorPoints, logPPoints, logPSoftPoints, mwPoints, mwSoftPoints, lipinskiPoints, lipinskiViolationPoints};
+        for (double p : points) {
+            check(p >= 0 && !Double.isNaN(p) && !Double.isInfinite(p), "得分不能为负数或非有限值");
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new RuntimeException("评分方案无效: " + message);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.dto.ScreeningRunDTO;
+import com.drugscreen.platform.repository.DockingJobRepository;
+import com.drugscreen.platform.repository.ScreeningRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 虚拟筛选进度跟踪
+ * 由创建（或恢复）批次的节点在内存中维护进行中批次的计数：本节点执行的任务结束时即时累加，
+ * 并定期以 docking_jobs 表中的任务状态为准刷新（任务可能由其他工作节点执行），
+ * 全部任务结束后标记批次完成；漏斗批次初筛结束时转入复筛阶段并通知分发
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScreeningProgressTracker {
+
+    private final ScreeningRunRepository screeningRunRepository;
+    private final DockingJobRepository dockingJobRepository;
+    private final DockingResultWriter dockingResultWriter;
+    private final DockingEventHub dockingEventHub;
+
+    private final Map<Long, RunProgress> active = new ConcurrentHashMap<>();
+    private final List<Consumer<Long>> nextStageListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 注册漏斗批次进入复筛阶段的通知，参数为批次 ID
+     */
+    public void onNextStage(Consumer<Long> listener) {
+        nextStageListeners.add(listener);
+    }
+
+    public void register(Long runId) {
+        active.put(runId, new RunProgress());
+    }
+
+    /**
+     * 重启后按数据库中的任务状态恢复进行中批次的计数
+     */
+    public void restore(Long runId) {
+        RunProgress progress = new RunProgress();
+        loadCounts(runId, progress);
+        active.put(runId, progress);
+    }
+
+    /**
+     * 记录新分发的任务数
+     */
+    public void addDispatched(Long runId, int count) {
+        RunProgress progress = active.get(runId);
+        if (progress != null) {
+            progress.total.addAndGet(count);
+        }
+    }
+
+    /**
+     * 分发结束，此后任务全部结束即可标记批次完成
+     */
+    public void dispatchFinished(Long runId) {
+        RunProgress progress = active.get(runId);
+        if (progress != null) {
+            progress.dispatchDone = true;
+            completeIfDone(runId, progress);
+        }
+    }
+
+    /**
+     * 本节点执行的对接任务结束
+     */
+    public void onJobFinished(Long runId, boolean success) {
+        RunProgress progress = active.get(runId);
+        if (progress == null) {
+            return;
+        }
+        if (success) {
+            progress.completed.incrementAndGet();
+        } else {
+            progress.failed.incrementAndGet();
+        }
+        completeIfDone(runId, progress);
+    }
+
+    /**
+     * 获取进行中批次的实时进度，批次已结束或不由本节点跟踪时返回 null
+     */
+    public RunProgress get(Long runId) {
+        return active.get(runId);
+    }
+
+    /**
+     * 定期以数据库中的任务状态刷新计数并写回批次
+     * 先写出缓冲中的对接结果，计数只增不减：刷新期间本节点刚结束、尚未写库的任务不会被覆盖回去
+     */
+    @Scheduled(fixedDelayString = "${screening.progress.persist-interval-ms:5000}")
+    public void persist() {
+        if (active.isEmpty()) {
+            return;
+        }
+        dockingResultWriter.flush();
+        active.forEach((runId, progress) -> {
+            mergeCounts(runId, progress);
+            screeningRunRepository.updateCounts(runId,
+                    progress.total.get(), progress.completed.get(), progress.failed.get());
+            completeIfDone(runId, progress);
+        });
+    }
+
+    private void completeIfDone(Long runId, RunProgress progress) {
+        if (!progress.dispatchDone || progress.completed.get() + progress.failed.get() < progress.total.get()) {
+            return;
+        }
+        if (progress.finished.get()) {
+            return;
+        }
+
+        // 先写出缓冲中的对接结果，再以数据库中的任务状态确认全部结束
+        dockingResultWriter.flush();
+        loadCounts(runId, progress);
+        if (progress.completed.get() + progress.failed.get() < progress.total.get()
+                || !progress.finished.compareAndSet(false, true)) {
+            return;
+        }
+
+        // 漏斗批次初筛结束：转入复筛，等复筛任务分发完再判断完成
+        if (screeningRunRepository.advanceFunnelStage(runId) > 0) {
+            progress.dispatchDone = false;
+            progress.finished.set(false);
+            log.info("漏斗筛选初筛完成，进入复筛阶段: runId={}, 初筛任务数={}", runId, progress.total.get());
+            nextStageListeners.forEach(listener -> listener.accept(runId));
+            return;
+        }
+
+        screeningRunRepository.findById(runId).ifPresent(run -> {
+            run.setTotal(progress.total.get());
+            run.setCompleted(progress.completed.get());
+            run.setFailed(progress.failed.get());
+            run.setStatus("COMPLETED");
+            run.setFinishedAt(LocalDateTime.now());
+            screeningRunRepository.save(run);
+        });
+        active.remove(runId);
+
+        ScreeningRunDTO summary = new ScreeningRunDTO();
+        summary.setRunId(runId);
+        summary.setStatus("COMPLETED");
+        summary.setTotal(progress.total.get());
+        summary.setCompleted(progress.completed.get());
+        summary.setFailed(progress.failed.get());
+        summary.setPending(0);
+        summary.setFinishedAt(LocalDateTime.now());
+        dockingEventHub.publishRunCompleted(runId, summary);
+        log.info("虚拟筛选批次完成: runId={}, 总数={}, 成功={}, 失败={}", runId,
+                progress.total.get(), progress.completed.get(), progress.failed.get());
+    }
+
+    /**
+     * 按 docking_jobs 中的任务状态统计批次计数
+     */
+    private void loadCounts(Long runId, RunProgress progress) {
+        int[] counts = countJobs(runId);
+        progress.total.set(counts[0]);
+        progress.completed.set(counts[1]);
+        progress.failed.set(counts[2]);
+    }
+
+    /**
+     * 与 docking_jobs 中的任务状态合并，各计数取较大值（数据库中的计数不会减少）
+     */
+    private void mergeCounts(Long runId, RunProgress progress) {
+        int[] counts = countJobs(runId);
+        progress.total.accumulateAndGet(counts[0], Math::max);
+        progress.completed.accumulateAndGet(counts[1], Math::max);
+        progress.failed.accumulateAndGet(counts[2], Math::max);
+    }
+
+    /**
+     * @return {总数, 成功数, 失败数}
+     */
+    private int[] countJobs(Long runId) {
+        int total = 0;
+        int completed = 0;
+        int failed = 0;
+        for (Object[] row : dockingJobRepository.countByStatus(runId)) {
+            String status = (String) row[0];
+            int count = ((Number) row[1]).intValue();
+            total += count;
+            if (DockingJobQueue.DONE.equals(status)) {
+                completed += count;
+            } else if (DockingJobQueue.FAILED.equals(status) || DockingJobQueue.CANCELLED.equals(status)) {
+                failed += count;
+            }
+        }
+        return new int[]{total, completed, failed};
+    }
+
+    /**
+     * 批次实时计数
+     */
+    public static class RunProgress {
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile boolean dispatchDone;
+
+        public int getTotal() {
+            return total.get();
+        }
+
+        public int getCompleted() {
+            return completed.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+    }
+}
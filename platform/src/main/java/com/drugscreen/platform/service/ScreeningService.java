@@ -0,0 +1,338 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.dto.ScreeningRunDTO;
+import com.drugscreen.platform.dto.ScreeningRunRequest;
+import com.drugscreen.platform.entity.ScreeningRun;
+import com.drugscreen.platform.repository.CompoundRepository;
+import com.drugscreen.platform.repository.DockingResultRepository;
+import com.drugscreen.platform.repository.ProteinRepository;
+import com.drugscreen.platform.repository.ScreeningRunRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 虚拟筛选服务
+ * 将一组化合物（全部、按分类或按 ID 列表）分块分发到对接调度器，并汇总整体进度。
+ * 漏斗模式下先以低穷举度初筛全部化合物，初筛结束后每个受体只取排名靠前的候选以高穷举度复筛，
+ * 两个阶段的结果都保留在 docking_results 中（stage 区分）
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScreeningService {
+
+    private final ScreeningRunRepository screeningRunRepository;
+    private final CompoundRepository compoundRepository;
+    private final DockingService dockingService;
+    private final ScreeningProgressTracker progressTracker;
+    private final ProteinService proteinService;
+    private final ProteinRepository proteinRepository;
+    private final DockingEventHub dockingEventHub;
+    private final DockingJobQueue dockingJobQueue;
+    private final DockingResultRepository dockingResultRepository;
+    private final ObjectProvider<ScreeningService> selfProvider;
+
+    public static final String MODE_STANDARD = "STANDARD";
+    public static final String MODE_FUNNEL = "FUNNEL";
+
+    /** 漏斗初筛阶段 */
+    public static final int STAGE_SCREEN = 1;
+
+    /** 漏斗复筛阶段 */
+    public static final int STAGE_REFINE = 2;
+
+    @Value("${screening.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${screening.funnel.screen-exhaustiveness:4}")
+    private int screenExhaustiveness; // 初筛穷举度
+
+    @Value("${screening.funnel.refine-exhaustiveness:16}")
+    private int refineExhaustiveness; // 复筛穷举度
+
+    @Value("${screening.funnel.refine-top-percent:10}")
+    private double defaultRefineTopPercent; // 未指定复筛条件时每个受体复筛的百分比
+
+    @PostConstruct
+    public void init() {
+        // 漏斗批次初筛结束后异步分发复筛任务
+        progressTracker.onNextStage(runId -> self().fanOut(runId));
+    }
+
+    // 通过代理调用自身的 @Async 方法
+    private ScreeningService self() {
+        return selfProvider.getObject();
+    }
+
+    /**
+     * 创建筛选批次（仅落库，分发由 {@link #fanOut} 异步完成）
+     */
+    public ScreeningRun createRun(ScreeningRunRequest request) {
+        String selection = request.getSelection().trim().toUpperCase();
+        ScreeningRun run = new ScreeningRun();
+        run.setSelectionType(selection);
+
+        switch (selection) {
+            case "ALL" -> run.setSelectionValue(null);
+            case "CATEGORY" -> {
+                if (request.getCategory() == null || request.getCategory().isBlank()) {
+                    throw new RuntimeException("按分类筛选时 category 不能为空");
+                }
+                run.setSelectionValue(request.getCategory());
+            }
+            case "IDS" -> {
+                if (request.getCompoundIds() == null || request.getCompoundIds().isEmpty()) {
+                    throw new RuntimeException("按ID筛选时 compoundIds 不能为空");
+                }
+                run.setSelectionValue(new LinkedHashSet<>(request.getCompoundIds()).stream()
+                        .map(String::valueOf).collect(Collectors.joining(",")));
+            }
+            default -> throw new RuntimeException("不支持的选择方式: " + request.getSelection());
+        }
+        run.setProteinIds(resolveProteinIds(request).stream()
+                .map(String::valueOf).collect(Collectors.joining(",")));
+        applyMode(run, request);
+        run.setPriority(request.getPriority() != null ? request.getPriority() : DockingScheduler.PRIORITY_BATCH);
+        run.setDispatchCursor(0L);
+        run.setDispatchDone(false);
+        run.setOwnerNode(dockingJobQueue.getNodeId());
+
+        run.setStatus("RUNNING");
+        run.setTotal(0);
+        run.setCompleted(0);
+        run.setFailed(0);
+        run = screeningRunRepository.save(run);
+        progressTracker.register(run.getId());
+        log.info("创建虚拟筛选批次: runId={}, selection={}", run.getId(), selection);
+        return run;
+    }
+
+    /**
+     * 校验并记录筛选模式与漏斗复筛条件
+     */
+    private void applyMode(ScreeningRun run, ScreeningRunRequest request) {
+        String mode = request.getMode() == null || request.getMode().isBlank()
+                ? MODE_STANDARD : request.getMode().trim().toUpperCase();
+        if (MODE_STANDARD.equals(mode)) {
+            run.setMode(MODE_STANDARD);
+            return;
+        }
+        if (!MODE_FUNNEL.equals(mode)) {
+            throw new RuntimeException("不支持的筛选模式: " + request.getMode());
+        }
+        if (request.getRefineTopN() != null && request.getRefineTopN() <= 0) {
+            throw new RuntimeException("refineTopN 必须大于 0");
+        }
+        if (request.getRefineTopPercent() != null
+                && (request.getRefineTopPercent() <= 0 || request.getRefineTopPercent() > 100)) {
+            throw new RuntimeException("refineTopPercent 必须在 (0, 100] 范围内");
+        }
+        run.setMode(MODE_FUNNEL);
+        run.setFunnelStage(STAGE_SCREEN);
+        run.setRefineTopN(request.getRefineTopN());
+        run.setRefineTopPercent(request.getRefineTopPercent());
+        run.setRefineMaxAffinity(request.getRefineMaxAffinity());
+        if (request.getRefineTopN() == null && request.getRefineTopPercent() == null
+                && request.getRefineMaxAffinity() == null) {
+            run.setRefineTopPercent(defaultRefineTopPercent);
+        }
+    }
+
+    /**
+     * 解析并校验受体列表，未指定时使用默认受体
+     */
+    private List<Long> resolveProteinIds(ScreeningRunRequest request) {
+        if (request.getProteinIds() == null || request.getProteinIds().isEmpty()) {
+            return List.of(proteinService.getDefaultProteinId());
+        }
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(request.getProteinIds()));
+        List<Long> existing = proteinRepository.findExistingIds(requested);
+        if (existing.size() != requested.size()) {
+            requested.removeAll(existing);
+            throw new RuntimeException("受体蛋白不存在: " + requested);
+        }
+        return existing;
+    }
+
+    /**
+     * 重启后恢复本节点创建的进行中批次：按数据库中的任务状态恢复计数，未分发完的从分发进度继续
+     */
+    public void resumeRuns() {
+        String nodeId = dockingJobQueue.getNodeId();
+        for (ScreeningRun run : screeningRunRepository.findByStatus("RUNNING")) {
+            // 其他节点创建的批次由其自身恢复，避免重复分发
+            if (run.getOwnerNode() != null && !run.getOwnerNode().equals(nodeId)) {
+                continue;
+            }
+            progressTracker.restore(run.getId());
+            log.info("恢复虚拟筛选批次: runId={}, 已分发完={}", run.getId(), run.getDispatchDone());
+
+            if (Boolean.TRUE.equals(run.getDispatchDone())) {
+                progressTracker.dispatchFinished(run.getId());
+            } else {
+                self().fanOut(run.getId());
+            }
+        }
+    }
+
+    /**
+     * 按块分发对接任务，每块化合物对每个受体各提交一次（化合物 × 受体）
+     * 每块与分发进度在同一事务中提交，中断后从上次的进度继续；漏斗批次处于复筛阶段时分发复筛任务
+     */
+    @Async("asyncExecutor")
+    public void fanOut(Long runId) {
+        ScreeningRun run = screeningRunRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("筛选批次不存在: " + runId));
+        int priority = run.getPriority() != null ? run.getPriority() : DockingScheduler.PRIORITY_BATCH;
+        List<Long> proteinIds = parseIds(run.getProteinIds());
+        if (proteinIds.isEmpty()) {
+            proteinIds = List.of(proteinService.getDefaultProteinId());
+        }
+        String selection = run.getSelectionType();
+        long cursor = run.getDispatchCursor() != null ? run.getDispatchCursor() : 0L;
+        boolean funnel = MODE_FUNNEL.equals(run.getMode());
+        Integer stage = funnel ? STAGE_SCREEN : null;
+        int exhaustiveness = funnel ? screenExhaustiveness : DockingService.EXHAUSTIVENESS;
+        int dispatched = 0;
+
+        try {
+            if (funnel && Integer.valueOf(STAGE_REFINE).equals(run.getFunnelStage())) {
+                dispatched = dispatchRefine(run, proteinIds, priority, cursor);
+            } else if ("IDS".equals(selection)) {
+                List<Long> ids = parseIds(run.getSelectionValue());
+                for (int from = (int) cursor; from < ids.size(); from += chunkSize) {
+                    int to = Math.min(from + chunkSize, ids.size());
+                    List<Long> chunk = compoundRepository.findExistingIds(ids.subList(from, to));
+                    dispatched += dispatch(runId, chunk, proteinIds, priority, (long) to, stage, exhaustiveness);
+                }
+            } else {
+                long afterId = cursor;
+                PageRequest page = PageRequest.of(0, chunkSize);
+                while (true) {
+                    List<Long> chunk = "CATEGORY".equals(selection)
+                            ? compoundRepository.findIdsByCategoryAfter(run.getSelectionValue(), afterId, page)
+                            : compoundRepository.findIdsAfter(afterId, page);
+                    if (chunk.isEmpty()) {
+                        break;
+                    }
+                    afterId = chunk.get(chunk.size() - 1);
+                    dispatched += dispatch(runId, chunk, proteinIds, priority, afterId, stage, exhaustiveness);
+                }
+            }
+            screeningRunRepository.markDispatchDone(runId);
+            log.info("虚拟筛选批次分发完成: runId={}, 本次分发任务数={}", runId, dispatched);
+            progressTracker.dispatchFinished(runId);
+        } catch (Exception e) {
+            // 未标记分发完成，重启后从分发进度继续
+            log.error("虚拟筛选批次分发失败: runId={}, 已分发={}, {}", runId, dispatched, e.getMessage(), e);
+        }
+    }
+
+    private int dispatch(Long runId, List<Long> compoundIds, List<Long> proteinIds, int priority, Long cursor,
+                         Integer stage, int exhaustiveness) {
+        if (compoundIds.isEmpty()) {
+            screeningRunRepository.updateDispatchCursor(runId, cursor);
+            return 0;
+        }
+        int submitted = dockingService.submitBatch(compoundIds, proteinIds, runId, priority, cursor,
+                stage, exhaustiveness);
+        progressTracker.addDispatched(runId, submitted);
+        return submitted;
+    }
+
+    /**
+     * 分发复筛任务：逐个受体选出初筛候选，分发进度为按受体顺序拼接后的候选序号
+     * 初筛结果在复筛期间不再变化，重启后重新选出的候选与之前一致
+     */
+    private int dispatchRefine(ScreeningRun run, List<Long> proteinIds, int priority, long cursor) {
+        int dispatched = 0;
+        long offset = 0;
+        for (Long proteinId : proteinIds) {
+            List<Long> candidates = selectRefineCandidates(run, proteinId);
+            log.info("漏斗筛选复筛候选: runId={}, 受体ID={}, 候选数={}", run.getId(), proteinId, candidates.size());
+            for (int from = (int) Math.max(0, cursor - offset); from < candidates.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, candidates.size());
+                dispatched += dispatch(run.getId(), candidates.subList(from, to), List.of(proteinId), priority,
+                        offset + to, STAGE_REFINE, refineExhaustiveness);
+            }
+            offset += candidates.size();
+        }
+        return dispatched;
+    }
+
+    /**
+     * 按复筛条件选出某受体的初筛候选（排名前 N、前百分比与亲和力阈值同时满足）
+     */
+    private List<Long> selectRefineCandidates(ScreeningRun run, Long proteinId) {
+        long screened = dockingResultRepository.countByScreeningRunIdAndProteinIdAndStageAndStatus(
+                run.getId(), proteinId, STAGE_SCREEN, "completed");
+        long limit = screened;
+        if (run.getRefineTopN() != null) {
+            limit = Math.min(limit, run.getRefineTopN());
+        }
+        if (run.getRefineTopPercent() != null) {
+            limit = Math.min(limit, (long) Math.ceil(screened * run.getRefineTopPercent() / 100.0));
+        }
+        if (limit <= 0) {
+            return List.of();
+        }
+        double maxAffinity = run.getRefineMaxAffinity() != null ? run.getRefineMaxAffinity() : Double.MAX_VALUE;
+        return dockingResultRepository.findRankedCompoundIds(run.getId(), proteinId, STAGE_SCREEN, maxAffinity,
+                PageRequest.of(0, (int) Math.min(limit, Integer.MAX_VALUE)));
+    }
+
+    private static List<Long> parseIds(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(",")).map(Long::valueOf).collect(Collectors.toList());
+    }
+
+    /**
+     * 订阅批次事件：每个任务结束时推送一次，批次完成时推送汇总并关闭连接
+     */
+    public SseEmitter subscribe(Long runId) {
+        return dockingEventHub.subscribeRun(runId, getRun(runId));
+    }
+
+    /**
+     * 查询批次进度，进行中的批次返回内存中的实时计数
+     */
+    public ScreeningRunDTO getRun(Long runId) {
+        ScreeningRun run = screeningRunRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("筛选批次不存在: " + runId));
+
+        ScreeningRunDTO dto = new ScreeningRunDTO();
+        dto.setRunId(run.getId());
+        dto.setSelectionType(run.getSelectionType());
+        dto.setProteinIds(parseIds(run.getProteinIds()));
+        dto.setMode(run.getMode() != null ? run.getMode() : MODE_STANDARD);
+        dto.setFunnelStage(run.getFunnelStage());
+        dto.setStatus(run.getStatus());
+        dto.setCreatedAt(run.getCreatedAt());
+        dto.setFinishedAt(run.getFinishedAt());
+
+        ScreeningProgressTracker.RunProgress progress = progressTracker.get(runId);
+        int total = progress != null ? progress.getTotal() : run.getTotal();
+        int completed = progress != null ? progress.getCompleted() : run.getCompleted();
+        int failed = progress != null ? progress.getFailed() : run.getFailed();
+        dto.setTotal(total);
+        dto.setCompleted(completed);
+        dto.setFailed(failed);
+        dto.setPending(Math.max(0, total - completed - failed));
+        return dto;
+    }
+}
@@ -0,0 +1,681 @@
+package com.drugscreen.platform.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SMILES 分子描述符
+ * 直接解析 SMILES 字符串（原子、键、分支、环闭合、方括号原子），计算本地 ADMET 估算所需的描述符与结构警示：
+ * 重原子数、氢键供体/受体、环数、TPSA（Ertl 极性片段贡献的简化版）、logP（原子贡献法粗略估算），
+ * 以及硝基芳烃、芳香胺、环氧等常见警示子结构。不做芳香性感知与立体化学处理，结果仅作筛选参考
+ */
+public final class SmilesDescriptors {
+
+    private static final int AROMATIC = 4;
+
+    // 原子
+    private final List<String> elements = new ArrayList<>();
+    private final List<Boolean> aromatic = new ArrayList<>();
+    private final List<Integer> charges = new ArrayList<>();
+    private final List<Integer> explicitH = new ArrayList<>(); // 方括号原子的氢数，其余为 -1
+    // 键
+    private final List<int[]> bonds = new ArrayList<>(); // {a, b, order}，order 为 1/2/3 或 AROMATIC
+    private final List<int[]> ringBonds = new ArrayList<>(); // 环闭合键
+    private int fragments;
+
+    // 解析后计算
+    private int[] hydrogens;
+    private List<List<int[]>> neighbours; // 每个原子的 {邻接原子, 键级}
+
+    private int heavyAtoms;
+    private int hbd;
+    private int hba;
+    private int ringCount;
+    private int aromaticRings;
+    private double tpsa;
+    private double logP;
+    private int basicAmines;
+    private int nitroAromatic;
+    private int aromaticAmines;
+    private int azo;
+    private int nitroso;
+    private int threeMemberedHeteroRings;
+    private int alkylHalides;
+    private int aldehydes;
+    private int hydrazines;
+    private int thiophenes;
+    private int metabolicSoftSpots;
+
+    private SmilesDescriptors() {
+    }
+
+    /**
+     * 解析 SMILES 并计算描述符
+     * @throws RuntimeException SMILES 为空或格式错误
+     */
+    public static SmilesDescriptors parse(String smiles) {
+        if (smiles == null || smiles.isBlank()) {
+            throw new RuntimeException("SMILES 为空");
+        }
+        SmilesDescriptors d = new SmilesDescriptors();
+        try {
+            d.read(smiles.trim());
+        } catch (RuntimeException e) {
+            throw new RuntimeException("无法解析 SMILES: " + smiles + " (" + e.getMessage() + ")");
+        }
+        d.analyze();
+        return d;
+    }
+
+    private void read(String s) {
+        Deque<Integer> branches = new ArrayDeque<>();
+        Map<Integer, int[]> openRings = new HashMap<>(); // 环编号 -> {原子, 键级}
+        int prev = -1;
+        int bond = 0; // 0 表示未指定
+        fragments = 1;
+
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '(' -> {
+                    if (prev < 0) {
+                        throw new RuntimeException("分支前没有原子");
+                    }
+                    branches.push(prev);
+                    i++;
+                }
+                case ')' -> {
+                    if (branches.isEmpty()) {
+                        throw new RuntimeException("括号不匹配");
+                    }
+                    prev = branches.pop();
+                    i++;
+                }
+                case '.' -> {
+                    prev = -1;
+                    fragments++;
+                    i++;
+                }
+                case '-', '/', '\\' -> {
+                    bond = 1;
+                    i++;
+                }
+                case '=' -> {
+                    bond = 2;
+                    i++;
+                }
+                case '#', '$' -> {
+                    bond = 3;
+                    i++;
+                }
+                case ':' -> {
+                    bond = AROMATIC;
+                    i++;
+                }
+                case '[' -> {
+                    int end = s.indexOf(']', i);
+                    if (end < 0) {
+                        throw new RuntimeException("方括号不匹配");
+                    }
+                    int atom = readBracketAtom(s.substring(i + 1, end));
+                    connect(prev, atom, bond);
+                    prev = atom;
+                    bond = 0;
+                    i = end + 1;
+                }
+                default -> {
+                    if (Character.isDigit(c) || c == '%') {
+                        int ring;
+                        if (c == '%') {
+                            if (i + 2 >= s.length()) {
+                                throw new RuntimeException("环编号不完整");
+                            }
+                            ring = Integer.parseInt(s.substring(i + 1, i + 3));
+                            i += 3;
+                        } else {
+                            ring = c - '0';
+                            i++;
+                        }
+                        if (prev < 0) {
+                            throw new RuntimeException("环编号前没有原子");
+                        }
+                        int[] open = openRings.remove(ring);
+                        if (open == null) {
+                            openRings.put(ring, new int[]{prev, bond});
+                        } else {
+                            int order = bond != 0 ? bond : open[1];
+                            int[] b = connect(open[0], prev, order);
+                            ringBonds.add(b);
+                        }
+                        bond = 0;
+                    } else {
+                        int len = organicSymbolLength(s, i);
+                        String symbol = s.substring(i, i + len);
+                        int atom = addAtom(symbol, -1, 0);
+                        connect(prev, atom, bond);
+                        prev = atom;
+                        bond = 0;
+                        i += len;
+                    }
+                }
+            }
+        }
+        if (!branches.isEmpty()) {
+            throw new RuntimeException("括号不匹配");
+        }
+        if (!openRings.isEmpty()) {
+            throw new RuntimeException("环未闭合");
+        }
+        if (elements.isEmpty()) {
+            throw new RuntimeException("没有原子");
+        }
+    }
+
+    private static int organicSymbolLength(String s, int i) {
+        char c = s.charAt(i);
+        if (i + 1 < s.length()) {
+            char n = s.charAt(i + 1);
+            if ((c == 'C' && n == 'l') || (c == 'B' && n == 'r')) {
+                return 2;
+            }
+        }
+        if ("BCNOPSFIbcnops*".indexOf(c) < 0) {
+            throw new RuntimeException("无法识别的字符 '" + c + "'");
+        }
+        return 1;
+    }
+
+    private int readBracketAtom(String body) {
+        int i = 0;
+        while (i < body.length() && Character.isDigit(body.charAt(i))) {
+            i++; // 同位素
+        }
+        if (i >= body.length()) {
+            throw new RuntimeException("方括号原子缺少元素");
+        }
+        int start = i;
+        if (Character.isUpperCase(body.charAt(i))) {
+            i++;
+            if (i < body.length() && Character.isLowerCase(body.charAt(i)) && body.charAt(i) != 'H') {
+                i++;
+            }
+        } else if (Character.isLowerCase(body.charAt(i)) || body.charAt(i) == '*') {
+            i++;
+            // 芳香 se / as
+            if (i < body.length() && (body.startsWith("se", start) || body.startsWith("as", start))) {
+                i++;
+            }
+        } else {
+            throw new RuntimeException("方括号原子格式错误: [" + body + "]");
+        }
+        String symbol = body.substring(start, i);
+
+        while (i < body.length() && body.charAt(i) == '@') {
+            i++; // 手性
+        }
+        int h = 0;
+        if (i < body.length() && body.charAt(i) == 'H') {
+            i++;
+            h = 1;
+            int digits = i;
+            while (i < body.length() && Character.isDigit(body.charAt(i))) {
+                i++;
+            }
+            if (i > digits) {
+                h = Integer.parseInt(body.substring(digits, i));
+            }
+        }
+        int charge = 0;
+        while (i < body.length() && (body.charAt(i) == '+' || body.charAt(i) == '-')) {
+            int sign = body.charAt(i) == '+' ? 1 : -1;
+            i++;
+            int digits = i;
+            while (i < body.length() && Character.isDigit(body.charAt(i))) {
+                i++;
+            }
+            charge += sign * (i > digits ? Integer.parseInt(body.substring(digits, i)) : 1);
+        }
+        return addAtom(symbol, h, charge);
+    }
+
+    private int addAtom(String symbol, int h, int charge) {
+        boolean isAromatic = Character.isLowerCase(symbol.charAt(0));
+        String element = isAromatic ? Character.toUpperCase(symbol.charAt(0)) + symbol.substring(1) : symbol;
+        elements.add(element);
+        aromatic.add(isAromatic);
+        explicitH.add(h);
+        charges.add(charge);
+        return elements.size() - 1;
+    }
+
+    private int[] connect(int a, int b, int order) {
+        if (a < 0) {
+            return null;
+        }
+        if (order == 0) {
+            order = aromatic.get(a) && aromatic.get(b) ? AROMATIC : 1;
+        }
+        int[] bond = {a, b, order};
+        bonds.add(bond);
+        return bond;
+    }
+
+    // ===================== 描述符 =====================
+
+    private void analyze() {
+        int n = elements.size();
+        neighbours = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            neighbours.add(new ArrayList<>(4));
+        }
+        int[] bondSum = new int[n];
+        for (int[] b : bonds) {
+            neighbours.get(b[0]).add(new int[]{b[1], b[2]});
+            neighbours.get(b[1]).add(new int[]{b[0], b[2]});
+            int order = b[2] == AROMATIC ? 1 : b[2];
+            bondSum[b[0]] += order;
+            bondSum[b[1]] += order;
+        }
+
+        hydrogens = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (explicitH.get(i) >= 0) {
+                hydrogens[i] = explicitH.get(i);
+            } else {
+                // 芳香原子额外占用一个价（芳香键按 1.5 计），且只取最低价态
+                hydrogens[i] = implicitHydrogens(elements.get(i), bondSum[i] + (aromatic.get(i) ? 1 : 0), aromatic.get(i));
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            String e = elements.get(i);
+            if (e.equals("H") || e.equals("*")) {
+                continue;
+            }
+            heavyAtoms++;
+            if (e.equals("N") || e.equals("O")) {
+                hba++;
+                if (hydrogens[i] > 0) {
+                    hbd++;
+                }
+            }
+            tpsa += polarSurface(i);
+            logP += logPContribution(i);
+            if (isBasicAmine(i)) {
+                basicAmines++;
+            }
+        }
+        ringCount = Math.max(0, bonds.size() - heavyAtoms + fragments);
+        findAlerts();
+        findRingAlerts();
+    }
+
+    private static int implicitHydrogens(String element, int used, boolean isAromatic) {
+        int[] valences = switch (element) {
+            case "B" -> new int[]{3};
+            case "C" -> new int[]{4};
+            case "N", "P" -> new int[]{3, 5};
+            case "O" -> new int[]{2};
+            case "S" -> new int[]{2, 4, 6};
+            case "F", "Cl", "Br", "I" -> new int[]{1};
+            default -> new int[]{0};
+        };
+        if (isAromatic) {
+            return Math.max(0, valences[0] - used);
+        }
+        for (int v : valences) {
+            if (used <= v) {
+                return v - used;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 极性表面积贡献（Ertl 2000 中 N、O 片段的常用值，只计 N 与 O）
+     */
+    private double polarSurface(int i) {
+        String e = elements.get(i);
+        int h = hydrogens[i];
+        int charge = charges.get(i);
+        if (e.equals("O")) {
+            if (aromatic.get(i)) {
+                return 13.14;
+            }
+            if (charge < 0) {
+                return 23.06;
+            }
+            if (hasDoubleBond(i)) {
+                return 17.07;
+            }
+            return h > 0 ? 20.23 : 9.23;
+        }
+        if (e.equals("N")) {
+            if (aromatic.get(i)) {
+                return h > 0 ? 15.79 : charge > 0 ? 4.10 : 12.89;
+            }
+            if (charge > 0) {
+                return isNitro(i) ? 11.68 : h == 0 ? 0.0 : h == 1 ? 4.44 : h == 2 ? 16.61 : 27.64;
+            }
+            int maxOrder = maxBondOrder(i);
+            if (maxOrder == 3) {
+                return 23.79;
+            }
+            if (maxOrder == 2) {
+                return h > 0 ? 23.85 : isNitro(i) ? 11.68 : 12.36;
+            }
+            return h >= 2 ? 26.02 : h == 1 ? 12.03 : 3.24;
+        }
+        return 0.0;
+    }
+
+    /**
+     * logP 原子贡献（粗略值，含所连氢原子）
+     */
+    private double logPContribution(int i) {
+        String e = elements.get(i);
+        int h = hydrogens[i];
+        boolean arom = aromatic.get(i);
+        double value = switch (e) {
+            case "C" -> (arom ? 0.29 : 0.14) + 0.12 * h;
+            case "N" -> (arom ? -0.5 : -0.9) - 0.2 * h;
+            case "O" -> arom ? 0.0 : hasDoubleBond(i) ? -0.4 : -0.6 - 0.2 * h;
+            case "S" -> 0.6;
+            case "P" -> -0.3;
+            case "F" -> 0.4;
+            case "Cl" -> 0.7;
+            case "Br" -> 0.9;
+            case "I" -> 1.1;
+            default -> 0.0;
+        };
+        return charges.get(i) != 0 ? value - 1.0 : value;
+    }
+
+    /**
+     * 碱性脂肪胺：非芳香、无双键的 N，不与芳环、羰基、磺酰基或杂原子相连（排除酰胺、苯胺、磺酰胺、肼等）
+     */
+    private boolean isBasicAmine(int i) {
+        if (!elements.get(i).equals("N") || aromatic.get(i) || charges.get(i) < 0 || maxBondOrder(i) > 1) {
+            return false;
+        }
+        if (charges.get(i) > 0 && hydrogens[i] == 0) {
+            return false; // 季铵
+        }
+        for (int[] nb : neighbours.get(i)) {
+            int j = nb[0];
+            if (aromatic.get(j) || !elements.get(j).equals("C") || hasDoubleBondToHetero(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void findAlerts() {
+        for (int i = 0; i < elements.size(); i++) {
+            String e = elements.get(i);
+            if (e.equals("N") && !aromatic.get(i)) {
+                if (isNitro(i)) {
+                    if (hasAromaticNeighbour(i)) {
+                        nitroAromatic++;
+                    }
+                    continue;
+                }
+                if (hydrogens[i] > 0 && hasAromaticNeighbour(i) && !hasCarbonylNeighbour(i)) {
+                    aromaticAmines++;
+                }
+                for (int[] nb : neighbours.get(i)) {
+                    int j = nb[0];
+                    if (j < i || !elements.get(j).equals("N") || aromatic.get(j)) {
+                        continue;
+                    }
+                    if (nb[1] == 2) {
+                        azo++;
+                    } else if (nb[1] == 1) {
+                        if (isNitrosoN(i) || isNitrosoN(j)) {
+                            nitroso++;
+                        } else if (!hasCarbonylNeighbour(i) || !hasCarbonylNeighbour(j)) {
+                            hydrazines++;
+                        }
+                    }
+                }
+                // N-甲基：代谢易位点（N-去甲基）
+                if (hasMethylNeighbour(i)) {
+                    metabolicSoftSpots++;
+                }
+            } else if (e.equals("C") && !aromatic.get(i)) {
+                if (hydrogens[i] > 0 && hasDoubleBondTo(i, "O")) {
+                    aldehydes++;
+                }
+                if (hydrogens[i] > 0 && hasAromaticNeighbour(i)) {
+                    metabolicSoftSpots++; // 苄位
+                }
+            } else if ((e.equals("Cl") || e.equals("Br") || e.equals("I")) && !neighbours.get(i).isEmpty()) {
+                int c = neighbours.get(i).get(0)[0];
+                if (elements.get(c).equals("C") && !aromatic.get(c) && maxBondOrder(c) == 1) {
+                    alkylHalides++;
+                }
+            } else if (e.equals("O") && !aromatic.get(i) && neighbours.get(i).size() == 2) {
+                int a = neighbours.get(i).get(0)[0];
+                int b = neighbours.get(i).get(1)[0];
+                // 芳香甲醚（O-去甲基）与酯（水解）
+                if ((aromatic.get(a) && isMethyl(b)) || (aromatic.get(b) && isMethyl(a))) {
+                    metabolicSoftSpots++;
+                } else if (hasDoubleBondTo(a, "O") != hasDoubleBondTo(b, "O")) {
+                    metabolicSoftSpots++;
+                }
+            }
+        }
+    }
+
+    /**
+     * 环相关的警示：三元含 O/N 杂环（环氧、氮丙啶）、噻吩；芳环数
+     */
+    private void findRingAlerts() {
+        for (int[] ring : ringBonds) {
+            List<Integer> members = shortestPath(ring[0], ring[1], ring);
+            if (members == null) {
+                continue;
+            }
+            boolean allAromatic = true;
+            boolean hasHetero = false;
+            boolean hasSulfur = false;
+            for (int m : members) {
+                allAromatic &= aromatic.get(m);
+                String e = elements.get(m);
+                hasHetero |= e.equals("O") || e.equals("N");
+                hasSulfur |= e.equals("S");
+            }
+            if (allAromatic) {
+                aromaticRings++;
+            }
+            if (members.size() == 3 && hasHetero && !allAromatic) {
+                threeMemberedHeteroRings++;
+            }
+            if (members.size() == 5 && allAromatic && hasSulfur) {
+                thiophenes++;
+            }
+        }
+    }
+
+    /**
+     * 不经过给定键时 from 到 to 的最短路径（含两端原子），即环闭合键所在的最小环
+     */
+    private List<Integer> shortestPath(int from, int to, int[] excluded) {
+        int[] parent = new int[elements.size()];
+        Arrays.fill(parent, -2);
+        parent[from] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            int cur = queue.poll();
+            if (cur == to) {
+                List<Integer> path = new ArrayList<>();
+                for (int a = to; a >= 0; a = parent[a]) {
+                    path.add(a);
+                }
+                return path;
+            }
+            for (int[] nb : neighbours.get(cur)) {
+                int next = nb[0];
+                boolean isExcluded = (cur == excluded[0] && next == excluded[1]) || (cur == excluded[1] && next == excluded[0]);
+                if (!isExcluded && parent[next] == -2) {
+                    parent[next] = cur;
+                    queue.add(next);
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isNitro(int i) {
+        int oxygens = 0;
+        for (int[] nb : neighbours.get(i)) {
+            if (elements.get(nb[0]).equals("O") && neighbours.get(nb[0]).size() == 1) {
+                oxygens++;
+            }
+        }
+        return oxygens >= 2;
+    }
+
+    private boolean isNitrosoN(int i) {
+        for (int[] nb : neighbours.get(i)) {
+            if (nb[1] == 2 && elements.get(nb[0]).equals("O")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isMethyl(int i) {
+        return elements.get(i).equals("C") && !aromatic.get(i) && hydrogens[i] == 3;
+    }
+
+    private boolean hasMethylNeighbour(int i) {
+        for (int[] nb : neighbours.get(i)) {
+            if (isMethyl(nb[0])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasAromaticNeighbour(int i) {
+        for (int[] nb : neighbours.get(i)) {
+            if (aromatic.get(nb[0])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasCarbonylNeighbour(int i) {
+        for (int[] nb : neighbours.get(i)) {
+            if (hasDoubleBondToHetero(nb[0])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasDoubleBond(int i) {
+        return maxBondOrder(i) == 2;
+    }
+
+    private boolean hasDoubleBondTo(int i, String element) {
+        for (int[] nb : neighbours.get(i)) {
+            if (nb[1] == 2 && elements.get(nb[0]).equals(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasDoubleBondToHetero(int i) {
+        return hasDoubleBondTo(i, "O") || hasDoubleBondTo(i, "S") || hasDoubleBondTo(i, "N");
+    }
+
+    private int maxBondOrder(int i) {
+        int max = 0;
+        for (int[] nb : neighbours.get(i)) {
+            if (nb[1] != AROMATIC) {
+                max = Math.max(max, nb[1]);
+            }
+        }
+        return max;
+    }
+
+    public int getHeavyAtoms() {
+        return heavyAtoms;
+    }
+
+    public int getHbd() {
+        return hbd;
+    }
+
+    public int getHba() {
+        return hba;
+    }
+
+    public int getRingCount() {
+        return ringCount;
+    }
+
+    public int getAromaticRings() {
+        return aromaticRings;
+    }
+
+    public double getTpsa() {
+        return tpsa;
+    }
+
+    public double getLogP() {
+        return logP;
+    }
+
+    public int getBasicAmines() {
+        return basicAmines;
+    }
+
+    /**
+     * Ames 结构警示数：硝基芳烃、芳香胺、偶氮、N-亚硝基、三元杂环、卤代烷、醛
+     */
+    public int getAmesAlerts() {
+        return nitroAromatic + aromaticAmines + azo + nitroso + threeMemberedHeteroRings + alkylHalides + aldehydes;
+    }
+
+    /**
+     * 肝毒性结构警示数：肼、噻吩、硝基芳烃、芳香胺
+     */
+    public int getLiverAlerts() {
+        return hydrazines + thiophenes + nitroAromatic + aromaticAmines;
+    }
+
+    /**
+     * 代谢易位点数：N-甲基、芳香甲醚、酯、苄位
+     */
+    public int getMetabolicSoftSpots() {
+        return metabolicSoftSpots;
+    }
+
+    public int getNitroAromatic() {
+        return nitroAromatic;
+    }
+
+    public int getAromaticAmines() {
+        return aromaticAmines;
+    }
+
+    public int getThreeMemberedHeteroRings() {
+        return threeMemberedHeteroRings;
+    }
+
+    public int getThiophenes() {
+        return thiophenes;
+    }
+}
@@ -0,0 +1,158 @@
+package com.drugscreen.platform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内确定性模拟对接引擎
+ * 不依赖 Vina，根据输入内容的哈希生成可复现的亲和力与构象，并按配置模拟耗时，
+ * 用于在无 Vina 的机器上对调度、持久化和评分链路做端到端压测
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "docking.engine", havingValue = "stub")
+public class StubDockingEngine implements DockingEngine {
+
+    private static final int MODE_COUNT = 9;
+    private static final int PROGRESS_STEPS = 10;
+
+    @Value("${docking.stub.latency-ms:200}")
+    private long latencyMs; // 每次对接的模拟耗时
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public String getVersion() {
+        return "1";
+    }
+
+    @Override
+    public DockingOutput dock(DockingRequest request, DockingJobContext context) throws Exception {
+        byte[] ligand = Files.readAllBytes(request.ligandFile());
+        SplittableRandom random = new SplittableRandom(seedOf(request, ligand));
+
+        // 模拟耗时并上报进度：每步睡到按总耗时均分的时间点，总耗时不因整除丢失（低于 10 ms 时也生效）
+        long start = System.nanoTime();
+        long latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMs);
+        for (int step = 1; step <= PROGRESS_STEPS; step++) {
+            long remaining = start + latencyNanos * step / PROGRESS_STEPS - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+            if (context != null) {
+                context.checkTerminated();
+                context.onProgress((double) step / PROGRESS_STEPS);
+            }
+        }
+
+        int[] modes = new int[MODE_COUNT];
+        double[] affinities = new double[MODE_COUNT];
+        double[] rmsdLb = new double[MODE_COUNT];
+        double[] rmsdUb = new double[MODE_COUNT];
+        double affinity = round3(-5.0 - 6.0 * random.nextDouble());
+        for (int i = 0; i < MODE_COUNT; i++) {
+            modes[i] = i + 1;
+            affinities[i] = affinity;
+            if (i > 0) {
+                rmsdLb[i] = round3(1.0 + 3.0 * random.nextDouble());
+                rmsdUb[i] = round3(rmsdLb[i] + 1.0 + 4.0 * random.nextDouble());
+            }
+            affinity = round3(affinity + 0.1 + 0.4 * random.nextDouble());
+        }
+
+        String poses = buildPoses(new String(ligand, StandardCharsets.UTF_8), request.center(),
+                affinities, rmsdLb, rmsdUb, random);
+        String logContent = VinaOutputParser.formatModeTable(modes, affinities, rmsdLb, rmsdUb, MODE_COUNT);
+        log.debug("模拟对接完成: ligand={}, affinity={}", request.ligandFile().getFileName(), affinities[0]);
+        return new DockingOutput(affinities[0], MODE_COUNT, logContent, poses);
+    }
+
+    /**
+     * 由配体内容、受体文件名与对接参数确定随机种子
+     */
+    private long seedOf(DockingRequest request, byte[] ligand) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(ligand);
+        digest.update(request.receptorFile().getFileName().toString().getBytes(StandardCharsets.UTF_8));
+        ByteBuffer params = ByteBuffer.allocate(Double.BYTES * 6 + Integer.BYTES + Long.BYTES);
+        for (double v : request.center()) {
+            params.putDouble(v);
+        }
+        for (double v : request.size()) {
+            params.putDouble(v);
+        }
+        params.putInt(request.exhaustiveness());
+        params.putLong(request.seed());
+        digest.update(params.array());
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    /**
+     * 将配体平移到对接盒中心附近，生成 Vina 格式的多 MODEL 输出
+     */
+    private String buildPoses(String ligand, double[] center, double[] affinities,
+                              double[] rmsdLb, double[] rmsdUb, SplittableRandom random) {
+        List<String> lines = ligand.lines().toList();
+        double[] centroid = centroid(lines);
+
+        StringBuilder sb = new StringBuilder(ligand.length() * MODE_COUNT + 128);
+        for (int i = 0; i < MODE_COUNT; i++) {
+            double dx = center[0] - centroid[0] + (random.nextDouble() - 0.5) * 2 * rmsdLb[i];
+            double dy = center[1] - centroid[1] + (random.nextDouble() - 0.5) * 2 * rmsdLb[i];
+            double dz = center[2] - centroid[2] + (random.nextDouble() - 0.5) * 2 * rmsdLb[i];
+
+            sb.append("MODEL ").append(i + 1).append('\n');
+            sb.append(String.format(Locale.ROOT, "REMARK VINA RESULT: %9.3f %10.3f %10.3f\n",
+                    affinities[i], rmsdLb[i], rmsdUb[i]));
+            for (String line : lines) {
+                sb.append(isAtom(line) ? translate(line, dx, dy, dz) : line).append('\n');
+            }
+            sb.append("ENDMDL\n");
+        }
+        return sb.toString();
+    }
+
+    private static double[] centroid(List<String> lines) {
+        double x = 0, y = 0, z = 0;
+        int n = 0;
+        for (String line : lines) {
+            if (isAtom(line)) {
+                x += Double.parseDouble(line.substring(30, 38).trim());
+                y += Double.parseDouble(line.substring(38, 46).trim());
+                z += Double.parseDouble(line.substring(46, 54).trim());
+                n++;
+            }
+        }
+        return n == 0 ? new double[3] : new double[]{x / n, y / n, z / n};
+    }
+
+    private static String translate(String line, double dx, double dy, double dz) {
+        double x = Double.parseDouble(line.substring(30, 38).trim()) + dx;
+        double y = Double.parseDouble(line.substring(38, 46).trim()) + dy;
+        double z = Double.parseDouble(line.substring(46, 54).trim()) + dz;
+        return line.substring(0, 30) + String.format(Locale.ROOT, "%8.3f%8.3f%8.3f", x, y, z) + line.substring(54);
+    }
+
+    private static boolean isAtom(String line) {
+        return (line.startsWith("ATOM") || line.startsWith("HETATM")) && line.length() >= 54;
+    }
+
+    private static double round3(double v) {
+        return Math.round(v * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,133 @@
+package com.drugscreen.platform.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 有界 Top-K
+ * 保留分数最高的 k 个 ID（分数相同时 ID 小的在前），以最小堆保存，堆顶为当前第 k 名，
+ * 每次 offer 为 O(log k)，被淘汰的元素不分配对象。非线程安全，并行时每个线程一个实例再合并
+ */
+public class TopK {
+
+    /**
+     * 排名结果
+     */
+    public record Entry(long id, double score) {
+    }
+
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    public TopK(int k) {
+        if (k <= 0) {
+            throw new RuntimeException("k 必须大于 0");
+        }
+        ids = new long[k];
+        scores = new double[k];
+    }
+
+    /**
+     * 尝试加入，返回是否进入当前前 k 名
+     */
+    public boolean offer(long id, double score) {
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+            return true;
+        }
+        if (!before(id, score, ids[0], scores[0])) {
+            return false;
+        }
+        ids[0] = id;
+        scores[0] = score;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * 合并另一个 Top-K 的全部元素
+     */
+    public void addAll(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.scores[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return ids.length;
+    }
+
+    /**
+     * 已满时返回第 k 名的分数，新元素必须高于它才能进入；未满时返回负无穷
+     */
+    public double threshold() {
+        return size < ids.length ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /**
+     * 按名次排列的结果
+     */
+    public List<Entry> sorted() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> before(ids[a], scores[a], ids[b], scores[b]) ? -1
+                : before(ids[b], scores[b], ids[a], scores[a]) ? 1 : 0);
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i : order) {
+            entries.add(new Entry(ids[i], scores[i]));
+        }
+        return entries;
+    }
+
+    // a 是否排在 b 前面
+    private static boolean before(long idA, double scoreA, long idB, double scoreB) {
+        return scoreA > scoreB || (scoreA == scoreB && idA < idB);
+    }
+
+    // 堆中父节点排名不高于子节点，堆顶为名次最低的元素
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(ids[parent], scores[parent], ids[i], scores[i])) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int right = left + 1;
+            int worst = right < size && before(ids[left], scores[left], ids[right], scores[right]) ? right : left;
+            if (!before(ids[i], scores[i], ids[worst], scores[worst])) {
+                break;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
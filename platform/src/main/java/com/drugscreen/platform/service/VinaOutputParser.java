@@ -0,0 +1,227 @@
+package com.drugscreen.platform.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Vina 输出流式解析器
+ * 逐块读取 Vina 标准输出，边读边解析进度条与结合模式表（mode / affinity / rmsd l.b. / rmsd u.b.），
+ * 结合模式存放于基本类型数组中；完整日志仅在 retainLog 为 true 时保留
+ */
+public class VinaOutputParser {
+
+    /**
+     * 进度回调，fraction 取值 0-1
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(double fraction);
+    }
+
+    // Vina 进度条共 51 个 '*'
+    private static final int PROGRESS_TICKS = 51;
+    // 失败时用于错误信息的尾部行数
+    private static final int TAIL_LINES = 20;
+
+    private final boolean retainLog;
+    private final ProgressListener listener;
+    private final StringBuilder log;
+    private final StringBuilder line = new StringBuilder(128);
+    private final String[] tail = new String[TAIL_LINES];
+    private int tailCount;
+
+    private int[] modes = new int[9];
+    private double[] affinities = new double[9];
+    private double[] rmsdLb = new double[9];
+    private double[] rmsdUb = new double[9];
+    private int modeCount;
+
+    private boolean inProgressBar;
+    private boolean inTable;
+    private int stars;
+
+    public VinaOutputParser(boolean retainLog, ProgressListener listener) {
+        this.retainLog = retainLog;
+        this.listener = listener;
+        this.log = retainLog ? new StringBuilder(4096) : null;
+    }
+
+    /**
+     * 读取整个输出流直至结束
+     */
+    public void consume(Reader reader) throws IOException {
+        char[] buf = new char[1024];
+        int n;
+        while ((n = reader.read(buf)) != -1) {
+            feed(buf, 0, n);
+        }
+        finish();
+    }
+
+    /**
+     * 输入一段字符
+     */
+    public void feed(char[] buf, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            char c = buf[i];
+            if (c == '\n') {
+                endLine();
+            } else if (c != '\r') {
+                line.append(c);
+                if (c == '*' && inProgressBar) {
+                    stars++;
+                    if (listener != null) {
+                        listener.onProgress(Math.min(1.0, (double) stars / PROGRESS_TICKS));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 输出结束，处理最后一行
+     */
+    public void finish() {
+        if (line.length() > 0) {
+            endLine();
+        }
+    }
+
+    private void endLine() {
+        if (retainLog) {
+            log.append(line).append('\n');
+        }
+        String text = line.toString();
+        tail[tailCount++ % TAIL_LINES] = text;
+        line.setLength(0);
+
+        if (text.startsWith("|----")) {
+            inProgressBar = true;
+            stars = 0;
+            return;
+        }
+        if (inProgressBar) {
+            inProgressBar = false;
+            return;
+        }
+        if (text.startsWith("-----+")) {
+            inTable = true;
+            return;
+        }
+        if (inTable && !parseModeRow(text)) {
+            inTable = false;
+        }
+    }
+
+    /**
+     * 解析结合模式表的一行，格式：mode affinity rmsd_lb rmsd_ub
+     */
+    private boolean parseModeRow(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) {
+            return false;
+        }
+        String[] parts = trimmed.split("\\s+");
+        if (parts.length < 4) {
+            return false;
+        }
+        try {
+            int mode = Integer.parseInt(parts[0]);
+            double affinity = Double.parseDouble(parts[1]);
+            double lb = Double.parseDouble(parts[2]);
+            double ub = Double.parseDouble(parts[3]);
+            addMode(mode, affinity, lb, ub);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void addMode(int mode, double affinity, double lb, double ub) {
+        if (modeCount == modes.length) {
+            int capacity = modeCount * 2;
+            modes = Arrays.copyOf(modes, capacity);
+            affinities = Arrays.copyOf(affinities, capacity);
+            rmsdLb = Arrays.copyOf(rmsdLb, capacity);
+            rmsdUb = Arrays.copyOf(rmsdUb, capacity);
+        }
+        modes[modeCount] = mode;
+        affinities[modeCount] = affinity;
+        rmsdLb[modeCount] = lb;
+        rmsdUb[modeCount] = ub;
+        modeCount++;
+    }
+
+    public int getModeCount() {
+        return modeCount;
+    }
+
+    public int getMode(int index) {
+        return modes[index];
+    }
+
+    public double getAffinity(int index) {
+        return affinities[index];
+    }
+
+    public double getRmsdLb(int index) {
+        return rmsdLb[index];
+    }
+
+    public double getRmsdUb(int index) {
+        return rmsdUb[index];
+    }
+
+    /**
+     * 最佳（第一个）结合模式的亲和力，没有解析到结合模式时抛出异常
+     */
+    public double getBestAffinity() {
+        if (modeCount == 0) {
+            throw new RuntimeException("无法从Vina日志中提取亲和力值");
+        }
+        return affinities[0];
+    }
+
+    /**
+     * 完整日志，未开启 retainLog 时返回 null
+     */
+    public String getLog() {
+        return retainLog ? log.toString() : null;
+    }
+
+    /**
+     * 最近输出的若干行，用于错误信息
+     */
+    public String getTail() {
+        StringBuilder sb = new StringBuilder();
+        int start = Math.max(0, tailCount - TAIL_LINES);
+        for (int i = start; i < tailCount; i++) {
+            sb.append(tail[i % TAIL_LINES]).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 以 Vina 原格式输出结合模式表
+     */
+    public String formatModeTable() {
+        return formatModeTable(modes, affinities, rmsdLb, rmsdUb, modeCount);
+    }
+
+    /**
+     * 以 Vina 原格式输出结合模式表
+     */
+    public static String formatModeTable(int[] modes, double[] affinities, double[] rmsdLb, double[] rmsdUb, int count) {
+        StringBuilder sb = new StringBuilder(160 + count * 48);
+        sb.append("mode |   affinity | dist from best mode\n");
+        sb.append("     | (kcal/mol) | rmsd l.b.| rmsd u.b.\n");
+        sb.append("-----+------------+----------+----------\n");
+        for (int i = 0; i < count; i++) {
+            sb.append(String.format(Locale.ROOT, "%4d %12.3f %10.3f %10.3f\n",
+                    modes[i], affinities[i], rmsdLb[i], rmsdUb[i]));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,246 @@
+package com.drugscreen.platform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调用 AutoDock Vina 可执行文件的对接引擎
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "docking.engine", havingValue = "vina", matchIfMissing = true)
+public class VinaProcessDockingEngine implements DockingEngine {
+
+    // 版本检测失败后的重试间隔
+    private static final long VERSION_RETRY_MS = 60_000;
+
+    @Value("${vina.path:D:\\tool\\vina\\vina.exe}")
+    private String vinaPath;
+
+    @Value("${docking.vina.retain-log:false}")
+    private boolean retainLog; // 为 false 时只保存结合模式表，不在内存中保留完整日志
+
+    @Value("${docking.vina.version:}")
+    private String pinnedVersion; // 指定后直接使用，不再执行 vina --version
+
+    // 网格图计算与对接使用相同的时间上限
+    @Value("${docking.watchdog.wall-timeout-ms:1800000}")
+    private long wallTimeoutMs;
+
+    @Value("${docking.watchdog.cpu-timeout-ms:7200000}")
+    private long cpuTimeoutMs;
+
+    private volatile String version; // 只缓存检测成功的版本
+    private long versionFailedAt;
+
+    @Override
+    public String getName() {
+        return "vina";
+    }
+
+    @Override
+    public String getVersion() {
+        if (pinnedVersion != null && !pinnedVersion.isBlank()) {
+            return pinnedVersion.trim();
+        }
+        String detected = version;
+        if (detected != null) {
+            return detected;
+        }
+        synchronized (this) {
+            if (version == null && System.currentTimeMillis() - versionFailedAt >= VERSION_RETRY_MS) {
+                version = detectVersion();
+                if (version == null) {
+                    versionFailedAt = System.currentTimeMillis();
+                }
+            }
+            return version != null ? version : UNKNOWN_VERSION;
+        }
+    }
+
+    @Override
+    public DockingOutput dock(DockingRequest request, DockingJobContext context) throws Exception {
+        log.info("调用Vina执行对接，路径: {}", vinaPath);
+
+        // 检查Vina路径是否存在
+        File vinaFile = new File(vinaPath);
+        if (!vinaFile.exists()) {
+            throw new Exception("Vina可执行文件不存在: " + vinaPath);
+        }
+
+        File workDir = request.workDir().toFile();
+        if (!workDir.isDirectory()) {
+            throw new Exception("docking路径不是有效的目录: " + workDir.getAbsolutePath());
+        }
+
+        // 构建Vina命令
+        List<String> command = new ArrayList<>();
+        command.add(vinaPath);
+        if (request.mapsPrefix() != null) {
+            // 使用预计算的受体网格图，对接盒由网格图决定
+            command.add("--maps");
+            command.add(request.mapsPrefix().toString());
+        } else {
+            command.add("--receptor");
+            command.add(request.receptorFile().toString());
+            addBox(command, request.center(), request.size());
+        }
+        command.add("--ligand");
+        command.add(request.ligandFile().toString());
+        command.add("--out");
+        command.add(request.outFileName());
+        // 搜索彻底性
+        command.add("--exhaustiveness");
+        command.add(String.valueOf(request.exhaustiveness()));
+        command.add("--seed");
+        command.add(String.valueOf(request.seed()));
+        // 由对接调度器按核数分配，避免多个 Vina 进程超额占用 CPU
+        command.add("--cpu");
+        command.add(String.valueOf(request.cpu()));
+        ProcessBuilder pb = new ProcessBuilder(command);
+
+        // 使用绝对路径作为工作目录
+        pb.directory(workDir);
+        pb.redirectErrorStream(true);
+        log.info("开始执行Vina命令，工作目录: {}", workDir.getAbsolutePath());
+
+        Process process = pb.start();
+        // 登记进程，超时或取消时由看门狗结束整个进程树
+        context.attachProcess(process);
+        VinaOutputParser parser = new VinaOutputParser(retainLog, context);
+
+        // 边读边解析合并后的输出流（标准输出和标准错误）
+        try (Reader reader = new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)) {
+            parser.consume(reader);
+        }
+
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            String errorMessage = "Vina执行失败，退出码: " + exitCode + "\n" +
+                                "输出日志: " + parser.getTail();
+            log.error(errorMessage);
+            throw new Exception(errorMessage);
+        }
+
+        log.info("Vina执行成功，退出码: {}, 结合模式数: {}", exitCode, parser.getModeCount());
+
+        Path outFile = request.workDir().resolve(request.outFileName());
+        String poses = Files.exists(outFile) ? Files.readString(outFile) : null;
+        String logContent = retainLog ? parser.getLog() : parser.formatModeTable();
+        return new DockingOutput(parser.getBestAffinity(), parser.getModeCount(), logContent, poses);
+    }
+
+    @Override
+    public boolean supportsPreparedMaps() {
+        return true;
+    }
+
+    /**
+     * 调用 vina --write_maps 仅计算并写出受体网格图，不做对接
+     * 输出写入网格图目录下的日志文件，超过墙钟时间或 CPU 时间上限时结束整个进程树
+     */
+    @Override
+    public boolean prepareMaps(Path receptorFile, double[] center, double[] size, Path mapsPrefix) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(vinaPath);
+        command.add("--receptor");
+        command.add(receptorFile.toString());
+        addBox(command, center, size);
+        command.add("--write_maps");
+        command.add(mapsPrefix.toString());
+        command.add("--force_even_voxels");
+
+        log.info("预计算受体网格图: receptor={}, prefix={}", receptorFile, mapsPrefix);
+        Path logFile = mapsPrefix.resolveSibling(mapsPrefix.getFileName() + ".log");
+        Process process = new ProcessBuilder(command)
+                .directory(mapsPrefix.getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        long start = System.nanoTime();
+        try {
+            while (!process.waitFor(1, TimeUnit.SECONDS)) {
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if (wallTimeoutMs > 0 && elapsed > wallTimeoutMs) {
+                    throw new Exception("Vina网格图计算超过墙钟时间上限: 已运行 " + elapsed + " ms");
+                }
+                long cpu = cpuTimeoutMs > 0 ? DockingWatchdog.cpuMillis(process) : 0L;
+                if (cpu > cpuTimeoutMs) {
+                    throw new Exception("Vina网格图计算超过CPU时间上限: CPU " + cpu + " ms");
+                }
+            }
+        } finally {
+            if (process.isAlive()) {
+                DockingJobContext.destroy(process);
+            }
+        }
+
+        int exitCode = process.exitValue();
+        if (exitCode != 0) {
+            VinaOutputParser parser = new VinaOutputParser(false, null);
+            try (Reader reader = new InputStreamReader(Files.newInputStream(logFile), StandardCharsets.UTF_8)) {
+                parser.consume(reader);
+            }
+            throw new Exception("Vina网格图计算失败，退出码: " + exitCode + "\n输出日志: " + parser.getTail());
+        }
+        Files.deleteIfExists(logFile);
+        return true;
+    }
+
+    private static void addBox(List<String> command, double[] center, double[] size) {
+        // 活性位点坐标
+        command.add("--center_x");
+        command.add(String.valueOf(center[0]));
+        command.add("--center_y");
+        command.add(String.valueOf(center[1]));
+        command.add("--center_z");
+        command.add(String.valueOf(center[2]));
+        // 网格大小，确保覆盖整个活性位点区域
+        command.add("--size_x");
+        command.add(String.valueOf(size[0]));
+        command.add("--size_y");
+        command.add(String.valueOf(size[1]));
+        command.add("--size_z");
+        command.add(String.valueOf(size[2]));
+    }
+
+    /**
+     * 读取 vina --version 的输出作为版本号，失败时返回 null
+     */
+    private String detectVersion() {
+        try {
+            Process process = new ProcessBuilder(vinaPath, "--version").redirectErrorStream(true).start();
+            String firstLine;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                firstLine = reader.readLine();
+            }
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                log.warn("无法获取Vina版本: vina --version 超时");
+                return null;
+            }
+            if (process.exitValue() != 0 || firstLine == null || firstLine.isBlank()) {
+                log.warn("无法获取Vina版本: 退出码 {}, 输出 {}", process.exitValue(), firstLine);
+                return null;
+            }
+            return firstLine.trim();
+        } catch (Exception e) {
+            log.warn("无法获取Vina版本: {}", e.getMessage());
+            return null;
+        }
+    }
+}
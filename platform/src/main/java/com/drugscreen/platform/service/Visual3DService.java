@@ -1,19 +1,23 @@
 package com.drugscreen.platform.service;
 
+import com.drugscreen.platform.dto.DockedPoseDTO;
 import com.drugscreen.platform.dto.Visual3DDTO;
 import com.drugscreen.platform.entity.Compound;
 import com.drugscreen.platform.repository.CompoundRepository;
+import com.drugscreen.platform.repository.DockingResultRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * 3D 可视化服务
- * 从文件系统读取 PDB 数据
+ * 优先使用数据库中的对接构象，没有时从文件系统读取 PDB 数据
  */
 @Slf4j
 @Service
@@ -21,11 +25,23 @@ import java.nio.charset.StandardCharsets;
 public class Visual3DService {
     
     private final CompoundRepository compoundRepository;
+    private final DockingResultRepository dockingResultRepository;
+    private final DockedPoseService dockedPoseService;
+    private final ProteinService proteinService;
     
     /**
-     * 获取 3D 可视化数据
+     * 获取 3D 可视化数据（默认最佳构象）
      */
     public Visual3DDTO getVisual3DData(Long compoundId) {
+        return getVisual3DData(compoundId, 1);
+    }
+
+    /**
+     * 获取 3D 可视化数据
+     * @param compoundId 化合物ID
+     * @param modeIndex 对接构象序号，存在对接构象时使用该构象
+     */
+    public Visual3DDTO getVisual3DData(Long compoundId, int modeIndex) {
         // 获取化合物信息
         Compound compound = compoundRepository.findById(compoundId)
                 .orElseThrow(() -> new RuntimeException("化合物不存在 ID: " + compoundId));
@@ -33,17 +49,31 @@ public class Visual3DService {
         Visual3DDTO dto = new Visual3DDTO();
         
         try {
-            // 读取受体蛋白 PDB（CDK2）
-            String receptorPdb = readReceptorPdb();
+            // 优先使用最佳对接结果中的指定构象，受体取该结果对接的蛋白
+            List<Long> resultIds = dockingResultRepository.findBestResultIds(compoundId, PageRequest.of(0, 1));
+            Long bestResultId = resultIds.isEmpty() ? null : resultIds.get(0);
+            Long proteinId = bestResultId != null
+                    ? dockingResultRepository.findProteinIdById(bestResultId).orElse(null)
+                    : null;
+
+            String receptorPdb = proteinService.getReceptorPdb(proteinId);
             dto.setProteinPdb(receptorPdb);
             log.info("成功读取受体蛋白 PDB，长度: {} 字符", receptorPdb.length());
             
+            DockedPoseDTO pose = bestResultId != null ? dockedPoseService.getPose(bestResultId, modeIndex) : null;
+            if (pose != null) {
+                dto.setDockedLigandPdbqt(pose.getPdbqt());
+                dto.setBindingEnergy(pose.getAffinity());
+                log.info("使用对接构象: 结果ID={}, 序号={}", pose.getDockingResultId(), pose.getModeIndex());
+                return dto;
+            }
+
             // 读取配体 PDB
             String ligandPdb = readLigandPdb(compound.getEnglishName());
             dto.setDockedLigandPdbqt(ligandPdb);
             log.info("成功读取配体 {} PDB，长度: {} 字符", compound.getName(), ligandPdb.length());
             
-            // 设置模拟的结合能（实际应该从对接结果获取）
+            // 设置模拟的结合能（尚无对接构象时）
             dto.setBindingEnergy(generateMockBindingEnergy(compoundId));
             
         } catch (IOException e) {
@@ -54,14 +84,6 @@ public class Visual3DService {
         return dto;
     }
     
-    /**
-     * 读取受体蛋白 PDB 文件（1e9h 蛋白质）
-     */
-    private String readReceptorPdb() throws IOException {
-        ClassPathResource resource = new ClassPathResource("structures/receptor_1e9h.pdb");
-        return new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-    }
-    
     /**
      * 读取配体 PDB 文件
      */
@@ -0,0 +1,54 @@
+package com.drugscreen.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    @Test
+    void keepsBestAffinityOncePerCompound() {
+        Leaderboard board = new Leaderboard(3);
+        assertEquals(Double.POSITIVE_INFINITY, board.threshold());
+        board.offer(1, -7.0);
+        board.offer(2, -9.0);
+        board.offer(1, -6.0);   // 更差的结果不影响名次
+        assertEquals(-7.0, board.top(3).get(1).affinity());
+
+        board.offer(1, -9.5);   // 更好的结果更新名次
+        board.offer(3, -8.0);
+        assertFalse(board.offer(4, -5.0));
+        assertTrue(board.offer(5, -8.5));
+
+        List<Leaderboard.Entry> top = board.top(10);
+        assertEquals(List.of(1L, 2L, 5L), top.stream().map(Leaderboard.Entry::compoundId).toList());
+        assertFalse(board.contains(3));
+        assertEquals(-8.5, board.threshold());
+    }
+
+    @Test
+    void incrementalUpdatesMatchFullRanking() {
+        Random random = new Random(11);
+        Leaderboard board = new Leaderboard(25);
+        Map<Long, Double> best = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            long compoundId = random.nextInt(2000);
+            double affinity = Math.round(-4.0 - random.nextDouble() * 8.0) * 1.0;
+            board.offer(compoundId, affinity);
+            best.merge(compoundId, affinity, Math::min);
+        }
+
+        List<Long> expected = best.entrySet().stream()
+                .sorted((a, b) -> !a.getValue().equals(b.getValue())
+                        ? Double.compare(a.getValue(), b.getValue()) : Long.compare(a.getKey(), b.getKey()))
+                .limit(25)
+                .map(Map.Entry::getKey)
+                .toList();
+        assertEquals(expected, board.top(25).stream().map(Leaderboard.Entry::compoundId).toList());
+    }
+}
@@ -0,0 +1,95 @@
+package com.drugscreen.platform.service;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoringKernelTest {
+
+    private static ScoreCard score(double affinity, double herg, boolean ames, ScoreCard card) {
+        return ScoringKernel.score(affinity, 0.6, herg, ames, false, 0.8, 0.75, 2.5, 420.0, 2, 6, 30, card);
+    }
+
+    @Test
+    void scoresAndFlagsWithoutText() {
+        ScoreCard card = score(-8.0, 0.2, false, new ScoreCard());
+        assertFalse(card.isVetoed());
+        assertEquals(35.0, card.getSafety());
+        assertEquals(20.0, card.getPotency());
+        assertEquals(20.0, card.getDruglikeness());
+        assertEquals(75.0, card.getTotal());
+        assertTrue(card.has(ScoringKernel.FLAG_HERG_SAFE));
+        assertTrue(card.has(ScoringKernel.FLAG_GOOD_ABSORPTION));
+        assertFalse(card.has(ScoringKernel.FLAG_AMES_POSITIVE));
+    }
+
+    @Test
+    void reusedCardIsReset() {
+        ScoreCard card = new ScoreCard();
+        score(-8.0, 0.9, true, card);
+        assertTrue(card.isVetoed());
+        assertEquals(ScoringKernel.FLAG_HERG_VETO, card.getFlags());
+        assertEquals(0.0, card.getTotal());
+
+        score(-11.0, 0.5, true, card);
+        assertFalse(card.isVetoed());
+        assertTrue(card.has(ScoringKernel.FLAG_HERG_MODERATE));
+        assertTrue(card.has(ScoringKernel.FLAG_AMES_POSITIVE));
+        assertTrue(card.has(ScoringKernel.FLAG_STRONG_BINDING));
+        assertFalse(card.has(ScoringKernel.FLAG_HERG_VETO));
+
+        List<String> tags = new ArrayList<>();
+        ScoringKernel.appendTags(card, tags);
+        assertEquals(List.of("hERG风险中等", "致突变风险", "🌟 极强结合", "高配体效率", "吸收性优", "代谢稳定"), tags);
+    }
+
+    @Test
+    void profileWeightsChangeThresholds() {
+        ScoringWeights weights = ScoringProfileService.parse("{\"hergVeto\": 0.5, \"affinityFull\": -8.0}");
+        ScoreCard card = ScoringKernel.score(-8.0, 0.6, 0.6, false, false, 0.8, 0.75, 2.5, 420.0, 2, 6, 30, weights, new ScoreCard());
+        assertTrue(card.isVetoed());
+
+        card = ScoringKernel.score(-8.0, 0.6, 0.2, false, false, 0.8, 0.75, 2.5, 420.0, 2, 6, 30, weights, card);
+        assertEquals(35.0, card.getPotency());
+        assertTrue(card.has(ScoringKernel.FLAG_STRONG_BINDING));
+
+        StringBuilder advice = new StringBuilder();
+        ScoringKernel.appendAdvice(card, advice);
+        assertTrue(advice.toString().contains("45.0"));
+    }
+
+    @Test
+    void rejectsInvalidProfileJson() {
+        assertThrows(RuntimeException.class, () -> ScoringProfileService.parse("{\"hergVetoo\": 0.5}"));
+        assertThrows(RuntimeException.class, () -> ScoringProfileService.parse("{\"affinityFull\": -5.0}"));
+        assertThrows(RuntimeException.class, () -> ScoringProfileService.parse("{\"amesPoints\": -1}"));
+        assertEquals(0.7, ScoringProfileService.parse("{}").getHergVeto());
+    }
+
+    @Test
+    void kernelDoesNotAllocate() {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(mx.isThreadAllocatedMemorySupported() && mx.isThreadAllocatedMemoryEnabled());
+
+        ScoreCard card = new ScoreCard();
+        double sink = 0.0;
+        // 预热，使内核被 JIT 编译
+        for (int i = 0; i < 200_000; i++) {
+            sink += score(-6.0 - (i % 50) * 0.1, (i % 10) * 0.08, (i & 1) == 0, card).getTotal();
+        }
+        long before = mx.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            sink += score(-6.0 - (i % 50) * 0.1, (i % 10) * 0.08, (i & 1) == 0, card).getTotal();
+        }
+        long allocated = mx.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(sink > 0);
+        // 允许测量本身的少量开销，远小于每次调用一个对象（约 1.6 MB）
+        assertTrue(allocated < 64 * 1024, "评分内核产生了分配: " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,46 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.dto.ScoringResultDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoringServiceTest {
+
+    private static ScoringInput input(double affinity, double herg, int ames) {
+        return new ScoringInput(1L, 2.5, 420.0, 2, 6, 30, affinity, 0.6,
+                herg, ames, 0, 0.8, 0.75, null, null);
+    }
+
+    @Test
+    void scoresAllThreeModules() {
+        ScoringResultDTO result = ScoringService.score(input(-9.0, 0.2, 0));
+
+        assertFalse(result.getVetoed());
+        assertEquals(35.0, result.getSafetyScore(), 1e-9);
+        // 亲和力 22.5 + 相似性 5 + 配体效率 5
+        assertEquals(32.5, result.getPotencyScore(), 1e-9);
+        assertEquals(20.0, result.getDruglikenessScore(), 1e-9);
+        assertEquals(87.5, result.getTotalScore(), 1e-9);
+        assertEquals(AdmetService.PROVENANCE_REAL, result.getAdmetProvenance());
+        assertTrue(result.getAdviceTags().contains("心脏安全性佳"));
+    }
+
+    @Test
+    void hergVetoZeroesTheScore() {
+        ScoringResultDTO result = ScoringService.score(input(-11.0, 0.8, 0));
+
+        assertTrue(result.getVetoed());
+        assertEquals(0.0, result.getTotalScore());
+        assertTrue(result.getAdviceTags().contains("⛔ hERG高危熔断"));
+    }
+
+    @Test
+    void penalisesAmesPositive() {
+        ScoringResultDTO clean = ScoringService.score(input(-8.0, 0.2, 0));
+        ScoringResultDTO ames = ScoringService.score(input(-8.0, 0.2, 1));
+
+        assertEquals(10.0, clean.getTotalScore() - ames.getTotalScore(), 1e-9);
+        assertTrue(ames.getAdviceTags().contains("致突变风险"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.drugscreen.platform.service;
+
+import com.drugscreen.platform.entity.AdmetResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmilesDescriptorsTest {
+
+    @Test
+    void countsAtomsRingsAndDonors() {
+        // 阿司匹林
+        SmilesDescriptors d = SmilesDescriptors.parse("CC(=O)Oc1ccccc1C(=O)O");
+        assertEquals(13, d.getHeavyAtoms());
+        assertEquals(1, d.getHbd());
+        assertEquals(4, d.getHba());
+        assertEquals(1, d.getRingCount());
+        assertEquals(1, d.getAromaticRings());
+        assertEquals(63.6, d.getTpsa(), 0.01);
+        assertEquals(0, d.getAmesAlerts());
+    }
+
+    @Test
+    void handlesFusedRingsAndBracketAtoms() {
+        SmilesDescriptors naphthalene = SmilesDescriptors.parse("c1ccc2ccccc2c1");
+        assertEquals(2, naphthalene.getRingCount());
+        assertEquals(2, naphthalene.getAromaticRings());
+
+        // 咖啡因
+        SmilesDescriptors caffeine = SmilesDescriptors.parse("Cn1cnc2c1c(=O)n(C)c(=O)n2C");
+        assertEquals(14, caffeine.getHeavyAtoms());
+        assertEquals(0, caffeine.getHbd());
+
+        SmilesDescriptors nitro = SmilesDescriptors.parse("[O-][N+](=O)c1ccccc1");
+        assertEquals(1, nitro.getNitroAromatic());
+    }
+
+    @Test
+    void detectsStructuralAlerts() {
+        assertEquals(1, SmilesDescriptors.parse("Nc1ccccc1").getAromaticAmines());
+        assertEquals(0, SmilesDescriptors.parse("CC(=O)Nc1ccccc1").getAromaticAmines());
+        assertEquals(1, SmilesDescriptors.parse("CC1CO1").getThreeMemberedHeteroRings());
+        assertEquals(1, SmilesDescriptors.parse("c1ccsc1").getThiophenes());
+        assertEquals(1, SmilesDescriptors.parse("CCN(CC)CC").getBasicAmines());
+        assertEquals(0, SmilesDescriptors.parse("CC(=O)N(C)C").getBasicAmines());
+    }
+
+    @Test
+    void rejectsMalformedSmiles() {
+        assertThrows(RuntimeException.class, () -> SmilesDescriptors.parse("C1CC"));
+        assertThrows(RuntimeException.class, () -> SmilesDescriptors.parse("CC(C"));
+        assertThrows(RuntimeException.class, () -> SmilesDescriptors.parse(""));
+    }
+
+    @Test
+    void localEstimateStaysInRange() {
+        AdmetResult nitrobenzene = LocalRuleAdmetPredictor.estimate("[O-][N+](=O)c1ccccc1");
+        assertEquals(1, nitrobenzene.getAmesToxicity());
+
+        // 特非那定：碱性胺 + 高亲脂性，hERG 风险应明显高于阿司匹林
+        AdmetResult terfenadine = LocalRuleAdmetPredictor.estimate("CC(C)(C)c1ccc(cc1)C(O)CCCN2CCC(CC2)C(O)(c3ccccc3)c4ccccc4");
+        AdmetResult aspirin = LocalRuleAdmetPredictor.estimate("CC(=O)Oc1ccccc1C(=O)O");
+        assertTrue(terfenadine.getHergToxicity() > aspirin.getHergToxicity());
+        assertEquals(0, aspirin.getAmesToxicity());
+        assertTrue(aspirin.getAbsorption() > 0.5 && aspirin.getAbsorption() <= 1.0);
+        assertTrue(aspirin.getMetabolism() > 0.0 && aspirin.getMetabolism() <= 1.0);
+    }
+}
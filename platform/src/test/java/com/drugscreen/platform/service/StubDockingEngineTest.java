@@ -0,0 +1,50 @@
+package com.drugscreen.platform.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StubDockingEngineTest {
+
+    private static final String LIGAND = """
+            ROOT
+            HETATM    1  O   UNK     0      -0.326  -0.866  -0.125  0.00  0.00    -0.306 OA
+            HETATM    2  C   UNK     0      -2.336   0.486   0.023  0.00  0.00     0.084 A\s
+            ENDROOT
+            TORSDOF 0
+            """;
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void producesReproducibleParseablePoses() throws Exception {
+        Path ligand = Files.writeString(workDir.resolve("ligand.pdbqt"), LIGAND);
+        Path receptor = Files.writeString(workDir.resolve("receptor.pdbqt"), "ATOM\n");
+        StubDockingEngine engine = new StubDockingEngine();
+        ReflectionTestUtils.setField(engine, "latencyMs", 0L);
+
+        DockingRequest request = new DockingRequest(receptor, ligand, workDir, "ligand_out.pdbqt",
+                new double[]{11.114, 27.215, 90.265}, new double[]{49, 77, 23}, 16, 42L, 1, null);
+        DockingOutput first = engine.dock(request, null);
+        DockingOutput second = engine.dock(request, null);
+
+        assertEquals(first.bestAffinity(), second.bestAffinity());
+        assertEquals(first.posesPdbqt(), second.posesPdbqt());
+        assertTrue(first.bestAffinity() <= -5.0 && first.bestAffinity() >= -11.0);
+
+        List<PdbqtPoseParser.ParsedPose> poses = PdbqtPoseParser.parse(first.posesPdbqt());
+        assertEquals(first.modeCount(), poses.size());
+        assertEquals(first.bestAffinity(), poses.get(0).affinity(), 1e-9);
+        assertEquals(2, poses.get(0).atomCount());
+        for (int i = 1; i < poses.size(); i++) {
+            assertTrue(poses.get(i).affinity() >= poses.get(i - 1).affinity());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.drugscreen.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    void keepsHighestScoresInRankOrder() {
+        TopK top = new TopK(3);
+        top.offer(1, 50.0);
+        top.offer(2, 80.0);
+        top.offer(3, 60.0);
+        assertFalse(top.offer(4, 40.0));
+        assertTrue(top.offer(5, 90.0));
+        // 同分时 ID 小的在前
+        assertTrue(top.offer(0, 60.0));
+
+        List<TopK.Entry> sorted = top.sorted();
+        assertEquals(List.of(5L, 2L, 0L), sorted.stream().map(TopK.Entry::id).toList());
+        assertEquals(60.0, top.threshold());
+    }
+
+    @Test
+    void mergedPartitionsMatchFullSort() {
+        Random random = new Random(7);
+        double[] scores = IntStream.range(0, 5000).mapToDouble(i -> Math.round(random.nextDouble() * 1000) / 10.0).toArray();
+
+        TopK left = new TopK(20);
+        TopK right = new TopK(20);
+        for (int i = 0; i < scores.length; i++) {
+            (i % 2 == 0 ? left : right).offer(i, scores[i]);
+        }
+        left.addAll(right);
+
+        List<Long> expected = IntStream.range(0, scores.length).boxed()
+                .sorted((a, b) -> scores[a] != scores[b] ? Double.compare(scores[b], scores[a]) : Integer.compare(a, b))
+                .limit(20)
+                .map(Integer::longValue)
+                .toList();
+        assertEquals(expected, left.sorted().stream().map(TopK.Entry::id).toList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.drugscreen.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VinaOutputParserTest {
+
+    private static final String VINA_LOG = """
+            AutoDock Vina v1.2.5
+            Scoring function : vina
+            Rigid receptor: 1e9h.pdbqt
+            Ligand: quercetin.pdbqt
+            Grid center: X 11.114 Y 27.215 Z 90.265
+            Grid size  : X 49 Y 77 Z 23
+            Grid space : 0.375
+            Exhaustiveness: 16
+            CPU: 2
+            Verbosity: 1
+
+            Computing Vina grid ... done.
+            Performing docking (random seed: 42) ...\s
+            0%   10   20   30   40   50   60   70   80   90   100%
+            |----|----|----|----|----|----|----|----|----|----|
+            ***************************************************
+
+            mode |   affinity | dist from best mode
+                 | (kcal/mol) | rmsd l.b.| rmsd u.b.
+            -----+------------+----------+----------
+               1       -8.412          0          0
+               2       -8.105      1.732      2.415
+               3       -7.660      2.914      6.028
+            """;
+
+    @Test
+    void parsesAllModesAndProgress() throws IOException {
+        List<Double> progress = new ArrayList<>();
+        VinaOutputParser parser = new VinaOutputParser(false, progress::add);
+        parser.consume(new StringReader(VINA_LOG));
+
+        assertEquals(3, parser.getModeCount());
+        assertEquals(-8.412, parser.getBestAffinity(), 1e-9);
+        assertEquals(3, parser.getMode(2));
+        assertEquals(2.914, parser.getRmsdLb(2), 1e-9);
+        assertEquals(6.028, parser.getRmsdUb(2), 1e-9);
+        assertNull(parser.getLog());
+
+        assertEquals(51, progress.size());
+        assertEquals(1.0, progress.get(progress.size() - 1), 1e-9);
+    }
+
+    @Test
+    void handlesChunksSplitMidLine() {
+        VinaOutputParser parser = new VinaOutputParser(true, null);
+        char[] chars = VINA_LOG.toCharArray();
+        for (int i = 0; i < chars.length; i += 7) {
+            parser.feed(chars, i, Math.min(7, chars.length - i));
+        }
+        parser.finish();
+
+        assertEquals(3, parser.getModeCount());
+        assertEquals(-7.660, parser.getAffinity(2), 1e-9);
+        assertEquals(VINA_LOG, parser.getLog());
+    }
+
+    @Test
+    void failsWithoutModeTable() {
+        VinaOutputParser parser = new VinaOutputParser(false, null);
+        char[] chars = "Error: could not open ligand\n".toCharArray();
+        parser.feed(chars, 0, chars.length);
+        parser.finish();
+
+        assertEquals(0, parser.getModeCount());
+        assertThrows(RuntimeException.class, parser::getBestAffinity);
+        assertTrue(parser.getTail().contains("could not open ligand"));
+    }
+}
@@ -37,7 +37,13 @@ SELECT
     CASE WHEN RANDOM() > 0.7 THEN 1 ELSE 0 END,
     -- 肝毒性：0 或 1
     CASE WHEN RANDOM() > 0.8 THEN 1 ELSE 0 END
-FROM compounds;
+FROM compounds
+-- 每个化合物只有一条 ADMET 结果，已存在时覆盖
+ON CONFLICT (compound_id) DO UPDATE SET
+    herg_toxicity = EXCLUDED.herg_toxicity,
+    ames_toxicity = EXCLUDED.ames_toxicity,
+    liver_toxicity = EXCLUDED.liver_toxicity,
+    updated_at = CURRENT_TIMESTAMP;
 
 -- 验证
 SELECT 'ADMET 结果插入完成，共 ' || COUNT(*) || ' 条记录' AS status FROM admet_results;
@@ -0,0 +1,23 @@
+-- ============================================
+-- 药物筛选平台 - 已有数据库升级脚本
+-- 说明：在旧版本数据库上启动新版本应用前执行一次；可重复执行
+--       新建数据库直接使用 数据库完整初始化脚本.sql，无需执行本脚本
+-- ============================================
+
+-- ============================================
+-- admet_results：每个化合物只保留一条 ADMET 结果
+-- ============================================
+
+-- 删除重复记录，每个 compound_id 保留最新的一条（updated_at 最大，相同时保留 ID 最大的）
+DELETE FROM admet_results
+WHERE id IN (
+    SELECT id FROM (
+        SELECT id,
+               ROW_NUMBER() OVER (PARTITION BY compound_id ORDER BY updated_at DESC NULLS LAST, id DESC) AS rn
+        FROM admet_results
+    ) ranked
+    WHERE ranked.rn > 1
+);
+
+DROP INDEX IF EXISTS idx_admet_compound;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_admet_results_compound ON admet_results(compound_id);
@@ -8,6 +8,12 @@
 -- ============================================
 -- 第一步：删除旧表
 -- ============================================
+DROP TABLE IF EXISTS scoring_profiles CASCADE;
+DROP TABLE IF EXISTS admet_prediction_cache CASCADE;
+DROP TABLE IF EXISTS docking_jobs CASCADE;
+DROP TABLE IF EXISTS docked_poses CASCADE;
+DROP TABLE IF EXISTS docking_cache CASCADE;
+DROP TABLE IF EXISTS screening_runs CASCADE;
 DROP TABLE IF EXISTS analysis_reports CASCADE;
 DROP TABLE IF EXISTS admet_results CASCADE;
 DROP TABLE IF EXISTS docking_results CASCADE;
@@ -47,12 +53,23 @@ CREATE TABLE proteins (
     name VARCHAR(50) NOT NULL UNIQUE,
     description TEXT,
     pdb_content TEXT NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    pdbqt_content TEXT,
+    box_center_x DOUBLE PRECISION,
+    box_center_y DOUBLE PRECISION,
+    box_center_z DOUBLE PRECISION,
+    box_size_x DOUBLE PRECISION,
+    box_size_y DOUBLE PRECISION,
+    box_size_z DOUBLE PRECISION,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
 COMMENT ON TABLE proteins IS '蛋白质数据表';
 COMMENT ON COLUMN proteins.name IS '蛋白名称，如 1e9h';
 COMMENT ON COLUMN proteins.pdb_content IS 'PDB 文件内容';
+COMMENT ON COLUMN proteins.pdbqt_content IS '对接用受体 PDBQT 内容（为空时使用 pdb_content）';
+COMMENT ON COLUMN proteins.box_center_x IS '对接盒中心与尺寸 (Å)';
+COMMENT ON COLUMN proteins.updated_at IS '受体文件缓存据此判断内容是否变化';
 
 -- 3. 化合物表 (存配体)
 CREATE TABLE compounds (
@@ -84,6 +101,11 @@ COMMENT ON COLUMN compounds.hba IS '氢键受体数';
 CREATE TABLE docking_results (
     id BIGSERIAL PRIMARY KEY,
     compound_id BIGINT REFERENCES compounds(id) ON DELETE CASCADE,
+    protein_id BIGINT,
+    screening_run_id BIGINT,
+    fingerprint VARCHAR(64),
+    stage INT,
+    exhaustiveness INT,
     affinity DOUBLE PRECISION,
     status VARCHAR(50),
     docked_pdbqt_content TEXT,
@@ -93,9 +115,16 @@ CREATE TABLE docking_results (
 
 CREATE INDEX idx_docking_compound ON docking_results(compound_id);
 CREATE INDEX idx_docking_affinity ON docking_results(affinity);
+CREATE INDEX idx_docking_results_fingerprint ON docking_results(fingerprint);
+CREATE INDEX idx_docking_results_compound_affinity ON docking_results(compound_id, affinity);
 
 COMMENT ON TABLE docking_results IS '分子对接结果表';
 COMMENT ON COLUMN docking_results.affinity IS '结合亲和力 (kcal/mol)，值越低越好';
+COMMENT ON COLUMN docking_results.protein_id IS '受体蛋白 ID';
+COMMENT ON COLUMN docking_results.screening_run_id IS '所属虚拟筛选批次 ID（单独提交时为空）';
+COMMENT ON COLUMN docking_results.stage IS '漏斗筛选阶段（1 快速初筛，2 精细复筛），非漏斗任务为空';
+COMMENT ON COLUMN docking_results.exhaustiveness IS '本次对接使用的 Vina 穷举度';
+COMMENT ON COLUMN docking_results.fingerprint IS '输入指纹（引擎、化合物、受体版本、对接参数的 SHA-256），用于合并重复提交';
 
 -- 4. ADMET 结果表
 CREATE TABLE admet_results (
@@ -104,15 +133,21 @@ CREATE TABLE admet_results (
     herg_toxicity DOUBLE PRECISION,
     ames_toxicity INT,
     liver_toxicity INT,
+    absorption DOUBLE PRECISION,
+    metabolism DOUBLE PRECISION,
+    provenance VARCHAR(20),
+    predictor VARCHAR(40),
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
-CREATE INDEX idx_admet_compound ON admet_results(compound_id);
+CREATE UNIQUE INDEX uk_admet_results_compound ON admet_results(compound_id);
 
 COMMENT ON TABLE admet_results IS 'ADMET 性质预测结果表';
 COMMENT ON COLUMN admet_results.herg_toxicity IS 'hERG 心脏毒性风险';
 COMMENT ON COLUMN admet_results.ames_toxicity IS 'Ames 致突变性 (0=阴性, 1=阳性)';
 COMMENT ON COLUMN admet_results.liver_toxicity IS '肝毒性 (0=无, 1=有)';
+COMMENT ON COLUMN admet_results.predictor IS '预测引擎 (remote / local)，旧数据为空时视为 remote';
+COMMENT ON COLUMN admet_results.provenance IS '数据来源 (REAL 真实预测, DEFAULTED 服务不可用时的默认值, STALE 过期的历史预测)';
 
 -- 5. 综合分析报告表
 CREATE TABLE analysis_reports (
@@ -123,6 +158,8 @@ CREATE TABLE analysis_reports (
     safety_score DOUBLE PRECISION,
     druglikeness_score DOUBLE PRECISION,
     is_vetoed BOOLEAN DEFAULT FALSE,
+    admet_provenance VARCHAR(20),
+    scoring_profile VARCHAR(80),
     advice_tags TEXT[],
     expert_advice TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
@@ -134,6 +171,150 @@ CREATE INDEX idx_analysis_score ON analysis_reports(total_score DESC);
 COMMENT ON TABLE analysis_reports IS '综合分析报告表';
 COMMENT ON COLUMN analysis_reports.is_vetoed IS '是否被熔断机制否决';
 COMMENT ON COLUMN analysis_reports.advice_tags IS '建议标签数组';
+COMMENT ON COLUMN analysis_reports.scoring_profile IS '评分方案及版本 (builtin 或 名称@v版本)';
+COMMENT ON COLUMN analysis_reports.admet_provenance IS '评分所用 ADMET 数据的来源 (REAL / DEFAULTED / STALE)';
+
+-- 6. 虚拟筛选批次表
+CREATE TABLE screening_runs (
+    id BIGSERIAL PRIMARY KEY,
+    selection_type VARCHAR(20) NOT NULL,
+    selection_value TEXT,
+    protein_ids TEXT,
+    priority INT,
+    mode VARCHAR(20),
+    funnel_stage INT,
+    refine_top_n INT,
+    refine_top_percent DOUBLE PRECISION,
+    refine_max_affinity DOUBLE PRECISION,
+    dispatch_cursor BIGINT,
+    dispatch_done BOOLEAN,
+    owner_node VARCHAR(100),
+    status VARCHAR(50),
+    total INT,
+    completed INT,
+    failed INT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+COMMENT ON TABLE screening_runs IS '虚拟筛选批次表';
+COMMENT ON COLUMN screening_runs.selection_type IS '化合物选择方式 (ALL, CATEGORY, IDS)';
+COMMENT ON COLUMN screening_runs.selection_value IS '分类名或逗号分隔的化合物ID';
+COMMENT ON COLUMN screening_runs.protein_ids IS '逗号分隔的受体蛋白ID';
+COMMENT ON COLUMN screening_runs.mode IS '筛选模式 (STANDARD, FUNNEL)';
+COMMENT ON COLUMN screening_runs.funnel_stage IS '漏斗模式当前阶段（1 初筛，2 复筛）';
+COMMENT ON COLUMN screening_runs.refine_top_n IS '复筛：每个受体取初筛前 N 名';
+COMMENT ON COLUMN screening_runs.refine_top_percent IS '复筛：每个受体取初筛前百分之几';
+COMMENT ON COLUMN screening_runs.refine_max_affinity IS '复筛：初筛亲和力不高于该值 (kcal/mol)';
+COMMENT ON COLUMN screening_runs.dispatch_cursor IS '分发进度：ALL/CATEGORY 为最后分发的化合物ID，IDS 为已分发的个数';
+COMMENT ON COLUMN screening_runs.dispatch_done IS '是否已全部分发';
+COMMENT ON COLUMN screening_runs.owner_node IS '创建并负责分发该批次的节点';
+COMMENT ON COLUMN screening_runs.status IS '批次状态 (RUNNING, COMPLETED)';
+COMMENT ON COLUMN screening_runs.total IS '已分发的对接任务数';
+
+-- 7. 对接结果缓存表
+CREATE TABLE docking_cache (
+    id BIGSERIAL PRIMARY KEY,
+    cache_key VARCHAR(64) NOT NULL UNIQUE,
+    affinity DOUBLE PRECISION,
+    log_content TEXT,
+    poses_pdbqt TEXT,
+    hit_count BIGINT DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_hit_at TIMESTAMP
+);
+
+COMMENT ON TABLE docking_cache IS '对接结果缓存表，以对接输入的哈希为键';
+COMMENT ON COLUMN docking_cache.cache_key IS '输入内容（受体、配体、对接盒、搜索参数）的 SHA-256';
+COMMENT ON COLUMN docking_cache.poses_pdbqt IS '*_out.pdbqt 中的全部对接构象';
+COMMENT ON COLUMN docking_cache.hit_count IS '命中次数';
+
+-- 8. 对接构象表
+CREATE TABLE docked_poses (
+    id BIGSERIAL PRIMARY KEY,
+    docking_result_id BIGINT NOT NULL REFERENCES docking_results(id) ON DELETE CASCADE,
+    mode_index INT NOT NULL,
+    affinity DOUBLE PRECISION,
+    rmsd_lb DOUBLE PRECISION,
+    rmsd_ub DOUBLE PRECISION,
+    atom_count INT,
+    pose_block BYTEA,
+    CONSTRAINT uk_docked_poses_result_mode UNIQUE (docking_result_id, mode_index)
+);
+
+COMMENT ON TABLE docked_poses IS '对接构象表，每个对接结果的每个结合模式一行';
+COMMENT ON COLUMN docked_poses.mode_index IS '结合模式序号（1 为最佳）';
+COMMENT ON COLUMN docked_poses.pose_block IS 'gzip 压缩的 MODEL...ENDMDL 构象块';
+
+-- 9. 对接任务队列表
+CREATE TABLE docking_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    docking_result_id BIGINT NOT NULL UNIQUE REFERENCES docking_results(id) ON DELETE CASCADE,
+    compound_id BIGINT NOT NULL,
+    protein_id BIGINT NOT NULL,
+    screening_run_id BIGINT,
+    priority INT NOT NULL,
+    exhaustiveness INT,
+    status VARCHAR(20) NOT NULL,
+    lease_owner VARCHAR(100),
+    lease_expires_at TIMESTAMP,
+    heartbeat_at TIMESTAMP,
+    cancel_requested BOOLEAN DEFAULT FALSE,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_docking_jobs_claim ON docking_jobs(status, priority, id);
+CREATE INDEX idx_docking_jobs_run ON docking_jobs(screening_run_id, status);
+
+COMMENT ON TABLE docking_jobs IS '对接任务队列表，节点以租约方式领取任务并定期续约';
+COMMENT ON COLUMN docking_jobs.docking_result_id IS '对应的对接结果 ID（即任务 ID）';
+COMMENT ON COLUMN docking_jobs.status IS '任务状态 (QUEUED, LEASED, DONE, FAILED, CANCELLED)';
+COMMENT ON COLUMN docking_jobs.lease_owner IS '持有租约的节点';
+COMMENT ON COLUMN docking_jobs.lease_expires_at IS '租约到期时间，过期后重新入队';
+COMMENT ON COLUMN docking_jobs.cancel_requested IS '已请求取消，由持有租约的节点在续约时终止任务';
+COMMENT ON COLUMN docking_jobs.attempts IS '已领取次数';
+
+-- 10. ADMET 预测缓存表
+CREATE TABLE admet_prediction_cache (
+    id BIGSERIAL PRIMARY KEY,
+    cache_key VARCHAR(64) NOT NULL UNIQUE,
+    smiles TEXT,
+    predictor_version VARCHAR(100),
+    success BOOLEAN NOT NULL,
+    herg_toxicity DOUBLE PRECISION,
+    ames_toxicity INT,
+    liver_toxicity INT,
+    absorption DOUBLE PRECISION,
+    metabolism DOUBLE PRECISION,
+    error_message VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_admet_cache_expires ON admet_prediction_cache(expires_at);
+
+COMMENT ON TABLE admet_prediction_cache IS 'ADMET 预测缓存表，以规范化 SMILES + 预测器版本的哈希为键';
+COMMENT ON COLUMN admet_prediction_cache.cache_key IS 'SHA-256(预测器版本 + 规范化 SMILES)';
+COMMENT ON COLUMN admet_prediction_cache.success IS '预测是否成功（失败条目为负缓存）';
+COMMENT ON COLUMN admet_prediction_cache.expires_at IS '过期时间';
+
+-- 11. 评分方案表
+CREATE TABLE scoring_profiles (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    version INT NOT NULL,
+    weights_json TEXT NOT NULL,
+    description VARCHAR(500),
+    active BOOLEAN DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_scoring_profiles_name_version UNIQUE (name, version)
+);
+
+COMMENT ON TABLE scoring_profiles IS '评分方案表，同名方案每次修改保存为新版本';
+COMMENT ON COLUMN scoring_profiles.weights_json IS '权重与阈值（ScoringWeights 的 JSON）';
+COMMENT ON COLUMN scoring_profiles.active IS '是否为当前生效的方案（全局只有一个）';
 
 -- ============================================
 -- 第三步：插入化合物数据（48个）